@@ -0,0 +1,113 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Locates the bundled datasets and writes scaled-up synthetic copies of them. A dataset of scale k holds
+ * every bundled mission k times, each copy with its own ids, so all rockets and companies keep matching.
+ */
+final class BenchmarkData {
+
+    static final String MISSIONS_FILE = "all-missions-from-1957.csv";
+    static final String ROCKETS_FILE = "all-rockets-from-1957.csv";
+
+    private static final String DATA_DIR_PROPERTY = "space.data.dir";
+    private static final int AES_KEY_SIZE = 128;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns the directory with the bundled CSV files: the space.data.dir system property if set,
+     * otherwise the current directory or its parent.
+     */
+    static Path dataDirectory() {
+        String configured = System.getProperty(DATA_DIR_PROPERTY);
+        if (configured != null) {
+            return Path.of(configured);
+        }
+
+        Path current = Path.of("").toAbsolutePath();
+        for (Path candidate : List.of(current, current.getParent())) {
+            if (candidate != null && Files.exists(candidate.resolve(MISSIONS_FILE))) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Cannot find " + MISSIONS_FILE + ", set -D" + DATA_DIR_PROPERTY);
+    }
+
+    static Path bundledMissions() {
+        return dataDirectory().resolve(MISSIONS_FILE);
+    }
+
+    static Path bundledRockets() {
+        return dataDirectory().resolve(ROCKETS_FILE);
+    }
+
+    static List<String> lines(Path file) {
+        try {
+            return Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a missions file scale times the size of the bundled one into a temporary file.
+     */
+    static Path scaledMissions(int scale) {
+        if (scale == 1) {
+            return bundledMissions();
+        }
+
+        List<String> lines = lines(bundledMissions());
+        try {
+            Path file = Files.createTempFile("missions-x" + scale + "-", ".csv");
+            file.toFile().deleteOnExit();
+
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write(lines.get(0));
+                writer.newLine();
+
+                long id = 0;
+                for (int copy = 0; copy < scale; copy++) {
+                    for (String line : lines.subList(1, lines.size())) {
+                        writer.write(Long.toString(id++));
+                        writer.write(line, line.indexOf(','), line.length() - line.indexOf(','));
+                        writer.newLine();
+                    }
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String read(Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static SecretKey secretKey() {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(AES_KEY_SIZE);
+            return generator.generateKey();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("AES is not available", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full construction of a scanner, indexes included, from in-memory text and from files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IngestionBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private Path missionsFile;
+    private Path rocketsFile;
+    private String missionsText;
+    private String rocketsText;
+    private SecretKey secretKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        missionsFile = BenchmarkData.scaledMissions(scale);
+        rocketsFile = BenchmarkData.bundledRockets();
+        missionsText = BenchmarkData.read(missionsFile);
+        rocketsText = BenchmarkData.read(rocketsFile);
+        secretKey = BenchmarkData.secretKey();
+    }
+
+    @Benchmark
+    public MJTSpaceScanner readerConstructor() {
+        Reader missions = new StringReader(missionsText);
+        Reader rockets = new StringReader(rocketsText);
+        return new MJTSpaceScanner(missions, rockets, secretKey);
+    }
+
+    @Benchmark
+    public MJTSpaceScanner fromFiles() throws IOException {
+        return MJTSpaceScanner.fromFiles(missionsFile, rocketsFile, secretKey);
+    }
+}
@@ -0,0 +1,100 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import bg.sofia.uni.fmi.mjt.space.parser.MissionParser;
+import bg.sofia.uni.fmi.mjt.space.parser.RocketParser;
+import bg.sofia.uni.fmi.mjt.space.splitter.FieldCursor;
+import bg.sofia.uni.fmi.mjt.space.splitter.FieldCursorCSV;
+import bg.sofia.uni.fmi.mjt.space.splitter.SplitterCSV;
+import bg.sofia.uni.fmi.mjt.space.splitter.StringSplitter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting and record parsing of every line of the bundled datasets, per full pass over the file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    private static final char SEPARATOR = ',';
+
+    private List<String> missionLines;
+    private List<String> rocketLines;
+
+    private final StringSplitter splitter = new SplitterCSV();
+    private final FieldCursor cursor = new FieldCursorCSV();
+    private final MissionParser missionParserWithSplitter = new MissionParser(new SplitterCSV());
+    private final MissionParser missionParserWithCursor = new MissionParser(new FieldCursorCSV());
+    private final RocketParser rocketParserWithSplitter = new RocketParser(new SplitterCSV());
+    private final RocketParser rocketParserWithCursor = new RocketParser(new FieldCursorCSV());
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> missions = BenchmarkData.lines(BenchmarkData.bundledMissions());
+        List<String> rockets = BenchmarkData.lines(BenchmarkData.bundledRockets());
+        missionLines = missions.subList(1, missions.size());
+        rocketLines = rockets.subList(1, rockets.size());
+    }
+
+    @Benchmark
+    public void splitterSplit(Blackhole blackhole) {
+        for (String line : missionLines) {
+            blackhole.consume(splitter.split(line, SEPARATOR));
+        }
+    }
+
+    @Benchmark
+    public void fieldCursorWalk(Blackhole blackhole) {
+        for (String line : missionLines) {
+            cursor.reset(line, SEPARATOR);
+            while (cursor.next()) {
+                blackhole.consume(cursor.end());
+            }
+        }
+    }
+
+    @Benchmark
+    public void missionParserWithSplitter(Blackhole blackhole) {
+        for (String line : missionLines) {
+            blackhole.consume(missionParserWithSplitter.parseRecord(line));
+        }
+    }
+
+    @Benchmark
+    public void missionParserWithCursor(Blackhole blackhole) {
+        for (String line : missionLines) {
+            blackhole.consume(missionParserWithCursor.parseRecord(line));
+        }
+    }
+
+    @Benchmark
+    public void rocketParserWithSplitter(Blackhole blackhole) {
+        for (String line : rocketLines) {
+            blackhole.consume(rocketParserWithSplitter.parseRecord(line));
+        }
+    }
+
+    @Benchmark
+    public void rocketParserWithCursor(Blackhole blackhole) {
+        for (String line : rocketLines) {
+            blackhole.consume(rocketParserWithCursor.parseRecord(line));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import bg.sofia.uni.fmi.mjt.space.algorithm.Rijndael;
+import bg.sofia.uni.fmi.mjt.space.algorithm.SegmentedAesGcm;
+import bg.sofia.uni.fmi.mjt.space.algorithm.SymmetricBlockCipher;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encryption and decryption of payloads from a rocket name up to a large export, with the single-threaded
+ * ECB cipher and the parallel segmented GCM one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RijndaelBenchmark {
+
+    @Param({"16", "65536", "16777216"})
+    public int size;
+
+    @Param({"Rijndael", "SegmentedAesGcm"})
+    public String algorithm;
+
+    private SymmetricBlockCipher cipher;
+    private byte[] plaintext;
+    private byte[] ciphertext;
+
+    @Setup(Level.Trial)
+    public void setUp() throws CipherException {
+        cipher = algorithm.equals("Rijndael") ? new Rijndael(BenchmarkData.secretKey())
+                : new SegmentedAesGcm(BenchmarkData.secretKey());
+        plaintext = new byte[size];
+        new Random(size).nextBytes(plaintext);
+        ciphertext = encrypt();
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws CipherException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + size / 8 + 64);
+        cipher.encrypt(new ByteArrayInputStream(plaintext), out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] decrypt() throws CipherException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        cipher.decrypt(new ByteArrayInputStream(ciphertext), out);
+        return out.toByteArray();
+    }
+}
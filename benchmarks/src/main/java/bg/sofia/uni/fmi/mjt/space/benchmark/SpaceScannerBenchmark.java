@@ -0,0 +1,139 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every SpaceScannerAPI query over the bundled dataset (scale 1) and over synthetic copies of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpaceScannerBenchmark {
+
+    private static final LocalDate HISTORY_FROM = LocalDate.of(1957, 1, 1);
+    private static final LocalDate HISTORY_TO = LocalDate.of(2020, 12, 31);
+    private static final LocalDate MONTH_FROM = LocalDate.of(1985, 6, 1);
+    private static final LocalDate MONTH_TO = LocalDate.of(1985, 6, 30);
+    private static final int TOP_N = 10;
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private SpaceScannerAPI scanner;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        scanner = MJTSpaceScanner.fromFiles(BenchmarkData.scaledMissions(scale), BenchmarkData.bundledRockets(),
+                BenchmarkData.secretKey());
+    }
+
+    @Benchmark
+    public Collection<Mission> getAllMissions() {
+        return scanner.getAllMissions();
+    }
+
+    @Benchmark
+    public Collection<Mission> getAllMissionsByStatus() {
+        return scanner.getAllMissions(MissionStatus.PARTIAL_FAILURE);
+    }
+
+    @Benchmark
+    public String getCompanyWithMostSuccessfulMissionsHistory() {
+        return scanner.getCompanyWithMostSuccessfulMissions(HISTORY_FROM, HISTORY_TO);
+    }
+
+    @Benchmark
+    public String getCompanyWithMostSuccessfulMissionsMonth() {
+        return scanner.getCompanyWithMostSuccessfulMissions(MONTH_FROM, MONTH_TO);
+    }
+
+    @Benchmark
+    public Map<String, Collection<Mission>> getMissionsPerCountry() {
+        return scanner.getMissionsPerCountry();
+    }
+
+    @Benchmark
+    public List<Mission> getTopNLeastExpensiveMissions() {
+        return scanner.getTopNLeastExpensiveMissions(TOP_N, MissionStatus.SUCCESS, RocketStatus.STATUS_ACTIVE);
+    }
+
+    @Benchmark
+    public Map<String, String> getMostDesiredLocationForMissionsPerCompany() {
+        return scanner.getMostDesiredLocationForMissionsPerCompany();
+    }
+
+    @Benchmark
+    public Map<String, String> getLocationWithMostSuccessfulMissionsPerCompanyHistory() {
+        return scanner.getLocationWithMostSuccessfulMissionsPerCompany(HISTORY_FROM, HISTORY_TO);
+    }
+
+    @Benchmark
+    public Map<String, String> getLocationWithMostSuccessfulMissionsPerCompanyMonth() {
+        return scanner.getLocationWithMostSuccessfulMissionsPerCompany(MONTH_FROM, MONTH_TO);
+    }
+
+    @Benchmark
+    public Collection<Rocket> getAllRockets() {
+        return scanner.getAllRockets();
+    }
+
+    @Benchmark
+    public List<Rocket> getTopNTallestRockets() {
+        return scanner.getTopNTallestRockets(TOP_N);
+    }
+
+    @Benchmark
+    public Map<String, Optional<String>> getWikiPageForRocket() {
+        return scanner.getWikiPageForRocket();
+    }
+
+    @Benchmark
+    public List<String> getWikiPagesForRocketsUsedInMostExpensiveMissions() {
+        return scanner.getWikiPagesForRocketsUsedInMostExpensiveMissions(TOP_N, MissionStatus.SUCCESS,
+                RocketStatus.STATUS_ACTIVE);
+    }
+
+    @Benchmark
+    public byte[] saveMostReliableRocketHistory() throws CipherException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        scanner.saveMostReliableRocket(out, HISTORY_FROM, HISTORY_TO);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] saveMostReliableRocketMonth() throws CipherException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        scanner.saveMostReliableRocket(out, MONTH_FROM, MONTH_TO);
+        return out.toByteArray();
+    }
+}
@@ -4,64 +4,443 @@ import bg.sofia.uni.fmi.mjt.space.algorithm.Rijndael;
 import bg.sofia.uni.fmi.mjt.space.algorithm.SymmetricBlockCipher;
 import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
 import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import bg.sofia.uni.fmi.mjt.space.index.BitmapIndex;
+import bg.sofia.uni.fmi.mjt.space.index.CompanySuccessIndex;
+import bg.sofia.uni.fmi.mjt.space.index.CountryBuckets;
+import bg.sofia.uni.fmi.mjt.space.index.DateIndex;
+import bg.sofia.uni.fmi.mjt.space.index.RocketJoinIndex;
+import bg.sofia.uni.fmi.mjt.space.index.RowBitmap;
+import bg.sofia.uni.fmi.mjt.space.loader.CSVRecordReader;
+import bg.sofia.uni.fmi.mjt.space.loader.CountingReader;
+import bg.sofia.uni.fmi.mjt.space.loader.IngestionPolicy;
+import bg.sofia.uni.fmi.mjt.space.loader.LoadPhase;
+import bg.sofia.uni.fmi.mjt.space.loader.LoadRecorder;
+import bg.sofia.uni.fmi.mjt.space.loader.LoadStats;
+import bg.sofia.uni.fmi.mjt.space.loader.ParallelCSVLoader;
+import bg.sofia.uni.fmi.mjt.space.loader.RejectBudget;
+import bg.sofia.uni.fmi.mjt.space.loader.RejectedLine;
 import bg.sofia.uni.fmi.mjt.space.mission.Mission;
 import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
 import bg.sofia.uni.fmi.mjt.space.parser.MissionParser;
+import bg.sofia.uni.fmi.mjt.space.parser.RecordParser;
 import bg.sofia.uni.fmi.mjt.space.parser.RocketParser;
+import bg.sofia.uni.fmi.mjt.space.query.MissionQuery;
 import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
 import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
-import bg.sofia.uni.fmi.mjt.space.splitter.SplitterCSV;
-import bg.sofia.uni.fmi.mjt.space.splitter.StringSplitter;
+import bg.sofia.uni.fmi.mjt.space.selection.TopKSelector;
+import bg.sofia.uni.fmi.mjt.space.splitter.FieldCursorCSV;
+import bg.sofia.uni.fmi.mjt.space.storage.DatasetSnapshot;
+import bg.sofia.uni.fmi.mjt.space.storage.DictionaryStats;
+import bg.sofia.uni.fmi.mjt.space.storage.EncryptedSnapshot;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+import bg.sofia.uni.fmi.mjt.space.storage.StringDictionary;
 
 import javax.crypto.SecretKey;
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Answers the SpaceScannerAPI queries over columnar mission storage and the indexes derived from it.
+ * Missions and rockets can be appended after construction. Queries may run concurrently with each other,
+ * but appends must not run concurrently with queries; ConcurrentSpaceScanner swaps whole scanners instead.
+ */
 public class MJTSpaceScanner implements SpaceScannerAPI {
 
-    private final List<Mission> missions;
+    private static final int LOAD_BATCH_SIZE = 1024;
+
+    private final MissionColumns missions;
+    private final DateIndex dateIndex;
+    private final CompanySuccessIndex companySuccessIndex;
+    private final RocketJoinIndex rocketJoinIndex;
+    private final CountryBuckets countryBuckets;
+    private final BitmapIndex bitmapIndex;
     private final List<Rocket> rockets;
+    private final SecretKey secretKey;
     private final SymmetricBlockCipher cipher;
+    private final LoadStats loadStats;
+    private volatile long dataVersion;
 
     public MJTSpaceScanner(Reader missionsReader, Reader rocketsReader, SecretKey secretKey) {
-        StringSplitter splitter = new SplitterCSV();
+        this(missionsReader, rocketsReader, secretKey, IngestionPolicy.strict());
+    }
+
+    /**
+     * Creates a scanner that deals with the lines it cannot parse as the policy says. The header line of
+     * each reader is line one of the line numbers reported to a reject sink. Records are split as by
+     * fromFiles: a record ends at a line feed outside quotes, so a quoted field may span several lines.
+     *
+     * @throws IllegalArgumentException if policy is null, or a line cannot be parsed and the policy does
+     *                                  not allow it
+     */
+    public MJTSpaceScanner(Reader missionsReader, Reader rocketsReader, SecretKey secretKey,
+                           IngestionPolicy policy) {
+        this(missionsReader, rocketsReader, secretKey, new RejectBudget(policy), new LoadRecorder());
+    }
+
+    private MJTSpaceScanner(Reader missionsReader, Reader rocketsReader, SecretKey secretKey, RejectBudget budget,
+                            LoadRecorder recorder) {
+        this(readMissions(missionsReader, budget, recorder), readRockets(rocketsReader, budget, recorder), secretKey,
+                recorder);
+    }
+
+    private MJTSpaceScanner(MissionColumns missions, List<Rocket> rockets, SecretKey secretKey, LoadRecorder recorder) {
+        long encodingStart = System.nanoTime();
+        this.missions = missions;
+        this.rockets = new ArrayList<>(rockets.size());
+        rockets.stream().map(this::withCanonicalName).forEach(this.rockets::add);
+
+        long indexStart = System.nanoTime();
+        dateIndex = new DateIndex(missions);
+        companySuccessIndex = new CompanySuccessIndex(missions, dateIndex);
+        rocketJoinIndex = new RocketJoinIndex(missions, dateIndex, this.rockets);
+        countryBuckets = new CountryBuckets(missions);
+        bitmapIndex = new BitmapIndex(missions);
+        this.secretKey = secretKey;
+        cipher = new Rijndael(secretKey);
+
+        recorder.addTime(LoadPhase.COLUMN_ENCODING, indexStart - encodingStart);
+        recorder.addTime(LoadPhase.INDEX_BUILD, System.nanoTime() - indexStart);
+        loadStats = recorder.finish(missions.size(), this.rockets.size());
+    }
+
+    /**
+     * Creates a scanner by memory-mapping both CSV files and parsing them in parallel. A record ends at a
+     * line feed outside quotes, so a quoted field may span several lines; the Reader constructor splits
+     * records the same way and loads the same missions and rockets from the same text.
+     *
+     * @param missionsFile the missions CSV file, header line included
+     * @param rocketsFile  the rockets CSV file, header line included
+     * @param secretKey    the key used by saveMostReliableRocket
+     * @throws IllegalArgumentException if any argument is null or a line cannot be parsed
+     * @throws IOException              if a file cannot be read
+     */
+    public static MJTSpaceScanner fromFiles(Path missionsFile, Path rocketsFile, SecretKey secretKey)
+            throws IOException {
+        return fromFiles(missionsFile, rocketsFile, secretKey, IngestionPolicy.strict());
+    }
+
+    /**
+     * Creates a scanner by memory-mapping both CSV files and parsing them in parallel, dealing with the
+     * lines that cannot be parsed as the policy says. The lines of a file are reported to a reject sink
+     * once the whole file has been parsed.
+     *
+     * @param missionsFile the missions CSV file, header line included
+     * @param rocketsFile  the rockets CSV file, header line included
+     * @param secretKey    the key used by saveMostReliableRocket
+     * @param policy       what to do with the lines that cannot be parsed
+     * @throws IllegalArgumentException if a file or policy is null, or a line cannot be parsed and the
+     *                                  policy does not allow it
+     * @throws IOException              if a file cannot be read
+     */
+    public static MJTSpaceScanner fromFiles(Path missionsFile, Path rocketsFile, SecretKey secretKey,
+                                            IngestionPolicy policy) throws IOException {
+        ParallelCSVLoader loader = new ParallelCSVLoader();
+        LoadRecorder recorder = new LoadRecorder();
+        RejectBudget budget = new RejectBudget(policy);
+
+        long start = System.nanoTime();
+        List<Mission> parsedMissions =
+                loader.load(missionsFile, () -> new MissionParser(new FieldCursorCSV()), budget);
+        long encodingStart = System.nanoTime();
+        MissionColumns missions = new MissionColumns();
+        parsedMissions.forEach(missions::add);
+        long rocketsStart = System.nanoTime();
+        recorder.sampleHeap();
+        List<Rocket> rockets = loader.load(rocketsFile, () -> new RocketParser(new FieldCursorCSV()), budget);
+
+        recorder.addTime(LoadPhase.MISSION_PARSE, encodingStart - start);
+        recorder.addTime(LoadPhase.COLUMN_ENCODING, rocketsStart - encodingStart);
+        recorder.addTime(LoadPhase.ROCKET_PARSE, System.nanoTime() - rocketsStart);
+        recorder.addBytesRead(Files.size(missionsFile) + Files.size(rocketsFile));
+        recorder.addRejectedRows(budget.rejected());
+        return new MJTSpaceScanner(missions, rockets, secretKey, recorder);
+    }
+
+    /**
+     * Creates a scanner from a snapshot written by writeSnapshot. The snapshot is memory-mapped and no
+     * text is parsed; the mission ids and payloads are decoded from the mapping only when requested.
+     *
+     * @param snapshotFile the snapshot file
+     * @param secretKey    the key used by saveMostReliableRocket
+     * @throws IllegalArgumentException if snapshotFile is null
+     * @throws IOException              if the file cannot be read or is not a valid snapshot
+     */
+    public static MJTSpaceScanner fromSnapshot(Path snapshotFile, SecretKey secretKey) throws IOException {
+        LoadRecorder recorder = new LoadRecorder();
+        long start = System.nanoTime();
+        DatasetSnapshot snapshot = DatasetSnapshot.open(snapshotFile);
+        recorder.addTime(LoadPhase.READ, System.nanoTime() - start);
+        recorder.addBytesRead(Files.size(snapshotFile));
+        return new MJTSpaceScanner(snapshot.missions(), snapshot.rockets(), secretKey, recorder);
+    }
+
+    /**
+     * Creates a scanner by decrypting an encrypted snapshot from a stream, block by block, without
+     * writing any plaintext out. The stream is not closed.
+     *
+     * @param inputStream the encrypted snapshot written by writeEncryptedSnapshot
+     * @param secretKey   the key the snapshot was written with, also used by saveMostReliableRocket
+     * @throws IllegalArgumentException if any argument is null
+     * @throws IOException              if the stream cannot be read or is not a valid encrypted snapshot
+     * @throws CipherException          if the snapshot cannot be decrypted with secretKey
+     */
+    public static MJTSpaceScanner fromEncryptedSnapshot(InputStream inputStream, SecretKey secretKey)
+            throws IOException, CipherException {
+        LoadRecorder recorder = new LoadRecorder();
+        long start = System.nanoTime();
+        EncryptedSnapshot snapshot = EncryptedSnapshot.read(inputStream, secretKey);
+        recorder.addTime(LoadPhase.READ, System.nanoTime() - start);
+        return new MJTSpaceScanner(snapshot.missions(), snapshot.rockets(), secretKey, recorder);
+    }
+
+    /**
+     * Creates a scanner over the missions launched between from and to inclusive and all rockets of an
+     * encrypted snapshot file. Only the blocks of the file that overlap the window are decrypted.
+     *
+     * @param snapshotFile the encrypted snapshot written by writeEncryptedSnapshot
+     * @param secretKey    the key the snapshot was written with, also used by saveMostReliableRocket
+     * @throws IllegalArgumentException   if any argument is null
+     * @throws TimeFrameMismatchException if to is before from
+     * @throws IOException                if the file cannot be read or is not a valid encrypted snapshot
+     * @throws CipherException            if the snapshot cannot be decrypted with secretKey
+     */
+    public static MJTSpaceScanner fromEncryptedSnapshot(Path snapshotFile, SecretKey secretKey, LocalDate from,
+                                                        LocalDate to) throws IOException, CipherException {
+        LoadRecorder recorder = new LoadRecorder();
+        long start = System.nanoTime();
+        EncryptedSnapshot snapshot = EncryptedSnapshot.read(snapshotFile, secretKey, from, to);
+        recorder.addTime(LoadPhase.READ, System.nanoTime() - start);
+        return new MJTSpaceScanner(snapshot.missions(), snapshot.rockets(), secretKey, recorder);
+    }
 
+    /**
+     * Writes the loaded dataset to a snapshot file encrypted with the key of this scanner, which
+     * fromEncryptedSnapshot can load.
+     *
+     * @throws IllegalArgumentException if snapshotFile is null
+     * @throws IOException              if the file cannot be written
+     * @throws CipherException          if the key cannot be used for encryption
+     */
+    public void writeEncryptedSnapshot(Path snapshotFile) throws IOException, CipherException {
+        int[] rowsInDateOrder = new int[dateIndex.size()];
+        for (int position = 0; position < rowsInDateOrder.length; position++) {
+            rowsInDateOrder[position] = dateIndex.row(position);
+        }
+        EncryptedSnapshot.write(snapshotFile, missions, rowsInDateOrder, rockets, secretKey,
+                EncryptedSnapshot.DEFAULT_ROWS_PER_BLOCK);
+    }
+
+    /**
+     * Writes the loaded dataset to a snapshot file that fromSnapshot can open.
+     *
+     * @throws IllegalArgumentException if snapshotFile is null
+     * @throws IOException              if the file cannot be written
+     */
+    public void writeSnapshot(Path snapshotFile) throws IOException {
+        DatasetSnapshot.write(snapshotFile, missions, rockets);
+    }
+
+    /**
+     * Parses mission lines, without a header line, and adds them to the scanner. Every index is updated
+     * in place; for missions arriving in launch order the cost depends on the number of new lines only.
+     * No mission is added if any line cannot be parsed.
+     *
+     * @throws IllegalArgumentException if missionsReader is null or a line cannot be parsed
+     */
+    public void appendMissions(Reader missionsReader) {
         if (missionsReader == null) {
-            missions = new ArrayList<>();
-        } else {
-            MissionParser parser = new MissionParser(splitter);
-            BufferedReader br = new BufferedReader(missionsReader);
-            missions = br.lines().skip(1).map(parser::parseRecord).collect(Collectors.toList());
+            throw new IllegalArgumentException("missionsReader cannot be null");
         }
 
+        MissionParser parser = new MissionParser(new FieldCursorCSV());
+        List<Mission> newMissions = new CSVRecordReader(missionsReader).stream()
+                .map(parser::parseRecord)
+                .collect(Collectors.toList());
+        newMissions.forEach(missions::add);
+
+        int[] newRows = dateIndex.addNewRows(missions);
+        companySuccessIndex.addRows(missions, newRows);
+        rocketJoinIndex.addRows(missions, newRows);
+        countryBuckets.addNewRows();
+        bitmapIndex.addNewRows();
+        dataVersion++;
+    }
+
+    /**
+     * Parses rocket lines, without a header line, and adds them to the scanner, joining them with the
+     * missions already loaded and the ones appended later. No rocket is added if any line cannot be parsed.
+     *
+     * @throws IllegalArgumentException if rocketsReader is null or a line cannot be parsed
+     */
+    public void appendRockets(Reader rocketsReader) {
         if (rocketsReader == null) {
-            rockets = new ArrayList<>();
-        } else {
-            RocketParser parser = new RocketParser(splitter);
-            BufferedReader br = new BufferedReader(rocketsReader);
-            rockets = br.lines().skip(1).map(parser::parseRecord).collect(Collectors.toList());
+            throw new IllegalArgumentException("rocketsReader cannot be null");
         }
 
-        cipher = new Rijndael(secretKey);
+        RocketParser parser = new RocketParser(new FieldCursorCSV());
+        List<Rocket> newRockets = new CSVRecordReader(rocketsReader).stream()
+                .map(parser::parseRecord)
+                .collect(Collectors.toList());
+        newRockets.stream().map(this::withCanonicalName).forEach(rockets::add);
+
+        rocketJoinIndex.addNewRockets(missions, rockets);
+        dataVersion++;
+    }
+
+    /**
+     * Starts a query over the missions of this scanner, planned over its indexes.
+     */
+    public MissionQuery query() {
+        return new MissionQuery(missions, dateIndex, rocketJoinIndex, bitmapIndex);
+    }
+
+    /**
+     * Returns the statistics of the load that created this scanner; appends are not included.
+     */
+    public LoadStats loadStats() {
+        return loadStats;
+    }
+
+    /**
+     * Returns the memory accounting of the dictionary-encoded mission columns, keyed by column name.
+     */
+    public Map<String, DictionaryStats> getDictionaryStats() {
+        return missions.dictionaryStats();
+    }
+
+    /**
+     * Rocket names are interned into the mission rocket name dictionary, so a rocket and the missions
+     * flown by it share one instance of the name.
+     */
+    private Rocket withCanonicalName(Rocket rocket) {
+        return new Rocket(rocket.id(), missions.rocketNames().intern(rocket.name()), rocket.wiki(), rocket.height());
+    }
+
+    /**
+     * Returns a number that changes with every append, so that derived results can tell whether they
+     * are still up to date. The version is volatile and advanced only after the appended data is
+     * indexed, so a thread that reads a new version also sees the data behind it.
+     */
+    public long dataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * Reads, parses and encodes the missions in batches of LOAD_BATCH_SIZE rows. The clock is read around
+     * every batch and every buffer fill of the reader, not every row, so that the instrumentation stays
+     * off the per-row path; the time spent reading within a batch is moved from parsing to reading.
+     */
+    private static MissionColumns readMissions(Reader missionsReader, RejectBudget budget, LoadRecorder recorder) {
+        MissionColumns missions = new MissionColumns();
+        if (missionsReader != null) {
+            MissionParser parser = new MissionParser(new FieldCursorCSV());
+            CountingReader reader = new CountingReader(missionsReader);
+            CSVRecordReader records = new CSVRecordReader(reader);
+            skipHeader(records);
+            Mission[] batch = new Mission[LOAD_BATCH_SIZE];
+            long rejected = 0;
+
+            while (records.hasNext()) {
+                long parseStart = System.nanoTime();
+                long readNanos = reader.nanos();
+                int size = 0;
+                while (size < LOAD_BATCH_SIZE && records.hasNext()) {
+                    String record = records.next();
+                    Mission mission = parse(parser, record, "missions", records.lineNumber(), budget);
+                    if (mission != null) {
+                        batch[size++] = mission;
+                    } else {
+                        rejected++;
+                    }
+                }
+
+                long encodingStart = System.nanoTime();
+                for (int i = 0; i < size; i++) {
+                    missions.add(batch[i]);
+                    batch[i] = null;
+                }
+                recorder.addTime(LoadPhase.MISSION_PARSE, encodingStart - parseStart - (reader.nanos() - readNanos));
+                recorder.addTime(LoadPhase.COLUMN_ENCODING, System.nanoTime() - encodingStart);
+            }
+            recorder.addTime(LoadPhase.READ, reader.nanos());
+            recorder.addBytesRead(reader.count());
+            recorder.addRejectedRows(rejected);
+            recorder.sampleHeap();
+        }
+        return missions;
+    }
+
+    private static List<Rocket> readRockets(Reader rocketsReader, RejectBudget budget, LoadRecorder recorder) {
+        List<Rocket> rockets = new ArrayList<>();
+        if (rocketsReader != null) {
+            RocketParser parser = new RocketParser(new FieldCursorCSV());
+            CountingReader reader = new CountingReader(rocketsReader);
+            CSVRecordReader records = new CSVRecordReader(reader);
+            skipHeader(records);
+            long rejected = 0;
+
+            long start = System.nanoTime();
+            while (records.hasNext()) {
+                String record = records.next();
+                Rocket rocket = parse(parser, record, "rockets", records.lineNumber(), budget);
+                if (rocket != null) {
+                    rockets.add(rocket);
+                } else {
+                    rejected++;
+                }
+            }
+            recorder.addTime(LoadPhase.ROCKET_PARSE, System.nanoTime() - start - reader.nanos());
+            recorder.addTime(LoadPhase.READ, reader.nanos());
+            recorder.addBytesRead(reader.count());
+            recorder.addRejectedRows(rejected);
+            recorder.sampleHeap();
+        }
+        return rockets;
+    }
+
+    private static void skipHeader(CSVRecordReader records) {
+        if (records.hasNext()) {
+            records.next();
+        }
+    }
+
+    /**
+     * Parses a line, or reports it to the reject sink and returns null if the budget allows skipping it.
+     */
+    private static <T> T parse(RecordParser<T> parser, String line, String source, long lineNumber,
+                               RejectBudget budget) {
+        try {
+            return parser.parseRecord(line);
+        } catch (RuntimeException e) {
+            budget.reject(e);
+            budget.policy().rejectSink().reject(new RejectedLine(source, lineNumber, line, e));
+            return null;
+        }
     }
 
     @Override
     public Collection<Mission> getAllMissions() {
-        return new ArrayList<>(missions);
+        List<Mission> result = new ArrayList<>(missions.size());
+        for (int row = 0; row < missions.size(); row++) {
+            result.add(missions.mission(row));
+        }
+        return result;
     }
 
     @Override
@@ -69,8 +448,11 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
         if (missionStatus == null) {
             throw new IllegalArgumentException("missionStatus cannot be null");
         }
-        return missions.stream().filter(mission -> mission.missionStatus()
-                                .equals(missionStatus)).collect(Collectors.toList());
+
+        RowBitmap rows = bitmapIndex.missionStatus(missionStatus);
+        List<Mission> result = new ArrayList<>(rows.cardinality());
+        rows.forEach(row -> result.add(missions.mission(row)));
+        return result;
     }
 
     @Override
@@ -85,20 +467,40 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
             throw new TimeFrameMismatchException("LocalDate to cannot be before LocalDate from");
         }
 
-        return missions.stream()
-                .filter(m -> !m.date().isBefore(from) && !m.date().isAfter(to) &&
-                                    m.missionStatus().equals(MissionStatus.SUCCESS))
-                .collect(Collectors.groupingBy(Mission::company, Collectors.counting()))
-                .entrySet().stream()
-                .max(Map.Entry.<String, Long>comparingByValue())
-                .orElse(Map.entry("", 0L))
-                .getKey();
+        int bestCompany = StringDictionary.NO_CODE;
+        int bestSuccesses = 0;
+        for (int company = 0; company < companySuccessIndex.companyCount(); company++) {
+            int successes = companySuccessIndex.successes(company, from, to);
+            if (successes > bestSuccesses) {
+                bestCompany = company;
+                bestSuccesses = successes;
+            }
+        }
+
+        return bestCompany == StringDictionary.NO_CODE ? "" : missions.companies().decode(bestCompany);
     }
 
+    /**
+     * Returns the prebuilt country partitions. The map and its collections are immutable and are shared
+     * between calls until missions of a country are appended.
+     */
     @Override
     public Map<String, Collection<Mission>> getMissionsPerCountry() {
-        return missions.stream()
-                .collect(Collectors.groupingBy(Mission::getCountry, Collectors.toCollection(ArrayList::new)));
+        return countryBuckets.partitionsByCountry();
+    }
+
+    /**
+     * Returns the missions launched in a country, in load order, as an immutable collection shared
+     * between calls. If there are no missions in the country, returns an empty collection.
+     *
+     * @param country the country, as returned by Mission.getCountry
+     * @throws IllegalArgumentException if country is null
+     */
+    public Collection<Mission> getMissionsInCountry(String country) {
+        if (country == null) {
+            throw new IllegalArgumentException("country cannot be null");
+        }
+        return countryBuckets.missionsIn(missions.countries().codeOf(country));
     }
 
     @Override
@@ -113,29 +515,21 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
             throw new IllegalArgumentException("n must be greater than zero");
         }
 
-        return missions.stream()
-                .filter(m -> m.missionStatus().equals(missionStatus) && m.rocketStatus().equals(rocketStatus))
-                .sorted(Comparator.comparing(
-                        m -> m.cost().orElse(null),
-                        Comparator.nullsLast(Double::compareTo)
-                ))
-                .limit(n)
+        TopKSelector cheapest = new TopKSelector(n);
+        withStatuses(missionStatus, rocketStatus).forEach(row -> cheapest.offer(missions.cost(row), row));
+
+        return IntStream.of(cheapest.drainSorted())
+                .mapToObj(missions::mission)
                 .collect(Collectors.toList());
     }
 
     @Override
     public Map<String, String> getMostDesiredLocationForMissionsPerCompany() {
-        return missions.stream()
-                .collect(Collectors.groupingBy(
-                        Mission::company,
-                        Collectors.collectingAndThen(
-                                Collectors.groupingBy(Mission::location, Collectors.counting()),
-                                byLocation -> byLocation.entrySet().stream()
-                                        .max(Map.Entry.comparingByValue())
-                                        .map(Map.Entry::getKey)
-                                        .orElseThrow()
-                        )
-                ));
+        int[][] locationCounts = new int[missions.companies().size()][];
+        for (int row = 0; row < missions.size(); row++) {
+            countLocation(locationCounts, row);
+        }
+        return toMostFrequentLocations(locationCounts);
     }
 
     @Override
@@ -150,18 +544,42 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
             throw new TimeFrameMismatchException("LocalDate to cannot be before LocalDate from");
         }
 
-        return missions.stream()
-                .filter(m -> !m.date().isBefore(from) && !m.date().isAfter(to) &&
-                                    m.missionStatus().equals(MissionStatus.SUCCESS))
-                .collect(Collectors.groupingBy(Mission::company,
-                        Collectors.collectingAndThen(
-                                Collectors.groupingBy(Mission::location, Collectors.counting()),
-                                byLocation -> byLocation.entrySet().stream()
-                                        .max(Map.Entry.comparingByValue())
-                                        .map(Map.Entry::getKey)
-                                        .orElseThrow()
-                        )
-                ));
+        int[][] locationCounts = new int[missions.companies().size()][];
+        int toPosition = dateIndex.upperBound(to);
+        for (int position = dateIndex.lowerBound(from); position < toPosition; position++) {
+            int row = dateIndex.row(position);
+            if (missions.hasMissionStatus(row, MissionStatus.SUCCESS)) {
+                countLocation(locationCounts, row);
+            }
+        }
+        return toMostFrequentLocations(locationCounts);
+    }
+
+    private void countLocation(int[][] locationCounts, int row) {
+        int company = missions.companyCode(row);
+        if (locationCounts[company] == null) {
+            locationCounts[company] = new int[missions.locations().size()];
+        }
+        locationCounts[company][missions.locationCode(row)]++;
+    }
+
+    private Map<String, String> toMostFrequentLocations(int[][] locationCounts) {
+        Map<String, String> result = new HashMap<>();
+        for (int company = 0; company < locationCounts.length; company++) {
+            int[] counts = locationCounts[company];
+            if (counts == null) {
+                continue;
+            }
+
+            int bestLocation = 0;
+            for (int location = 1; location < counts.length; location++) {
+                if (counts[location] > counts[bestLocation]) {
+                    bestLocation = location;
+                }
+            }
+            result.put(missions.companies().decode(company), missions.locations().decode(bestLocation));
+        }
+        return result;
     }
 
     @Override
@@ -175,12 +593,14 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
             throw new IllegalArgumentException("n must be greater than zero");
         }
 
-        return rockets.stream()
-                .sorted(Comparator.comparing(
-                        r -> r.height().orElse(null),
-                        Comparator.nullsLast(Comparator.reverseOrder())
-                ))
-                .limit(n)
+        TopKSelector tallest = new TopKSelector(n);
+        for (int rocket = 0; rocket < rockets.size(); rocket++) {
+            Optional<Double> height = rockets.get(rocket).height();
+            tallest.offer(height.isPresent() ? -height.get() : Double.NaN, rocket);
+        }
+
+        return IntStream.of(tallest.drainSorted())
+                .mapToObj(rockets::get)
                 .collect(Collectors.toList());
     }
 
@@ -204,36 +624,35 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
             throw new IllegalArgumentException("n must be greater than zero");
         }
 
-        Set<String> rocketNames = missions.stream()
-                .filter(m -> m.missionStatus().equals(missionStatus) && m.rocketStatus().equals(rocketStatus))
-                .sorted(Comparator.comparing(
-                        m -> m.cost().orElse(null),
-                        Comparator.nullsLast(Comparator.reverseOrder())
-                ))
-                .limit(n)
-                .map(m -> m.detail().rocketName())
-                .collect(Collectors.toSet());
+        TopKSelector mostExpensive = new TopKSelector(n);
+        withStatuses(missionStatus, rocketStatus).forEach(row -> mostExpensive.offer(-missions.cost(row), row));
 
-        return rockets.stream()
-                .filter(r -> rocketNames.contains(r.name()))
+        boolean[] usedRocketNames = new boolean[missions.rocketNames().size()];
+        for (int row : mostExpensive.drainSorted()) {
+            usedRocketNames[missions.rocketCode(row)] = true;
+        }
+
+        return IntStream.range(0, usedRocketNames.length)
+                .filter(rocketName -> usedRocketNames[rocketName])
+                .flatMap(rocketName -> IntStream.of(rocketJoinIndex.rocketsNamed(rocketName)))
+                .sorted()
+                .mapToObj(rockets::get)
                 .map(Rocket::wiki)
                 .flatMap(Optional::stream)
                 .collect(Collectors.toList());
     }
 
-    private long getReliabilityForRocket(Rocket r) {
-        List<Mission> participatedMissions = missions.stream()
-                .filter(m -> m.detail().rocketName().equals(r.name()))
-                .collect(Collectors.toList());
+    private RowBitmap withStatuses(MissionStatus missionStatus, RocketStatus rocketStatus) {
+        return bitmapIndex.missionStatus(missionStatus).and(bitmapIndex.rocketStatus(rocketStatus));
+    }
 
-        if (participatedMissions.isEmpty()) {
+    private long getReliabilityForRocket(int rocket, LocalDate from, LocalDate to) {
+        long participatedMissionsCount = rocketJoinIndex.launches(rocket, from, to);
+        if (participatedMissionsCount == 0) {
             return 0;
         }
 
-        long successfulMissionsCount = participatedMissions.stream()
-                .filter(m -> m.missionStatus().equals(MissionStatus.SUCCESS))
-                .count();
-        long participatedMissionsCount = participatedMissions.size();
+        long successfulMissionsCount = rocketJoinIndex.successes(rocket, from, to);
 
         return ((successfulMissionsCount * 2) + (participatedMissionsCount -  successfulMissionsCount)) /
                                                                                         (participatedMissionsCount * 2);
@@ -254,8 +673,10 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
             throw new TimeFrameMismatchException("LocalDate to cannot be before LocalDate from");
         }
 
-        Rocket mostReliableRocket = rockets.stream()
-                .max(Comparator.comparingLong(this::getReliabilityForRocket))
+        Rocket mostReliableRocket = IntStream.range(0, rockets.size())
+                .boxed()
+                .max(Comparator.comparingLong(rocket -> getReliabilityForRocket(rocket, from, to)))
+                .map(rockets::get)
                 .orElseThrow();
 
         try (InputStream in = new ByteArrayInputStream(mostReliableRocket.name().getBytes(StandardCharsets.UTF_8))) {
@@ -4,71 +4,201 @@ import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
 
+/**
+ * AES in ECB mode with PKCS5 padding. Every thread keeps one initialized cipher with its buffers per
+ * mode, shared by all instances, so repeated calls with the same key skip the provider lookup and key
+ * setup and process data without allocating. A call with another key or buffer size replaces the
+ * engine of its thread, so a thread never holds more than two engines, whatever the number of instances.
+ * Channels are processed through direct buffers, which lets file-to-file encryption avoid copies into
+ * the heap; they must be in blocking mode.
+ */
 public class Rijndael implements SymmetricBlockCipher {
 
-    private static final int BUFFER_SIZE = 1024;
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private static final int AES_BLOCK_SIZE = 16;
     private static final String CIPHER_TRANSFORMATION = "AES/ECB/PKCS5Padding";
 
-    private SecretKey secretKey;
+    private static final ThreadLocal<Engine> ENCRYPT_ENGINES = new ThreadLocal<>();
+    private static final ThreadLocal<Engine> DECRYPT_ENGINES = new ThreadLocal<>();
+
+    private final SecretKey secretKey;
+    private final int bufferSize;
 
     public Rijndael(SecretKey secretKey) {
+        this(secretKey, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param secretKey  the AES key
+     * @param bufferSize the number of bytes read and processed at once
+     * @throws IllegalArgumentException if secretKey is null or bufferSize is not positive
+     */
+    public Rijndael(SecretKey secretKey, int bufferSize) {
         if (secretKey == null) {
             throw new IllegalArgumentException("secretKey cannot be null");
         }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be greater than zero");
+        }
         this.secretKey = secretKey;
+        this.bufferSize = bufferSize;
     }
 
     @Override
     public void encrypt(InputStream inputStream, OutputStream outputStream) throws CipherException {
         try {
-            Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int bytesRead;
+            transform(engine(ENCRYPT_ENGINES, Cipher.ENCRYPT_MODE), inputStream, outputStream);
+        } catch (Exception e) {
+            ENCRYPT_ENGINES.remove();
+            throw new CipherException("Encryption failed", e);
+        }
+    }
 
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                byte[] encryptedChunk = cipher.update(buffer, 0, bytesRead);
-                if (encryptedChunk != null) {
-                    outputStream.write(encryptedChunk);
-                }
-            }
+    @Override
+    public void decrypt(InputStream inputStream, OutputStream outputStream) throws CipherException {
+        try {
+            transform(engine(DECRYPT_ENGINES, Cipher.DECRYPT_MODE), inputStream, outputStream);
+        } catch (Exception e) {
+            DECRYPT_ENGINES.remove();
+            throw new CipherException("Decryption failed", e);
+        }
+    }
 
-            byte[] finalBytes = cipher.doFinal();
-            if (finalBytes != null) {
-                outputStream.write(finalBytes);
-            }
+    @Override
+    public void encrypt(ReadableByteChannel source, WritableByteChannel target) throws CipherException {
+        requireBlocking(source, target);
+        try {
+            transform(engine(ENCRYPT_ENGINES, Cipher.ENCRYPT_MODE), source, target);
         } catch (Exception e) {
+            ENCRYPT_ENGINES.remove();
             throw new CipherException("Encryption failed", e);
         }
     }
 
     @Override
-    public void decrypt(InputStream inputStream, OutputStream outputStream) throws CipherException {
+    public void decrypt(ReadableByteChannel source, WritableByteChannel target) throws CipherException {
+        requireBlocking(source, target);
         try {
+            transform(engine(DECRYPT_ENGINES, Cipher.DECRYPT_MODE), source, target);
+        } catch (Exception e) {
+            DECRYPT_ENGINES.remove();
+            throw new CipherException("Decryption failed", e);
+        }
+    }
+
+    private Engine engine(ThreadLocal<Engine> engines, int mode) throws GeneralSecurityException {
+        Engine engine = engines.get();
+        if (engine == null || !engine.fits(secretKey, bufferSize)) {
             Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
+            cipher.init(mode, secretKey);
+            engine = new Engine(cipher, secretKey, bufferSize);
+            engines.set(engine);
+        }
+        return engine;
+    }
 
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int bytesRead;
+    /**
+     * A non-blocking channel may read or write nothing again and again, which would make the transform
+     * loop spin, so such channels are refused up front.
+     */
+    private static void requireBlocking(ReadableByteChannel source, WritableByteChannel target) {
+        if (source instanceof SelectableChannel channel && !channel.isBlocking()) {
+            throw new IllegalArgumentException("source must be in blocking mode");
+        }
+        if (target instanceof SelectableChannel channel && !channel.isBlocking()) {
+            throw new IllegalArgumentException("target must be in blocking mode");
+        }
+    }
 
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                byte[] decryptedChunk = cipher.update(buffer, 0, bytesRead);
-                if (decryptedChunk != null) {
-                    outputStream.write(decryptedChunk);
-                }
-            }
+    /**
+     * doFinal leaves the cipher initialized with the same key, ready for the next call on this thread.
+     */
+    private static void transform(Engine engine, InputStream inputStream, OutputStream outputStream)
+            throws IOException, GeneralSecurityException {
+        byte[] input = engine.input;
+        byte[] output = engine.output;
 
-            byte[] finalBytes = cipher.doFinal();
-            if (finalBytes != null) {
-                outputStream.write(finalBytes);
+        int bytesRead;
+        while ((bytesRead = inputStream.read(input, 0, input.length)) != -1) {
+            int length = engine.cipher.update(input, 0, bytesRead, output, 0);
+            if (length > 0) {
+                outputStream.write(output, 0, length);
             }
-        } catch (Exception e) {
-            throw new CipherException("Decryption failed", e);
+        }
+
+        int length = engine.cipher.doFinal(output, 0);
+        if (length > 0) {
+            outputStream.write(output, 0, length);
+        }
+    }
+
+    private static void transform(Engine engine, ReadableByteChannel source, WritableByteChannel target)
+            throws IOException, GeneralSecurityException {
+        ByteBuffer input = engine.directInput();
+        ByteBuffer output = engine.directOutput();
+
+        input.clear();
+        while (source.read(input) != -1) {
+            input.flip();
+            output.clear();
+            engine.cipher.update(input, output);
+            input.clear();
+            writeFully(target, output.flip());
+        }
+
+        input.flip();
+        output.clear();
+        engine.cipher.doFinal(input, output);
+        writeFully(target, output.flip());
+    }
+
+    private static void writeFully(WritableByteChannel target, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
         }
     }
 
+    private static final class Engine {
+        private final Cipher cipher;
+        private final SecretKey secretKey;
+        private final byte[] input;
+        private final byte[] output;
+        private ByteBuffer directInput;
+        private ByteBuffer directOutput;
+
+        private Engine(Cipher cipher, SecretKey secretKey, int bufferSize) {
+            this.cipher = cipher;
+            this.secretKey = secretKey;
+            this.input = new byte[bufferSize];
+            this.output = new byte[bufferSize + 2 * AES_BLOCK_SIZE];
+        }
+
+        private boolean fits(SecretKey key, int bufferSize) {
+            return input.length == bufferSize && (secretKey == key || secretKey.equals(key));
+        }
+
+        private ByteBuffer directInput() {
+            if (directInput == null) {
+                directInput = ByteBuffer.allocateDirect(input.length);
+            }
+            return directInput;
+        }
+
+        private ByteBuffer directOutput() {
+            if (directOutput == null) {
+                directOutput = ByteBuffer.allocateDirect(output.length);
+            }
+            return directOutput;
+        }
+    }
 }
@@ -0,0 +1,292 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * AES-GCM over independently authenticated segments, encrypted and decrypted in parallel. The output
+ * is a header followed by one frame per segment, big-endian:
+ * <pre>
+ *     int magic, byte version, int segment size, 8 bytes nonce prefix
+ *     per segment: byte last flag, int ciphertext length, ciphertext with a 16 byte tag
+ * </pre>
+ * Every stream gets a random nonce prefix and the nonce of a segment is the prefix followed by the
+ * segment index, so no nonce repeats within a stream and segments cannot be reordered. The header and
+ * the last flag are authenticated with each segment, which makes truncation and header tampering
+ * detectable.
+ * <p>
+ * Segments are read and written in order on the calling thread while up to twice the parallelism are
+ * processed by the executor, so memory stays bounded regardless of the input size. Decrypted segments
+ * are written as soon as they are authenticated; a truncated ciphertext is only reported after the
+ * segments before the cut have been written. The executor must not be one whose only threads may be
+ * busy calling this cipher.
+ */
+public class SegmentedAesGcm implements SymmetricBlockCipher {
+
+    public static final int MAGIC = 0x4D4A5347;
+    public static final byte VERSION = 1;
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+    public static final int MAX_SEGMENT_SIZE = 1 << 26;
+
+    private static final String CIPHER_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int TAG_LENGTH = 16;
+    private static final int NONCE_PREFIX_LENGTH = 8;
+    private static final int NONCE_LENGTH = NONCE_PREFIX_LENGTH + Integer.BYTES;
+    private static final int HEADER_LENGTH = Integer.BYTES + 1 + Integer.BYTES + NONCE_PREFIX_LENGTH;
+    private static final int FRAME_HEADER_LENGTH = 1 + Integer.BYTES;
+    private static final byte NOT_LAST = 0;
+    private static final byte LAST = 1;
+    private static final byte[][] LAST_FLAG_AAD = {{NOT_LAST}, {LAST}};
+
+    private final SecretKey secretKey;
+    private final int segmentSize;
+    private final Executor executor;
+    private final int maxSegmentsInFlight;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Cipher> ciphers = new ThreadLocal<>();
+
+    public SegmentedAesGcm(SecretKey secretKey) {
+        this(secretKey, DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param secretKey   the AES key
+     * @param segmentSize the number of plaintext bytes per segment
+     * @param executor    runs the encryption and decryption of the segments
+     * @param parallelism the number of segments expected to be processed at the same time
+     * @throws IllegalArgumentException if secretKey or executor is null, segmentSize is not between 1
+     *                                  and MAX_SEGMENT_SIZE or parallelism is not positive
+     */
+    public SegmentedAesGcm(SecretKey secretKey, int segmentSize, Executor executor, int parallelism) {
+        if (secretKey == null) {
+            throw new IllegalArgumentException("secretKey cannot be null");
+        }
+        if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be between 1 and " + MAX_SEGMENT_SIZE);
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be greater than zero");
+        }
+        this.secretKey = secretKey;
+        this.segmentSize = segmentSize;
+        this.executor = executor;
+        this.maxSegmentsInFlight = 2 * parallelism;
+    }
+
+    @Override
+    public void encrypt(InputStream inputStream, OutputStream outputStream) throws CipherException {
+        Pipeline pipeline = new Pipeline(outputStream);
+        try {
+            byte[] header = newHeader();
+            outputStream.write(header, 0, header.length);
+
+            byte[] segment = readSegment(inputStream);
+            for (int index = 0; ; index++) {
+                byte[] next = segment.length < segmentSize ? null : readSegment(inputStream);
+                boolean last = next == null || next.length == 0;
+                pipeline.submit(encryptTask(header, index, last, segment));
+                if (last) {
+                    break;
+                }
+                if (index == Integer.MAX_VALUE) {
+                    throw new IOException("The input has too many segments");
+                }
+                segment = next;
+            }
+
+            pipeline.finish();
+        } catch (Exception e) {
+            pipeline.cancel();
+            throw new CipherException("Encryption failed", failure(e));
+        }
+    }
+
+    @Override
+    public void decrypt(InputStream inputStream, OutputStream outputStream) throws CipherException {
+        Pipeline pipeline = new Pipeline(outputStream);
+        try {
+            DataInputStream in = new DataInputStream(inputStream);
+            byte[] header = new byte[HEADER_LENGTH];
+            in.readFully(header);
+            int frameSegmentSize = readHeader(header);
+
+            boolean last = false;
+            for (int index = 0; !last; index++) {
+                int flag = in.read();
+                if (flag == -1) {
+                    throw new IOException("The ciphertext is truncated");
+                }
+                if (flag != NOT_LAST && flag != LAST) {
+                    throw new IOException("Invalid last flag " + flag + " in segment " + index);
+                }
+                last = flag == LAST;
+
+                int length = in.readInt();
+                if (length < TAG_LENGTH || length > frameSegmentSize + TAG_LENGTH) {
+                    throw new IOException("Invalid length " + length + " of segment " + index);
+                }
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+
+                pipeline.submit(decryptTask(header, index, last, frame));
+                if (!last && index == Integer.MAX_VALUE) {
+                    throw new IOException("The ciphertext has too many segments");
+                }
+            }
+
+            if (in.read() != -1) {
+                throw new IOException("Unexpected data after the last segment");
+            }
+            pipeline.finish();
+        } catch (Exception e) {
+            pipeline.cancel();
+            throw new CipherException("Decryption failed", failure(e));
+        }
+    }
+
+    private byte[] newHeader() {
+        byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+        random.nextBytes(noncePrefix);
+
+        return ByteBuffer.allocate(HEADER_LENGTH)
+                .putInt(MAGIC)
+                .put(VERSION)
+                .putInt(segmentSize)
+                .put(noncePrefix)
+                .array();
+    }
+
+    /**
+     * Validates the header and returns the segment size it declares, which may differ from the
+     * segment size of this cipher.
+     */
+    private static int readHeader(byte[] header) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("The input is not a segmented AES-GCM ciphertext");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + ", expected " + VERSION);
+        }
+        int segmentSize = buffer.getInt();
+        if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE) {
+            throw new IOException("Invalid segment size " + segmentSize);
+        }
+        return segmentSize;
+    }
+
+    private byte[] readSegment(InputStream inputStream) throws IOException {
+        byte[] segment = new byte[segmentSize];
+        int length = inputStream.readNBytes(segment, 0, segmentSize);
+        return length == segmentSize ? segment : Arrays.copyOf(segment, length);
+    }
+
+    private Callable<byte[]> encryptTask(byte[] header, int index, boolean last, byte[] plaintext) {
+        return () -> {
+            Cipher cipher = cipher(Cipher.ENCRYPT_MODE, header, index, last);
+            byte[] frame = new byte[FRAME_HEADER_LENGTH + cipher.getOutputSize(plaintext.length)];
+            int length = cipher.doFinal(plaintext, 0, plaintext.length, frame, FRAME_HEADER_LENGTH);
+            ByteBuffer.wrap(frame)
+                    .put(last ? LAST : NOT_LAST)
+                    .putInt(length);
+            return frame;
+        };
+    }
+
+    private Callable<byte[]> decryptTask(byte[] header, int index, boolean last, byte[] ciphertext) {
+        return () -> cipher(Cipher.DECRYPT_MODE, header, index, last).doFinal(ciphertext);
+    }
+
+    private Cipher cipher(int mode, byte[] header, int index, boolean last) throws GeneralSecurityException {
+        Cipher cipher = ciphers.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            ciphers.set(cipher);
+        }
+
+        byte[] nonce = ByteBuffer.allocate(NONCE_LENGTH)
+                .put(header, HEADER_LENGTH - NONCE_PREFIX_LENGTH, NONCE_PREFIX_LENGTH)
+                .putInt(index)
+                .array();
+        cipher.init(mode, secretKey, new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, nonce));
+        cipher.updateAAD(header);
+        cipher.updateAAD(LAST_FLAG_AAD[last ? LAST : NOT_LAST]);
+        return cipher;
+    }
+
+    /**
+     * Unwraps the failures of segment tasks and keeps the interrupt status of the calling thread.
+     */
+    private static Throwable failure(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        return e instanceof ExecutionException ? e.getCause() : e;
+    }
+
+    /**
+     * Keeps the submitted segments in order and writes each one once it is done, blocking the caller
+     * while too many segments are in flight.
+     */
+    private final class Pipeline {
+        private final OutputStream outputStream;
+        private final Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+
+        private Pipeline(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        private void submit(Callable<byte[]> task) throws IOException, ExecutionException, InterruptedException {
+            if (inFlight.size() == maxSegmentsInFlight) {
+                writeOldest();
+            }
+
+            FutureTask<byte[]> future = new FutureTask<>(task);
+            inFlight.addLast(future);
+            executor.execute(future);
+        }
+
+        private void finish() throws IOException, ExecutionException, InterruptedException {
+            while (!inFlight.isEmpty()) {
+                writeOldest();
+            }
+            outputStream.flush();
+        }
+
+        private void cancel() {
+            for (Future<byte[]> future : inFlight) {
+                future.cancel(false);
+            }
+            inFlight.clear();
+        }
+
+        private void writeOldest() throws IOException, ExecutionException, InterruptedException {
+            byte[] bytes = inFlight.peekFirst().get();
+            inFlight.removeFirst();
+            outputStream.write(bytes, 0, bytes.length);
+        }
+    }
+}
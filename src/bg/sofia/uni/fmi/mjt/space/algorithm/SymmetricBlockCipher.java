@@ -4,6 +4,9 @@ import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 public interface SymmetricBlockCipher {
     /**
@@ -23,4 +26,26 @@ public interface SymmetricBlockCipher {
      * @throws CipherException if the encrypt/decrypt operation cannot be completed successfully
      */
     void decrypt(InputStream inputStream, OutputStream outputStream) throws CipherException;
-}
\ No newline at end of file
+
+    /**
+     * Encrypts the data from source and writes it into target. Neither channel is closed.
+     *
+     * @param source the channel where the data is read from
+     * @param target the channel where the encrypted result is written into
+     * @throws CipherException if the encrypt operation cannot be completed successfully
+     */
+    default void encrypt(ReadableByteChannel source, WritableByteChannel target) throws CipherException {
+        encrypt(Channels.newInputStream(source), Channels.newOutputStream(target));
+    }
+
+    /**
+     * Decrypts the data from source and writes it into target. Neither channel is closed.
+     *
+     * @param source the channel where the data is read from
+     * @param target the channel where the decrypted result is written into
+     * @throws CipherException if the decrypt operation cannot be completed successfully
+     */
+    default void decrypt(ReadableByteChannel source, WritableByteChannel target) throws CipherException {
+        decrypt(Channels.newInputStream(source), Channels.newOutputStream(target));
+    }
+}
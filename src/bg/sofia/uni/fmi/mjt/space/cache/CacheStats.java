@@ -0,0 +1,22 @@
+package bg.sofia.uni.fmi.mjt.space.cache;
+
+/**
+ * A point-in-time view of the counters of a CachingSpaceScanner.
+ *
+ * @param hits          queries answered from the cache
+ * @param misses        queries computed by the underlying scanner
+ * @param evictions     entries dropped to stay within the entry or weight bound
+ * @param invalidations times the whole cache was dropped because the dataset changed
+ * @param entries       entries currently cached
+ * @param weight        total weight of the cached entries
+ */
+public record CacheStats(long hits, long misses, long evictions, long invalidations, int entries, long weight) {
+
+    /**
+     * Returns the share of queries answered from the cache, or 0 if there were none.
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,253 @@
+package bg.sofia.uni.fmi.mjt.space.cache;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the results of a SpaceScannerAPI by query and arguments, evicting the least recently used
+ * entries once either the entry bound or the weight bound is exceeded. The weight of a result is the
+ * number of elements it holds, nested collections included, and stands in for its memory footprint;
+ * a single result heavier than the weight bound is returned but not cached.
+ * <p>
+ * Every query first reads the data version of the underlying dataset and drops the whole cache when it
+ * has changed, so appends are never answered with stale results. Cached results are immutable copies
+ * and are shared between callers. saveMostReliableRocket is always delegated, since it writes to the
+ * caller's stream.
+ * <p>
+ * The cache is thread-safe; two threads missing the same query may both compute it.
+ */
+public class CachingSpaceScanner implements SpaceScannerAPI {
+
+    private final SpaceScannerAPI delegate;
+    private final LongSupplier dataVersion;
+    private final int maxEntries;
+    private final long maxWeight;
+
+    private final LinkedHashMap<QueryKey, CachedResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedVersion;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Caches the queries of a scanner, invalidating on its appends.
+     *
+     * @param scanner    the scanner answering the misses
+     * @param maxEntries the maximum number of cached results
+     * @param maxWeight  the maximum total number of elements held by the cached results; it bounds
+     *                   memory only approximately, since it counts elements rather than bytes
+     * @throws IllegalArgumentException if scanner is null or a bound is not positive
+     */
+    public CachingSpaceScanner(MJTSpaceScanner scanner, int maxEntries, long maxWeight) {
+        this(scanner, scanner == null ? null : scanner::dataVersion, maxEntries, maxWeight);
+    }
+
+    /**
+     * Caches the queries of any SpaceScannerAPI whose dataset changes are reflected by dataVersion.
+     *
+     * @param delegate    the scanner answering the misses
+     * @param dataVersion returns a value that changes whenever the dataset of the delegate changes
+     * @param maxEntries  the maximum number of cached results
+     * @param maxWeight   the maximum total number of elements held by the cached results; it bounds
+     *                    memory only approximately, since it counts elements rather than bytes
+     * @throws IllegalArgumentException if delegate or dataVersion is null or a bound is not positive
+     */
+    public CachingSpaceScanner(SpaceScannerAPI delegate, LongSupplier dataVersion, int maxEntries, long maxWeight) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate cannot be null");
+        }
+        if (dataVersion == null) {
+            throw new IllegalArgumentException("dataVersion cannot be null");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be greater than zero");
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be greater than zero");
+        }
+
+        this.delegate = delegate;
+        this.dataVersion = dataVersion;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.cachedVersion = dataVersion.getAsLong();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, invalidations, entries.size(), weight);
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+        invalidations++;
+    }
+
+    @Override
+    public Collection<Mission> getAllMissions() {
+        return cached("getAllMissions", delegate::getAllMissions, List::copyOf);
+    }
+
+    @Override
+    public Collection<Mission> getAllMissions(MissionStatus missionStatus) {
+        return cached("getAllMissions", () -> delegate.getAllMissions(missionStatus), List::copyOf, missionStatus);
+    }
+
+    @Override
+    public String getCompanyWithMostSuccessfulMissions(LocalDate from, LocalDate to) {
+        return cached("getCompanyWithMostSuccessfulMissions",
+                () -> delegate.getCompanyWithMostSuccessfulMissions(from, to), UnaryOperator.identity(), from, to);
+    }
+
+    @Override
+    public Map<String, Collection<Mission>> getMissionsPerCountry() {
+        return cached("getMissionsPerCountry", delegate::getMissionsPerCountry,
+                missionsPerCountry -> missionsPerCountry.entrySet().stream()
+                        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> List.copyOf(e.getValue()))));
+    }
+
+    @Override
+    public List<Mission> getTopNLeastExpensiveMissions(int n, MissionStatus missionStatus, RocketStatus rocketStatus) {
+        return cached("getTopNLeastExpensiveMissions",
+                () -> delegate.getTopNLeastExpensiveMissions(n, missionStatus, rocketStatus), List::copyOf,
+                n, missionStatus, rocketStatus);
+    }
+
+    @Override
+    public Map<String, String> getMostDesiredLocationForMissionsPerCompany() {
+        return cached("getMostDesiredLocationForMissionsPerCompany",
+                delegate::getMostDesiredLocationForMissionsPerCompany, Map::copyOf);
+    }
+
+    @Override
+    public Map<String, String> getLocationWithMostSuccessfulMissionsPerCompany(LocalDate from, LocalDate to) {
+        return cached("getLocationWithMostSuccessfulMissionsPerCompany",
+                () -> delegate.getLocationWithMostSuccessfulMissionsPerCompany(from, to), Map::copyOf, from, to);
+    }
+
+    @Override
+    public Collection<Rocket> getAllRockets() {
+        return cached("getAllRockets", delegate::getAllRockets, List::copyOf);
+    }
+
+    @Override
+    public List<Rocket> getTopNTallestRockets(int n) {
+        return cached("getTopNTallestRockets", () -> delegate.getTopNTallestRockets(n), List::copyOf, n);
+    }
+
+    @Override
+    public Map<String, Optional<String>> getWikiPageForRocket() {
+        return cached("getWikiPageForRocket", delegate::getWikiPageForRocket, Map::copyOf);
+    }
+
+    @Override
+    public List<String> getWikiPagesForRocketsUsedInMostExpensiveMissions(int n, MissionStatus missionStatus,
+                                                                          RocketStatus rocketStatus) {
+        return cached("getWikiPagesForRocketsUsedInMostExpensiveMissions",
+                () -> delegate.getWikiPagesForRocketsUsedInMostExpensiveMissions(n, missionStatus, rocketStatus),
+                List::copyOf, n, missionStatus, rocketStatus);
+    }
+
+    @Override
+    public void saveMostReliableRocket(OutputStream outputStream, LocalDate from, LocalDate to) throws CipherException {
+        delegate.saveMostReliableRocket(outputStream, from, to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String query, Supplier<T> compute, UnaryOperator<T> freeze, Object... arguments) {
+        QueryKey key = new QueryKey(query, Arrays.asList(arguments));
+
+        long version;
+        synchronized (this) {
+            version = currentVersion();
+            CachedResult cachedResult = entries.get(key);
+            if (cachedResult != null) {
+                hits++;
+                return (T) cachedResult.value();
+            }
+            misses++;
+        }
+
+        T value = freeze.apply(compute.get());
+        long valueWeight = weigh(value);
+
+        synchronized (this) {
+            if (valueWeight <= maxWeight && currentVersion() == version) {
+                CachedResult previous = entries.put(key, new CachedResult(value, valueWeight));
+                weight += valueWeight - (previous == null ? 0 : previous.weight());
+                evict();
+            }
+        }
+        return value;
+    }
+
+    private long currentVersion() {
+        long version = dataVersion.getAsLong();
+        if (version != cachedVersion) {
+            cachedVersion = version;
+            if (!entries.isEmpty()) {
+                entries.clear();
+                weight = 0;
+                invalidations++;
+            }
+        }
+        return version;
+    }
+
+    private void evict() {
+        Iterator<CachedResult> leastRecentlyUsed = entries.values().iterator();
+        while (entries.size() > maxEntries || weight > maxWeight) {
+            weight -= leastRecentlyUsed.next().weight();
+            leastRecentlyUsed.remove();
+            evictions++;
+        }
+    }
+
+    private static long weigh(Object value) {
+        if (value instanceof Collection<?> collection) {
+            long total = 1;
+            for (Object element : collection) {
+                total += weigh(element);
+            }
+            return total;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long total = 1;
+            for (Object element : map.values()) {
+                total += 1 + weigh(element);
+            }
+            return total;
+        }
+        return 1;
+    }
+
+    private record QueryKey(String query, List<Object> arguments) {
+    }
+
+    private record CachedResult(Object value, long weight) {
+    }
+}
@@ -0,0 +1,185 @@
+package bg.sofia.uni.fmi.mjt.space.concurrent;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A thread-safe SpaceScannerAPI over a dataset that can be replaced while it is being queried. Every
+ * query reads the current dataset once through a volatile reference and runs entirely against it, so
+ * it sees one consistent version and never blocks. Writers build a complete new MJTSpaceScanner off to
+ * the side and publish it with a single volatile write; queries already running finish on the dataset
+ * they started with.
+ * <p>
+ * A published scanner is treated as immutable: nothing may be appended to it after publish.
+ */
+public class ConcurrentSpaceScanner implements SpaceScannerAPI {
+
+    private final SecretKey secretKey;
+    private final Object writeLock = new Object();
+
+    private volatile Dataset current;
+
+    /**
+     * @throws IllegalArgumentException if secretKey is null
+     */
+    public ConcurrentSpaceScanner(Reader missionsReader, Reader rocketsReader, SecretKey secretKey) {
+        this(new MJTSpaceScanner(missionsReader, rocketsReader, secretKey), secretKey);
+    }
+
+    /**
+     * Starts from an already built scanner, which must use the same secret key.
+     *
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public ConcurrentSpaceScanner(MJTSpaceScanner initial, SecretKey secretKey) {
+        if (initial == null) {
+            throw new IllegalArgumentException("initial cannot be null");
+        }
+        if (secretKey == null) {
+            throw new IllegalArgumentException("secretKey cannot be null");
+        }
+
+        this.secretKey = secretKey;
+        this.current = new Dataset(initial, 0);
+    }
+
+    /**
+     * Publishes a new dataset. Queries started before the call finish on the previous one.
+     *
+     * @throws IllegalArgumentException if scanner is null
+     */
+    public void publish(MJTSpaceScanner scanner) {
+        if (scanner == null) {
+            throw new IllegalArgumentException("scanner cannot be null");
+        }
+
+        synchronized (writeLock) {
+            current = new Dataset(scanner, current.generation() + 1);
+        }
+    }
+
+    /**
+     * Parses both CSV sources, header lines included, into a new dataset and publishes it.
+     *
+     * @throws IllegalArgumentException if a line cannot be parsed; the current dataset is kept
+     */
+    public void reload(Reader missionsReader, Reader rocketsReader) {
+        publish(new MJTSpaceScanner(missionsReader, rocketsReader, secretKey));
+    }
+
+    /**
+     * Loads both CSV files in parallel into a new dataset and publishes it.
+     *
+     * @throws IllegalArgumentException if an argument is null or a line cannot be parsed
+     * @throws IOException              if a file cannot be read; the current dataset is kept
+     */
+    public void reloadFromFiles(Path missionsFile, Path rocketsFile) throws IOException {
+        publish(MJTSpaceScanner.fromFiles(missionsFile, rocketsFile, secretKey));
+    }
+
+    /**
+     * Maps a dataset snapshot and publishes it.
+     *
+     * @throws IllegalArgumentException if snapshotFile is null
+     * @throws IOException              if the snapshot cannot be read; the current dataset is kept
+     */
+    public void reloadFromSnapshot(Path snapshotFile) throws IOException {
+        publish(MJTSpaceScanner.fromSnapshot(snapshotFile, secretKey));
+    }
+
+    /**
+     * Returns the dataset currently answering queries. The scanner is mutable, so it stays inside the
+     * package; callers outside it query through this class and never see a dataset change under them.
+     */
+    MJTSpaceScanner current() {
+        return current.scanner();
+    }
+
+    /**
+     * Returns the number of datasets published after the initial one, usable as the data version of a
+     * CachingSpaceScanner.
+     */
+    public long dataVersion() {
+        return current.generation();
+    }
+
+    @Override
+    public Collection<Mission> getAllMissions() {
+        return current.scanner().getAllMissions();
+    }
+
+    @Override
+    public Collection<Mission> getAllMissions(MissionStatus missionStatus) {
+        return current.scanner().getAllMissions(missionStatus);
+    }
+
+    @Override
+    public String getCompanyWithMostSuccessfulMissions(LocalDate from, LocalDate to) {
+        return current.scanner().getCompanyWithMostSuccessfulMissions(from, to);
+    }
+
+    @Override
+    public Map<String, Collection<Mission>> getMissionsPerCountry() {
+        return current.scanner().getMissionsPerCountry();
+    }
+
+    @Override
+    public List<Mission> getTopNLeastExpensiveMissions(int n, MissionStatus missionStatus, RocketStatus rocketStatus) {
+        return current.scanner().getTopNLeastExpensiveMissions(n, missionStatus, rocketStatus);
+    }
+
+    @Override
+    public Map<String, String> getMostDesiredLocationForMissionsPerCompany() {
+        return current.scanner().getMostDesiredLocationForMissionsPerCompany();
+    }
+
+    @Override
+    public Map<String, String> getLocationWithMostSuccessfulMissionsPerCompany(LocalDate from, LocalDate to) {
+        return current.scanner().getLocationWithMostSuccessfulMissionsPerCompany(from, to);
+    }
+
+    @Override
+    public Collection<Rocket> getAllRockets() {
+        return current.scanner().getAllRockets();
+    }
+
+    @Override
+    public List<Rocket> getTopNTallestRockets(int n) {
+        return current.scanner().getTopNTallestRockets(n);
+    }
+
+    @Override
+    public Map<String, Optional<String>> getWikiPageForRocket() {
+        return current.scanner().getWikiPageForRocket();
+    }
+
+    @Override
+    public List<String> getWikiPagesForRocketsUsedInMostExpensiveMissions(int n, MissionStatus missionStatus,
+                                                                          RocketStatus rocketStatus) {
+        return current.scanner().getWikiPagesForRocketsUsedInMostExpensiveMissions(n, missionStatus, rocketStatus);
+    }
+
+    @Override
+    public void saveMostReliableRocket(OutputStream outputStream, LocalDate from, LocalDate to) throws CipherException {
+        current.scanner().saveMostReliableRocket(outputStream, from, to);
+    }
+
+    private record Dataset(MJTSpaceScanner scanner, long generation) {
+    }
+}
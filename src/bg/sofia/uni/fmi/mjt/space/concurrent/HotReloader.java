@@ -0,0 +1,210 @@
+package bg.sofia.uni.fmi.mjt.space.concurrent;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the mission and rocket CSV files and reloads a ConcurrentSpaceScanner in the background when
+ * either of them changes. Changes arriving within the debounce delay of each other are collapsed into a
+ * single reload that starts once the files have been quiet for that long. Reloads run one at a time on
+ * a dedicated thread and publish the new dataset atomically, so queries in flight are never interrupted;
+ * a reload that fails keeps the previous dataset and is reported to the listener.
+ */
+public class HotReloader implements AutoCloseable {
+
+    public static final Duration CLOSE_TIMEOUT = Duration.ofMinutes(1);
+
+    private final ConcurrentSpaceScanner scanner;
+    private final Path missionsFile;
+    private final Path rocketsFile;
+    private final Duration debounce;
+    private final ReloadListener listener;
+    private final WatchService watchService;
+    private final ScheduledThreadPoolExecutor reloadExecutor;
+    private final Thread watcher;
+
+    private ScheduledFuture<?> pendingReload;
+    private boolean closed;
+    private long reloads;
+    private long failures;
+    private Duration lastReloadDuration = Duration.ZERO;
+    private Exception lastFailure;
+
+    private HotReloader(ConcurrentSpaceScanner scanner, Path missionsFile, Path rocketsFile, Duration debounce,
+                        ReloadListener listener) throws IOException {
+        this.scanner = scanner;
+        this.missionsFile = missionsFile.toAbsolutePath().normalize();
+        this.rocketsFile = rocketsFile.toAbsolutePath().normalize();
+        this.debounce = debounce;
+        this.listener = listener;
+
+        watchService = this.missionsFile.getFileSystem().newWatchService();
+        try {
+            Set<Path> directories = new LinkedHashSet<>();
+            directories.add(this.missionsFile.getParent());
+            directories.add(this.rocketsFile.getParent());
+            for (Path directory : directories) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+
+        reloadExecutor = new ScheduledThreadPoolExecutor(1, task -> daemon(task, "space-scanner-reload"));
+        reloadExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        watcher = daemon(this::watch, "space-scanner-file-watcher");
+    }
+
+    /**
+     * Starts watching the files with the default listener, which ignores all outcomes.
+     *
+     * @see #start(ConcurrentSpaceScanner, Path, Path, Duration, ReloadListener)
+     */
+    public static HotReloader start(ConcurrentSpaceScanner scanner, Path missionsFile, Path rocketsFile,
+                                    Duration debounce) throws IOException {
+        return start(scanner, missionsFile, rocketsFile, debounce, new ReloadListener() { });
+    }
+
+    /**
+     * Starts watching the directories of both files. The files themselves do not need to exist yet.
+     *
+     * @param scanner      the scanner receiving the reloaded datasets
+     * @param missionsFile the missions CSV file, header line included
+     * @param rocketsFile  the rockets CSV file, header line included
+     * @param debounce     how long the files must be quiet before a reload starts
+     * @param listener     receives the duration or the failure of every reload
+     * @throws IllegalArgumentException if any argument is null or debounce is negative
+     * @throws IOException              if the directories cannot be watched
+     */
+    public static HotReloader start(ConcurrentSpaceScanner scanner, Path missionsFile, Path rocketsFile,
+                                    Duration debounce, ReloadListener listener) throws IOException {
+        if (scanner == null) {
+            throw new IllegalArgumentException("scanner cannot be null");
+        }
+        if (missionsFile == null) {
+            throw new IllegalArgumentException("missionsFile cannot be null");
+        }
+        if (rocketsFile == null) {
+            throw new IllegalArgumentException("rocketsFile cannot be null");
+        }
+        if (debounce == null || debounce.isNegative()) {
+            throw new IllegalArgumentException("debounce cannot be null or negative");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("listener cannot be null");
+        }
+
+        HotReloader reloader = new HotReloader(scanner, missionsFile, rocketsFile, debounce, listener);
+        reloader.watcher.start();
+        return reloader;
+    }
+
+    /**
+     * Schedules a reload after the debounce delay, replacing a reload that has not started yet.
+     */
+    public synchronized void requestReload() {
+        if (closed) {
+            return;
+        }
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReload = reloadExecutor.schedule(this::reload, debounce.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized ReloadStats stats() {
+        return new ReloadStats(reloads, failures, lastReloadDuration, Optional.ofNullable(lastFailure));
+    }
+
+    /**
+     * Stops watching and drops pending reloads. A reload already running is waited for up to
+     * CLOSE_TIMEOUT and completes normally; only one still running after that, or when the closing
+     * thread is interrupted, is interrupted and reported as failed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+        }
+        watchService.close();
+        watcher.interrupt();
+
+        reloadExecutor.shutdown();
+        try {
+            if (!reloadExecutor.awaitTermination(CLOSE_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+                reloadExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            reloadExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path directory = (Path) key.watchable();
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    changed = true;
+                } else {
+                    Path file = directory.resolve((Path) event.context());
+                    changed |= file.equals(missionsFile) || file.equals(rocketsFile);
+                }
+            }
+            key.reset();
+
+            if (changed) {
+                requestReload();
+            }
+        }
+    }
+
+    private void reload() {
+        long start = System.nanoTime();
+        try {
+            scanner.reloadFromFiles(missionsFile, rocketsFile);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                failures++;
+                lastFailure = e;
+            }
+            listener.reloadFailed(e);
+            return;
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        synchronized (this) {
+            reloads++;
+            lastReloadDuration = duration;
+        }
+        listener.reloadSucceeded(duration);
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
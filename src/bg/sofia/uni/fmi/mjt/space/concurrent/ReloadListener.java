@@ -0,0 +1,25 @@
+package bg.sofia.uni.fmi.mjt.space.concurrent;
+
+import java.time.Duration;
+
+/**
+ * Receives the outcome of every background reload of a HotReloader. Callbacks run on the reload thread
+ * and should return quickly.
+ */
+public interface ReloadListener {
+    /**
+     * Called after a new dataset has been published.
+     *
+     * @param duration the time spent loading the files
+     */
+    default void reloadSucceeded(Duration duration) {
+    }
+
+    /**
+     * Called when the files could not be loaded; the previous dataset keeps answering queries.
+     *
+     * @param failure the reason of the failure
+     */
+    default void reloadFailed(Exception failure) {
+    }
+}
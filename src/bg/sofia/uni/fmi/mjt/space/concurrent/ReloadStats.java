@@ -0,0 +1,15 @@
+package bg.sofia.uni.fmi.mjt.space.concurrent;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A point-in-time view of the counters of a HotReloader.
+ *
+ * @param reloads            successful reloads
+ * @param failures           failed reloads
+ * @param lastReloadDuration the duration of the last successful reload, or zero if there was none
+ * @param lastFailure        the reason of the last failed reload, if any
+ */
+public record ReloadStats(long reloads, long failures, Duration lastReloadDuration, Optional<Exception> lastFailure) {
+}
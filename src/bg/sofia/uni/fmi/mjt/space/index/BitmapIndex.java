@@ -0,0 +1,86 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmaps of mission row ids for every mission status, rocket status, company code and
+ * country code, so that conjunctions and disjunctions of these attributes are answered by bitmap
+ * operations instead of a scan of the columns. Rows are appended in row order, which keeps every add
+ * constant time. The bitmaps handed out are live and read-only; they reflect later appends.
+ */
+public class BitmapIndex {
+
+    private final MissionColumns missions;
+    private final RowBitmap[] missionStatuses = newBitmaps(MissionStatus.values().length);
+    private final RowBitmap[] rocketStatuses = newBitmaps(RocketStatus.values().length);
+    private RowBitmap[] companies = new RowBitmap[0];
+    private RowBitmap[] countries = new RowBitmap[0];
+    private int indexedRows;
+
+    public BitmapIndex(MissionColumns missions) {
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+
+        this.missions = missions;
+        addNewRows();
+    }
+
+    /**
+     * Adds the rows appended to the columns since the last call.
+     */
+    public void addNewRows() {
+        companies = grow(companies, missions.companies().size());
+        countries = grow(countries, missions.countries().size());
+
+        for (int row = indexedRows; row < missions.size(); row++) {
+            missionStatuses[missions.missionStatus(row).ordinal()].add(row);
+            rocketStatuses[missions.rocketStatus(row).ordinal()].add(row);
+            companies[missions.companyCode(row)].add(row);
+            countries[missions.countryCode(row)].add(row);
+        }
+        indexedRows = missions.size();
+    }
+
+    public RowBitmap missionStatus(MissionStatus missionStatus) {
+        return missionStatuses[missionStatus.ordinal()];
+    }
+
+    public RowBitmap rocketStatus(RocketStatus rocketStatus) {
+        return rocketStatuses[rocketStatus.ordinal()];
+    }
+
+    /**
+     * Returns the rows of a company code, or an empty bitmap for an unknown code such as NO_CODE.
+     */
+    public RowBitmap company(int company) {
+        return company >= 0 && company < companies.length ? companies[company] : RowBitmap.EMPTY;
+    }
+
+    /**
+     * Returns the rows of a country code, or an empty bitmap for an unknown code such as NO_CODE.
+     */
+    public RowBitmap country(int country) {
+        return country >= 0 && country < countries.length ? countries[country] : RowBitmap.EMPTY;
+    }
+
+    private static RowBitmap[] newBitmaps(int count) {
+        return grow(new RowBitmap[0], count);
+    }
+
+    private static RowBitmap[] grow(RowBitmap[] bitmaps, int count) {
+        if (count <= bitmaps.length) {
+            return bitmaps;
+        }
+
+        RowBitmap[] grown = Arrays.copyOf(bitmaps, count);
+        for (int i = bitmaps.length; i < count; i++) {
+            grown[i] = new RowBitmap();
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,64 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+
+import java.time.LocalDate;
+
+/**
+ * Sorted epoch days of the successful missions of every company. The number of successes of a company
+ * in a time window is the distance between two binary searches in its own list.
+ */
+public class CompanySuccessIndex {
+
+    private final DatePostings successes;
+
+    public CompanySuccessIndex(MissionColumns missions, DateIndex dateIndex) {
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+        if (dateIndex == null) {
+            throw new IllegalArgumentException("dateIndex cannot be null");
+        }
+
+        successes = new DatePostings(missions.companies().size());
+        for (int position = 0; position < dateIndex.size(); position++) {
+            add(missions, dateIndex.row(position));
+        }
+    }
+
+    /**
+     * Adds newly appended rows, given in date order as returned by DateIndex.addNewRows.
+     *
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void addRows(MissionColumns missions, int[] rowsInDateOrder) {
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+        if (rowsInDateOrder == null) {
+            throw new IllegalArgumentException("rowsInDateOrder cannot be null");
+        }
+
+        for (int row : rowsInDateOrder) {
+            add(missions, row);
+        }
+    }
+
+    private void add(MissionColumns missions, int row) {
+        if (missions.hasMissionStatus(row, MissionStatus.SUCCESS)) {
+            successes.add(missions.companyCode(row), missions.epochDay(row), row);
+        }
+    }
+
+    /**
+     * Returns the number of successful missions of a company in the inclusive time frame.
+     */
+    public int successes(int company, LocalDate from, LocalDate to) {
+        return successes.count(company, from, to);
+    }
+
+    public int companyCount() {
+        return successes.keys();
+    }
+}
@@ -0,0 +1,131 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Mission row ids partitioned by country code, in load order. The partition of every country is built
+ * together with the buckets, and rebuilt for the countries of appended rows, so country queries only
+ * look it up. A partition is an immutable list view over the row ids of its country: it holds no
+ * missions of its own and materializes each one from the columns when it is read, which keeps the
+ * heap footprint of the columns.
+ */
+public class CountryBuckets {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final MissionColumns missions;
+    private int[][] rows = new int[0][];
+    private int[] sizes = new int[0];
+    private int indexedRows;
+
+    private final List<Collection<Mission>> partitions = new ArrayList<>();
+    private Map<String, Collection<Mission>> allPartitions = Map.of();
+
+    public CountryBuckets(MissionColumns missions) {
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+
+        this.missions = missions;
+        addNewRows();
+    }
+
+    /**
+     * Adds the rows appended to the columns since the last call. Only the partitions of the countries
+     * of the new rows are rebuilt.
+     */
+    public void addNewRows() {
+        int countries = missions.countries().size();
+        if (countries > sizes.length) {
+            rows = Arrays.copyOf(rows, countries);
+            sizes = Arrays.copyOf(sizes, countries);
+        }
+        while (partitions.size() < countries) {
+            partitions.add(List.of());
+        }
+        if (indexedRows == missions.size()) {
+            return;
+        }
+
+        boolean[] changed = new boolean[countries];
+        for (int row = indexedRows; row < missions.size(); row++) {
+            int country = missions.countryCode(row);
+            int size = sizes[country];
+            if (rows[country] == null) {
+                rows[country] = new int[INITIAL_CAPACITY];
+            } else if (size == rows[country].length) {
+                rows[country] = Arrays.copyOf(rows[country], size << 1);
+            }
+
+            rows[country][size] = row;
+            sizes[country] = size + 1;
+            changed[country] = true;
+        }
+        indexedRows = missions.size();
+
+        Map<String, Collection<Mission>> result = new HashMap<>();
+        for (int country = 0; country < countries; country++) {
+            if (changed[country]) {
+                partitions.set(country, new Partition(missions, rows[country], sizes[country]));
+            }
+            if (sizes[country] > 0) {
+                result.put(missions.countries().decode(country), partitions.get(country));
+            }
+        }
+        allPartitions = Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Returns the immutable partition of the missions launched in a country, in load order.
+     */
+    public Collection<Mission> missionsIn(int country) {
+        return country < 0 || country >= partitions.size() ? List.of() : partitions.get(country);
+    }
+
+    /**
+     * Returns an immutable map from every country with missions to its partition.
+     */
+    public Map<String, Collection<Mission>> partitionsByCountry() {
+        return allPartitions;
+    }
+
+    /**
+     * The first size row ids of a bucket as missions. Appends only write past size or into a copy of
+     * the array, so the view never changes.
+     */
+    private static final class Partition extends AbstractList<Mission> implements RandomAccess {
+        private final MissionColumns missions;
+        private final int[] rows;
+        private final int size;
+
+        private Partition(MissionColumns missions, int[] rows, int size) {
+            this.missions = missions;
+            this.rows = rows;
+            this.size = size;
+        }
+
+        @Override
+        public Mission get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            return missions.mission(rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
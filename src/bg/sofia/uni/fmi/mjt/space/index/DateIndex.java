@@ -0,0 +1,133 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Mission row ids ordered by launch date. Rows launched on the same day keep their load order, so a
+ * time window maps to one contiguous slice of positions found with two binary searches.
+ */
+public class DateIndex {
+
+    private static final int ROW_BITS = 32;
+    private static final long ROW_MASK = 0xFFFFFFFFL;
+
+    private int[] days = new int[0];
+    private int[] rows = new int[0];
+    private int size;
+
+    public DateIndex(MissionColumns missions) {
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+        addNewRows(missions);
+    }
+
+    /**
+     * Indexes the rows appended to the columns since the last call. The new rows are sorted among
+     * themselves and merged in from the end, so only the indexed rows launched after the earliest new
+     * one move; for missions arriving in launch order the cost depends on the batch size alone.
+     *
+     * @param missions the columns this index was built over
+     * @return the new row ids in date order
+     * @throws IllegalArgumentException if missions is null or has fewer rows than are indexed
+     */
+    public int[] addNewRows(MissionColumns missions) {
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+        if (missions.size() < size) {
+            throw new IllegalArgumentException("missions has fewer rows than the index");
+        }
+
+        int count = missions.size() - size;
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int row = size + i;
+            keys[i] = ((long) missions.epochDay(row) << ROW_BITS) | row;
+        }
+        Arrays.sort(keys);
+
+        ensureCapacity(size + count);
+        int[] newRows = new int[count];
+        int existing = size - 1;
+        int target = size + count - 1;
+        for (int i = count - 1; i >= 0; i--, target--) {
+            int day = (int) (keys[i] >> ROW_BITS);
+            while (existing >= 0 && days[existing] > day) {
+                days[target] = days[existing];
+                rows[target] = rows[existing];
+                existing--;
+                target--;
+            }
+            days[target] = day;
+            rows[target] = (int) (keys[i] & ROW_MASK);
+            newRows[i] = rows[target];
+        }
+        size += count;
+
+        return newRows;
+    }
+
+    /**
+     * Returns the first position whose date is not before from.
+     */
+    public int lowerBound(LocalDate from) {
+        return search(from.toEpochDay());
+    }
+
+    /**
+     * Returns the first position whose date is after to.
+     */
+    public int upperBound(LocalDate to) {
+        return search(to.toEpochDay() + 1);
+    }
+
+    /**
+     * Returns the row id stored at a position.
+     */
+    public int row(int position) {
+        return rows[position];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int search(long day) {
+        return firstPositionNotBefore(days, size, day);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= days.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, days.length + (days.length >> 1));
+        days = Arrays.copyOf(days, newCapacity);
+        rows = Arrays.copyOf(rows, newCapacity);
+    }
+
+    static int firstPositionNotBefore(int[] sortedDays, int length, long day) {
+        if (day <= Integer.MIN_VALUE) {
+            return 0;
+        }
+        if (day > Integer.MAX_VALUE) {
+            return length;
+        }
+
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedDays[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,80 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Per-key lists of mission row ids together with their epoch days, kept in date order. A row goes
+ * after the postings of its key launched on the same day or earlier, so rows added in date order are
+ * appended in constant time and an earlier row only shifts the later postings of its own key.
+ */
+class DatePostings {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[][] days;
+    private int[][] rows;
+    private int[] sizes;
+
+    DatePostings(int keys) {
+        days = new int[keys][];
+        rows = new int[keys][];
+        sizes = new int[keys];
+    }
+
+    void add(int key, int day, int row) {
+        ensureKeys(key + 1);
+
+        int size = sizes[key];
+        if (days[key] == null) {
+            days[key] = new int[INITIAL_CAPACITY];
+            rows[key] = new int[INITIAL_CAPACITY];
+        } else if (size == days[key].length) {
+            days[key] = Arrays.copyOf(days[key], size << 1);
+            rows[key] = Arrays.copyOf(rows[key], size << 1);
+        }
+
+        int position = size == 0 || days[key][size - 1] <= day ? size :
+                DateIndex.firstPositionNotBefore(days[key], size, (long) day + 1);
+        System.arraycopy(days[key], position, days[key], position + 1, size - position);
+        System.arraycopy(rows[key], position, rows[key], position + 1, size - position);
+
+        days[key][position] = day;
+        rows[key][position] = row;
+        sizes[key] = size + 1;
+    }
+
+    /**
+     * Returns how many postings of a key fall into the inclusive time frame.
+     */
+    int count(int key, LocalDate from, LocalDate to) {
+        if (key >= sizes.length || days[key] == null) {
+            return 0;
+        }
+        return DateIndex.firstPositionNotBefore(days[key], sizes[key], to.toEpochDay() + 1) -
+                DateIndex.firstPositionNotBefore(days[key], sizes[key], from.toEpochDay());
+    }
+
+    int size(int key) {
+        return key < sizes.length ? sizes[key] : 0;
+    }
+
+    int row(int key, int position) {
+        return rows[key][position];
+    }
+
+    int keys() {
+        return sizes.length;
+    }
+
+    private void ensureKeys(int keys) {
+        if (keys <= sizes.length) {
+            return;
+        }
+
+        int newKeys = Math.max(keys, sizes.length << 1);
+        days = Arrays.copyOf(days, newKeys);
+        rows = Arrays.copyOf(rows, newKeys);
+        sizes = Arrays.copyOf(sizes, newKeys);
+    }
+}
@@ -0,0 +1,157 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Join between rockets and the missions that flew them, kept over the rocket name codes of the
+ * mission columns. Rocket names are interned into the same dictionary as the mission rocket names,
+ * so a rocket added before its first mission joins the missions appended later. Rockets are
+ * identified by their position in the rocket list.
+ */
+public class RocketJoinIndex {
+
+    private static final int[] NO_ROCKETS = new int[0];
+
+    private final DatePostings launches;
+    private final DatePostings successes;
+    private int[] rocketNameCodes;
+    private int[][] rocketsByNameCode;
+    private int rocketCount;
+
+    public RocketJoinIndex(MissionColumns missions, DateIndex dateIndex, List<Rocket> rockets) {
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+        if (dateIndex == null) {
+            throw new IllegalArgumentException("dateIndex cannot be null");
+        }
+        if (rockets == null) {
+            throw new IllegalArgumentException("rockets cannot be null");
+        }
+
+        int names = missions.rocketNames().size();
+        launches = new DatePostings(names);
+        successes = new DatePostings(names);
+        for (int position = 0; position < dateIndex.size(); position++) {
+            addMission(missions, dateIndex.row(position));
+        }
+
+        rocketNameCodes = new int[rockets.size()];
+        rocketsByNameCode = new int[names][];
+        addNewRockets(missions, rockets);
+    }
+
+    /**
+     * Adds newly appended mission rows, given in date order as returned by DateIndex.addNewRows.
+     *
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void addRows(MissionColumns missions, int[] rowsInDateOrder) {
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+        if (rowsInDateOrder == null) {
+            throw new IllegalArgumentException("rowsInDateOrder cannot be null");
+        }
+
+        for (int row : rowsInDateOrder) {
+            addMission(missions, row);
+        }
+    }
+
+    /**
+     * Joins the rockets appended to the list since the last call.
+     *
+     * @throws IllegalArgumentException if any argument is null or the list has fewer rockets than are joined
+     */
+    public void addNewRockets(MissionColumns missions, List<Rocket> rockets) {
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+        if (rockets == null) {
+            throw new IllegalArgumentException("rockets cannot be null");
+        }
+        if (rockets.size() < rocketCount) {
+            throw new IllegalArgumentException("rockets has fewer rockets than the index");
+        }
+
+        if (rocketNameCodes.length < rockets.size()) {
+            rocketNameCodes = Arrays.copyOf(rocketNameCodes,
+                    Math.max(rockets.size(), rocketNameCodes.length + (rocketNameCodes.length >> 1)));
+        }
+
+        for (int rocket = rocketCount; rocket < rockets.size(); rocket++) {
+            int name = missions.rocketNames().encode(rockets.get(rocket).name());
+            rocketNameCodes[rocket] = name;
+
+            ensureNameCodes(name + 1);
+            int[] named = rocketsByNameCode[name] == null ? NO_ROCKETS : rocketsByNameCode[name];
+            named = Arrays.copyOf(named, named.length + 1);
+            named[named.length - 1] = rocket;
+            rocketsByNameCode[name] = named;
+        }
+        rocketCount = rockets.size();
+    }
+
+    /**
+     * Returns the number of missions flown by a rocket in the inclusive time frame.
+     */
+    public int launches(int rocket, LocalDate from, LocalDate to) {
+        return launches.count(rocketNameCodes[rocket], from, to);
+    }
+
+    /**
+     * Returns the number of successful missions flown by a rocket in the inclusive time frame.
+     */
+    public int successes(int rocket, LocalDate from, LocalDate to) {
+        return successes.count(rocketNameCodes[rocket], from, to);
+    }
+
+    /**
+     * Returns the number of missions flown by rockets with the given name code.
+     */
+    public int missionCount(int rocketNameCode) {
+        return launches.size(rocketNameCode);
+    }
+
+    /**
+     * Returns the mission row ids flown by rockets with the given name code, in date order.
+     */
+    public int[] missionRows(int rocketNameCode) {
+        int[] rows = new int[launches.size(rocketNameCode)];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = launches.row(rocketNameCode, i);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the positions in the rocket list of the rockets with the given name code, in list order.
+     */
+    public int[] rocketsNamed(int rocketNameCode) {
+        if (rocketNameCode >= rocketsByNameCode.length || rocketsByNameCode[rocketNameCode] == null) {
+            return NO_ROCKETS;
+        }
+        return rocketsByNameCode[rocketNameCode].clone();
+    }
+
+    private void addMission(MissionColumns missions, int row) {
+        int name = missions.rocketCode(row);
+        launches.add(name, missions.epochDay(row), row);
+        if (missions.hasMissionStatus(row, MissionStatus.SUCCESS)) {
+            successes.add(name, missions.epochDay(row), row);
+        }
+    }
+
+    private void ensureNameCodes(int names) {
+        if (names > rocketsByNameCode.length) {
+            rocketsByNameCode = Arrays.copyOf(rocketsByNameCode, Math.max(names, rocketsByNameCode.length << 1));
+        }
+    }
+}
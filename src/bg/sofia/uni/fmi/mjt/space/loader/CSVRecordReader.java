@@ -0,0 +1,136 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the records of a CSV text one at a time, cutting it the way ParallelCSVLoader cuts a file: a
+ * record ends at a line feed outside quotes, so a quoted field may span lines and keeps its line feeds,
+ * and a carriage return before the line feed is dropped. A last record without a line feed is returned
+ * as well. As with BufferedReader.lines, read errors are thrown as UncheckedIOException.
+ */
+public final class CSVRecordReader implements Iterator<String> {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final char QUOTE = '"';
+    private static final char LINE_FEED = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder record = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean ended;
+
+    private String next;
+    private long lineFeeds;
+    private long nextLineNumber;
+    private long lineNumber;
+
+    /**
+     * @throws IllegalArgumentException if reader is null
+     */
+    public CSVRecordReader(Reader reader) {
+        if (reader == null) {
+            throw new IllegalArgumentException("reader cannot be null");
+        }
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !ended) {
+            next = readRecord();
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more records");
+        }
+        String result = next;
+        next = null;
+        lineNumber = nextLineNumber;
+        return result;
+    }
+
+    /**
+     * Returns the number of the line the last returned record starts on, counting from one. Line feeds
+     * inside quotes count, so the numbers match those of a text editor.
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the remaining records as a sequential stream.
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false);
+    }
+
+    private String readRecord() {
+        record.setLength(0);
+        long startLine = lineFeeds + 1;
+        boolean inQuotes = false;
+        boolean empty = true;
+
+        while (true) {
+            if (position == limit && !fill()) {
+                ended = true;
+                if (empty) {
+                    return null;
+                }
+                break;
+            }
+            empty = false;
+
+            int start = position;
+            boolean complete = false;
+            while (position < limit) {
+                char c = buffer[position++];
+                if (c == QUOTE) {
+                    inQuotes = !inQuotes;
+                } else if (c == LINE_FEED) {
+                    lineFeeds++;
+                    if (!inQuotes) {
+                        complete = true;
+                        break;
+                    }
+                }
+            }
+            record.append(buffer, start, position - start - (complete ? 1 : 0));
+            if (complete) {
+                break;
+            }
+        }
+
+        int length = record.length();
+        if (length > 0 && record.charAt(length - 1) == CARRIAGE_RETURN) {
+            record.setLength(length - 1);
+        }
+        nextLineNumber = startLine;
+        return record.toString();
+    }
+
+    private boolean fill() {
+        try {
+            int read = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A reader that counts the characters read through it and the time spent reading them from the
+ * underlying reader. Wrapped in a buffered reader it is called once per buffer fill, so timing it adds
+ * two clock reads per buffer rather than per line.
+ */
+public class CountingReader extends FilterReader {
+
+    private long count;
+    private long nanos;
+
+    public CountingReader(Reader in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        long start = System.nanoTime();
+        int c = super.read();
+        nanos += System.nanoTime() - start;
+        if (c != -1) {
+            count++;
+        }
+        return c;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        long start = System.nanoTime();
+        int read = super.read(buffer, offset, length);
+        nanos += System.nanoTime() - start;
+        if (read > 0) {
+            count += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long start = System.nanoTime();
+        long skipped = super.skip(n);
+        nanos += System.nanoTime() - start;
+        count += skipped;
+        return skipped;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the time spent in the underlying reader so far, in nanoseconds.
+     */
+    public long nanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,55 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+/**
+ * Decides what a load does with a line that cannot be parsed. A strict load fails on the first such
+ * line with the exception of the parser. A lenient load hands the line to a reject sink and goes on,
+ * until more lines than its error budget have been rejected; then it fails with an
+ * IllegalArgumentException caused by the last rejection. The budget counts the lines of all files of a
+ * load together.
+ */
+public final class IngestionPolicy {
+
+    private static final IngestionPolicy STRICT = new IngestionPolicy(null, 0);
+
+    private final RejectSink rejectSink;
+    private final long maxRejectedLines;
+
+    private IngestionPolicy(RejectSink rejectSink, long maxRejectedLines) {
+        this.rejectSink = rejectSink;
+        this.maxRejectedLines = maxRejectedLines;
+    }
+
+    public static IngestionPolicy strict() {
+        return STRICT;
+    }
+
+    /**
+     * @param rejectSink       receives every rejected line
+     * @param maxRejectedLines the most lines a load may reject and still succeed
+     * @throws IllegalArgumentException if rejectSink is null or maxRejectedLines is negative
+     */
+    public static IngestionPolicy lenient(RejectSink rejectSink, long maxRejectedLines) {
+        if (rejectSink == null) {
+            throw new IllegalArgumentException("rejectSink cannot be null");
+        }
+        if (maxRejectedLines < 0) {
+            throw new IllegalArgumentException("maxRejectedLines cannot be negative");
+        }
+        return new IngestionPolicy(rejectSink, maxRejectedLines);
+    }
+
+    public boolean isStrict() {
+        return rejectSink == null;
+    }
+
+    /**
+     * Returns the sink of a lenient policy, or null for the strict one.
+     */
+    public RejectSink rejectSink() {
+        return rejectSink;
+    }
+
+    public long maxRejectedLines() {
+        return maxRejectedLines;
+    }
+}
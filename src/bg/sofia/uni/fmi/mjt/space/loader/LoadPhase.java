@@ -0,0 +1,27 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+/**
+ * The phases a dataset load spends its time in.
+ */
+public enum LoadPhase {
+    /**
+     * Reading lines or snapshot contents, decryption included.
+     */
+    READ,
+    /**
+     * Tokenizing and parsing mission lines.
+     */
+    MISSION_PARSE,
+    /**
+     * Tokenizing and parsing rocket lines.
+     */
+    ROCKET_PARSE,
+    /**
+     * Dictionary-encoding the parsed missions into columns.
+     */
+    COLUMN_ENCODING,
+    /**
+     * Building the query indexes over the columns.
+     */
+    INDEX_BUILD
+}
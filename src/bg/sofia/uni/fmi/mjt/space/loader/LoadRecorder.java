@@ -0,0 +1,58 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Accumulates the statistics of one load. Phases may be recorded many times, e.g. once per batch; heap
+ * usage is sampled only when asked, since reading it is much slower than reading the clock. A recorder
+ * is not thread-safe.
+ */
+public final class LoadRecorder {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final LoadPhase[] PHASES = LoadPhase.values();
+
+    private final long start = System.nanoTime();
+    private final long[] phaseNanos = new long[PHASES.length];
+    private long bytesRead;
+    private long rejectedRows;
+    private long peakHeapUsedBytes = heapUsed();
+
+    public void addBytesRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    public void addRejectedRows(long rows) {
+        rejectedRows += rows;
+    }
+
+    public void addTime(LoadPhase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    public void sampleHeap() {
+        peakHeapUsedBytes = Math.max(peakHeapUsedBytes, heapUsed());
+    }
+
+    /**
+     * Returns the statistics recorded so far, with the time since the recorder was created as the total.
+     */
+    public LoadStats finish(long missionRows, long rocketRows) {
+        sampleHeap();
+
+        Map<LoadPhase, Duration> phaseTimes = new EnumMap<>(LoadPhase.class);
+        for (LoadPhase phase : PHASES) {
+            phaseTimes.put(phase, Duration.ofNanos(phaseNanos[phase.ordinal()]));
+        }
+        return new LoadStats(bytesRead, missionRows, rocketRows, rejectedRows, phaseTimes,
+                Duration.ofNanos(System.nanoTime() - start), peakHeapUsedBytes);
+    }
+
+    private static long heapUsed() {
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,36 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * What a dataset load read and where its time went. A load from readers reads the clock around every
+ * buffer fill of the input and every batch of rows, not around every row. The phase times thus cost
+ * a few clock reads per thousand rows, and splitting the input into lines counts as parsing.
+ *
+ * @param bytesRead         the size of the input files, the number of characters read from readers, or
+ *                          zero when the size of the input is unknown
+ * @param missionRows       the missions loaded
+ * @param rocketRows        the rockets loaded
+ * @param rejectedRows      the lines of both inputs a lenient load could not parse and skipped
+ * @param phaseTimes        the wall-clock time of every phase; a parallel file load reads and parses at
+ *                          the same time and counts both as parsing
+ * @param totalTime         the wall-clock time of the whole load
+ * @param peakHeapUsedBytes the highest heap usage observed between the phases, garbage included
+ */
+public record LoadStats(long bytesRead, long missionRows, long rocketRows, long rejectedRows,
+                        Map<LoadPhase, Duration> phaseTimes, Duration totalTime, long peakHeapUsedBytes) {
+
+    public LoadStats {
+        phaseTimes = Map.copyOf(phaseTimes);
+    }
+
+    public Duration phaseTime(LoadPhase phase) {
+        return phaseTimes.getOrDefault(phase, Duration.ZERO);
+    }
+
+    public double rowsPerSecond() {
+        long nanos = totalTime.toNanos();
+        return nanos == 0 ? 0 : (missionRows + rocketRows) * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,331 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+import bg.sofia.uni.fmi.mjt.space.parser.RecordParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Loads a CSV file with a header line by memory-mapping it and parsing chunks of it in parallel on a
+ * fork-join pool. Chunks are cut only after a line feed that lies outside quotes, so quoted fields never
+ * straddle two chunks. A record ends at such a line feed too, so a quoted field may span several lines,
+ * just as with CSVRecordReader. Records keep their original order in the result.
+ * <p>
+ * Under a lenient policy every chunk keeps the lines it rejects; they are numbered and handed to the
+ * reject sink in file order once the whole file has been parsed. All chunks share one budget, so a file
+ * with too many bad lines fails without being parsed to the end.
+ */
+public class ParallelCSVLoader {
+
+    private static final int DEFAULT_MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 26;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int BOUNDARY_WINDOW = 1 << 12;
+    private static final byte QUOTE = '"';
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final ForkJoinPool pool;
+    private final int minChunkSize;
+
+    public ParallelCSVLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelCSVLoader(ForkJoinPool pool) {
+        this(pool, DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * @param pool         the pool the chunks are parsed on
+     * @param minChunkSize the smallest number of bytes worth parsing as a separate chunk
+     * @throws IllegalArgumentException if pool is null or minChunkSize is not positive
+     */
+    public ParallelCSVLoader(ForkJoinPool pool, int minChunkSize) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        if (minChunkSize <= 0) {
+            throw new IllegalArgumentException("minChunkSize must be greater than zero");
+        }
+        this.pool = pool;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Parses every record of a file except the header line.
+     *
+     * @param file    the CSV file
+     * @param parsers creates one parser per chunk, since parsers are not thread-safe
+     * @return the parsed records in file order
+     * @throws IllegalArgumentException if file or parsers is null, or a record cannot be parsed
+     * @throws IOException              if the file cannot be read
+     */
+    public <T> List<T> load(Path file, Supplier<? extends RecordParser<T>> parsers) throws IOException {
+        return load(file, parsers, new RejectBudget(IngestionPolicy.strict()));
+    }
+
+    /**
+     * Parses every record of a file except the header line, rejecting the lines that cannot be parsed
+     * as the policy of the budget says.
+     *
+     * @param file    the CSV file
+     * @param parsers creates one parser per chunk, since parsers are not thread-safe
+     * @param budget  the rejections of the load the file belongs to
+     * @return the parsed records in file order, without the rejected ones
+     * @throws IllegalArgumentException if any argument is null, or a record cannot be parsed and the
+     *                                  budget does not allow it
+     * @throws IOException              if the file cannot be read
+     */
+    public <T> List<T> load(Path file, Supplier<? extends RecordParser<T>> parsers, RejectBudget budget)
+            throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file cannot be null");
+        }
+        if (parsers == null) {
+            throw new IllegalArgumentException("parsers cannot be null");
+        }
+        if (budget == null) {
+            throw new IllegalArgumentException("budget cannot be null");
+        }
+
+        Chunk<T> parsed;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel);
+            parsed = pool.invoke(new ChunkTask<>(channel, boundaries, 0, boundaries.length - 1, parsers, budget));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        String source = file.toString();
+        for (Rejection rejection : parsed.rejections()) {
+            budget.policy().rejectSink().reject(
+                    new RejectedLine(source, rejection.lineNumber(), rejection.text(), rejection.cause()));
+        }
+        return parsed.records();
+    }
+
+    private long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long chunkSize = Math.min(MAX_CHUNK_SIZE,
+                Math.max(minChunkSize, size / ((long) pool.getParallelism() * CHUNKS_PER_THREAD)));
+        int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+
+        long[] rawBoundaries = new long[chunks + 1];
+        for (int i = 0; i < chunks; i++) {
+            rawBoundaries[i] = i * chunkSize;
+        }
+        rawBoundaries[chunks] = size;
+
+        boolean[] oddQuotesBefore = new boolean[chunks + 1];
+        int[] quotes = pool.invoke(new QuoteCountTask(channel, rawBoundaries, 0, chunks));
+        for (int i = 0; i < chunks; i++) {
+            oddQuotesBefore[i + 1] = oddQuotesBefore[i] ^ (quotes[i] % 2 != 0);
+        }
+
+        long[] boundaries = new long[chunks + 1];
+        boundaries[chunks] = size;
+        for (int i = 1; i < chunks; i++) {
+            boundaries[i] = Math.max(boundaries[i - 1],
+                    nextRecordStart(channel, rawBoundaries[i], oddQuotesBefore[i], size));
+        }
+        return boundaries;
+    }
+
+    private static long nextRecordStart(FileChannel channel, long position, boolean inQuotes, long size)
+            throws IOException {
+        long window = BOUNDARY_WINDOW;
+        while (position < size) {
+            long length = Math.min(window, size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                byte b = buffer.get(i);
+                if (b == QUOTE) {
+                    inQuotes = !inQuotes;
+                } else if (b == LINE_FEED && !inQuotes) {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+            window = Math.min((long) Integer.MAX_VALUE, window << 1);
+        }
+        return size;
+    }
+
+    private static byte[] read(FileChannel channel, long from, long to) {
+        try {
+            byte[] bytes = new byte[Math.toIntExact(to - from)];
+            if (bytes.length > 0) {
+                channel.map(FileChannel.MapMode.READ_ONLY, from, bytes.length).get(bytes);
+            }
+            return bytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int countQuotes(FileChannel channel, long from, long to) {
+        if (from == to) {
+            return 0;
+        }
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            int count = 0;
+            for (int i = 0, length = buffer.limit(); i < length; i++) {
+                if (buffer.get(i) == QUOTE) {
+                    count++;
+                }
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Counts the quotes of every chunk straight from the mapped file, without copying the bytes, since
+     * only the parity matters to cutting the chunks.
+     */
+    @SuppressWarnings("serial")
+    private static final class QuoteCountTask extends RecursiveTask<int[]> {
+        private final FileChannel channel;
+        private final long[] boundaries;
+        private final int from;
+        private final int to;
+
+        QuoteCountTask(FileChannel channel, long[] boundaries, int from, int to) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                QuoteCountTask left = new QuoteCountTask(channel, boundaries, from, middle);
+                QuoteCountTask right = new QuoteCountTask(channel, boundaries, middle, to);
+                invokeAll(left, right);
+
+                int[] quotes = new int[to - from];
+                System.arraycopy(left.join(), 0, quotes, 0, middle - from);
+                System.arraycopy(right.join(), 0, quotes, middle - from, to - middle);
+                return quotes;
+            }
+
+            return new int[] {countQuotes(channel, boundaries[from], boundaries[to])};
+        }
+    }
+
+    /**
+     * A rejected record and the number of the line it starts on, counted from the start of the chunks it
+     * was found in. Line feeds inside quotes count, so the numbers match those of a text editor.
+     */
+    private record Rejection(long lineNumber, String text, RuntimeException cause) {
+    }
+
+    /**
+     * The records parsed from consecutive chunks, the number of line feeds in them and the records rejected.
+     */
+    private record Chunk<T>(List<T> records, long lines, List<Rejection> rejections) {
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ChunkTask<T> extends RecursiveTask<Chunk<T>> {
+        private final FileChannel channel;
+        private final long[] boundaries;
+        private final int from;
+        private final int to;
+        private final Supplier<? extends RecordParser<T>> parsers;
+        private final RejectBudget budget;
+
+        ChunkTask(FileChannel channel, long[] boundaries, int from, int to,
+                  Supplier<? extends RecordParser<T>> parsers, RejectBudget budget) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+            this.parsers = parsers;
+            this.budget = budget;
+        }
+
+        @Override
+        protected Chunk<T> compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                ChunkTask<T> left = new ChunkTask<>(channel, boundaries, from, middle, parsers, budget);
+                ChunkTask<T> right = new ChunkTask<>(channel, boundaries, middle, to, parsers, budget);
+                invokeAll(left, right);
+
+                Chunk<T> first = left.join();
+                Chunk<T> second = right.join();
+                first.records().addAll(second.records());
+                for (Rejection rejection : second.rejections()) {
+                    first.rejections().add(new Rejection(first.lines() + rejection.lineNumber(), rejection.text(),
+                            rejection.cause()));
+                }
+                return new Chunk<>(first.records(), first.lines() + second.lines(), first.rejections());
+            }
+
+            return parseChunk(read(channel, boundaries[from], boundaries[to]), from == 0, parsers.get(), budget);
+        }
+
+        private static <T> Chunk<T> parseChunk(byte[] bytes, boolean startsWithHeader, RecordParser<T> parser,
+                                               RejectBudget budget) {
+            List<T> records = new ArrayList<>();
+            List<Rejection> rejections = new ArrayList<>();
+            long lineFeeds = 0;
+            long recordLine = 1;
+            boolean skip = startsWithHeader;
+            boolean inQuotes = false;
+            int recordStart = 0;
+
+            for (int i = 0; i <= bytes.length; i++) {
+                boolean atEnd = i == bytes.length;
+                if (!atEnd && bytes[i] == LINE_FEED) {
+                    lineFeeds++;
+                }
+                if (!atEnd && bytes[i] == QUOTE) {
+                    inQuotes = !inQuotes;
+                    continue;
+                }
+                if (!atEnd && (bytes[i] != LINE_FEED || inQuotes)) {
+                    continue;
+                }
+                if (atEnd && recordStart == bytes.length) {
+                    break;
+                }
+
+                int recordEnd = i;
+                if (recordEnd > recordStart && bytes[recordEnd - 1] == CARRIAGE_RETURN) {
+                    recordEnd--;
+                }
+                if (skip) {
+                    skip = false;
+                } else {
+                    String line = new String(bytes, recordStart, recordEnd - recordStart, StandardCharsets.UTF_8);
+                    try {
+                        records.add(parser.parseRecord(line));
+                    } catch (RuntimeException e) {
+                        budget.reject(e);
+                        rejections.add(new Rejection(recordLine, line, e));
+                    }
+                }
+                recordStart = i + 1;
+                recordLine = lineFeeds + 1;
+            }
+            return new Chunk<>(records, lineFeeds, rejections);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the lines rejected by one load against the budget of its policy. It is thread-safe, so the
+ * chunks of a parallel load can share it and stop as soon as the budget is spent.
+ */
+public final class RejectBudget {
+
+    private final IngestionPolicy policy;
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @throws IllegalArgumentException if policy is null
+     */
+    public RejectBudget(IngestionPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy cannot be null");
+        }
+        this.policy = policy;
+    }
+
+    public IngestionPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Accounts for a line that could not be parsed. The caller reports the line to the sink of the
+     * policy if this method returns.
+     *
+     * @param cause what the parser threw
+     * @throws RuntimeException         cause itself, if the policy is strict
+     * @throws IllegalArgumentException if the rejection exceeds the budget
+     */
+    public void reject(RuntimeException cause) {
+        if (policy.isStrict()) {
+            throw cause;
+        }
+        if (rejected.incrementAndGet() > policy.maxRejectedLines()) {
+            throw new IllegalArgumentException(
+                    "More than " + policy.maxRejectedLines() + " lines could not be parsed", cause);
+        }
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+}
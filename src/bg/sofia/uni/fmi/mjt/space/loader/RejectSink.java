@@ -0,0 +1,17 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+/**
+ * Receives the lines rejected by a lenient load, in the order they appear in their source. It is called
+ * on the loading thread, so it needs no synchronization, and should not throw.
+ */
+@FunctionalInterface
+public interface RejectSink {
+
+    /**
+     * A sink that drops every rejected line; only the count in LoadStats remains.
+     */
+    RejectSink DISCARD = rejected -> {
+    };
+
+    void reject(RejectedLine rejected);
+}
@@ -0,0 +1,12 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+/**
+ * A line that could not be parsed during a lenient load.
+ *
+ * @param source     the file the line comes from, or "missions" or "rockets" for readers
+ * @param lineNumber the one-based number of the line the record starts on, the header being line one
+ * @param text       the raw text of the record, without the line terminator
+ * @param cause      the reason the line was rejected
+ */
+public record RejectedLine(String source, long lineNumber, String text, RuntimeException cause) {
+}
@@ -0,0 +1,243 @@
+package bg.sofia.uni.fmi.mjt.space.metrics;
+
+import bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Records the call count, error count, latency histogram and result sizes of every SpaceScannerAPI
+ * method of a delegate. The two getAllMissions overloads are recorded separately, the filtered one as
+ * "getAllMissions(MissionStatus)". The result size of a call is the number of elements of the returned
+ * collection or map, one for any other result and zero for saveMostReliableRocket.
+ * <p>
+ * Recording takes two clock reads and a few uncontended atomic increments per call and never allocates
+ * or locks, so it can stay on permanently. The statistics can be published as a platform MXBean.
+ */
+public class InstrumentedSpaceScanner implements SpaceScannerAPI {
+
+    public static final String MBEAN_DOMAIN = "bg.sofia.uni.fmi.mjt.space";
+
+    private final SpaceScannerAPI delegate;
+    private final Map<String, MethodRecorder> recorders = new LinkedHashMap<>();
+
+    private final MethodRecorder getAllMissions = recorder("getAllMissions");
+    private final MethodRecorder getAllMissionsWithStatus = recorder("getAllMissions(MissionStatus)");
+    private final MethodRecorder getCompanyWithMostSuccessfulMissions =
+            recorder("getCompanyWithMostSuccessfulMissions");
+    private final MethodRecorder getMissionsPerCountry = recorder("getMissionsPerCountry");
+    private final MethodRecorder getTopNLeastExpensiveMissions = recorder("getTopNLeastExpensiveMissions");
+    private final MethodRecorder getMostDesiredLocationForMissionsPerCompany =
+            recorder("getMostDesiredLocationForMissionsPerCompany");
+    private final MethodRecorder getLocationWithMostSuccessfulMissionsPerCompany =
+            recorder("getLocationWithMostSuccessfulMissionsPerCompany");
+    private final MethodRecorder getAllRockets = recorder("getAllRockets");
+    private final MethodRecorder getTopNTallestRockets = recorder("getTopNTallestRockets");
+    private final MethodRecorder getWikiPageForRocket = recorder("getWikiPageForRocket");
+    private final MethodRecorder getWikiPagesForRocketsUsedInMostExpensiveMissions =
+            recorder("getWikiPagesForRocketsUsedInMostExpensiveMissions");
+    private final MethodRecorder saveMostReliableRocket = recorder("saveMostReliableRocket");
+
+    private ObjectName registeredName;
+
+    /**
+     * @throws IllegalArgumentException if delegate is null
+     */
+    public InstrumentedSpaceScanner(SpaceScannerAPI delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of every method, in the order of SpaceScannerAPI.
+     */
+    public Map<String, MethodStats> stats() {
+        Map<String, MethodStats> stats = new LinkedHashMap<>();
+        recorders.forEach((method, recorder) -> stats.put(method, recorder.stats()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Registers the statistics with the platform MBean server under
+     * bg.sofia.uni.fmi.mjt.space:type=SpaceScanner,name=&lt;name&gt;.
+     *
+     * @throws IllegalArgumentException if name is null
+     * @throws IllegalStateException    if the statistics are already registered
+     * @throws JMException              if the registration fails, e.g. the name is taken
+     */
+    public synchronized ObjectName registerMBean(String name) throws JMException {
+        if (name == null) {
+            throw new IllegalArgumentException("name cannot be null");
+        }
+        if (registeredName != null) {
+            throw new IllegalStateException("The statistics are already registered as " + registeredName);
+        }
+
+        ObjectName objectName = new ObjectName(MBEAN_DOMAIN + ":type=SpaceScanner,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new SpaceScannerMetrics(this), objectName);
+        registeredName = objectName;
+        return objectName;
+    }
+
+    /**
+     * Removes the statistics from the platform MBean server, if registered.
+     *
+     * @throws JMException if the unregistration fails
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (registeredName != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(registeredName)) {
+                server.unregisterMBean(registeredName);
+            }
+            registeredName = null;
+        }
+    }
+
+    @Override
+    public Collection<Mission> getAllMissions() {
+        return getAllMissions.record(delegate::getAllMissions);
+    }
+
+    @Override
+    public Collection<Mission> getAllMissions(MissionStatus missionStatus) {
+        return getAllMissionsWithStatus.record(() -> delegate.getAllMissions(missionStatus));
+    }
+
+    @Override
+    public String getCompanyWithMostSuccessfulMissions(LocalDate from, LocalDate to) {
+        return getCompanyWithMostSuccessfulMissions.record(
+                () -> delegate.getCompanyWithMostSuccessfulMissions(from, to));
+    }
+
+    @Override
+    public Map<String, Collection<Mission>> getMissionsPerCountry() {
+        return getMissionsPerCountry.record(delegate::getMissionsPerCountry);
+    }
+
+    @Override
+    public List<Mission> getTopNLeastExpensiveMissions(int n, MissionStatus missionStatus, RocketStatus rocketStatus) {
+        return getTopNLeastExpensiveMissions.record(
+                () -> delegate.getTopNLeastExpensiveMissions(n, missionStatus, rocketStatus));
+    }
+
+    @Override
+    public Map<String, String> getMostDesiredLocationForMissionsPerCompany() {
+        return getMostDesiredLocationForMissionsPerCompany.record(
+                delegate::getMostDesiredLocationForMissionsPerCompany);
+    }
+
+    @Override
+    public Map<String, String> getLocationWithMostSuccessfulMissionsPerCompany(LocalDate from, LocalDate to) {
+        return getLocationWithMostSuccessfulMissionsPerCompany.record(
+                () -> delegate.getLocationWithMostSuccessfulMissionsPerCompany(from, to));
+    }
+
+    @Override
+    public Collection<Rocket> getAllRockets() {
+        return getAllRockets.record(delegate::getAllRockets);
+    }
+
+    @Override
+    public List<Rocket> getTopNTallestRockets(int n) {
+        return getTopNTallestRockets.record(() -> delegate.getTopNTallestRockets(n));
+    }
+
+    @Override
+    public Map<String, Optional<String>> getWikiPageForRocket() {
+        return getWikiPageForRocket.record(delegate::getWikiPageForRocket);
+    }
+
+    @Override
+    public List<String> getWikiPagesForRocketsUsedInMostExpensiveMissions(int n, MissionStatus missionStatus,
+                                                                          RocketStatus rocketStatus) {
+        return getWikiPagesForRocketsUsedInMostExpensiveMissions.record(
+                () -> delegate.getWikiPagesForRocketsUsedInMostExpensiveMissions(n, missionStatus, rocketStatus));
+    }
+
+    @Override
+    public void saveMostReliableRocket(OutputStream outputStream, LocalDate from, LocalDate to) throws CipherException {
+        long start = System.nanoTime();
+        try {
+            delegate.saveMostReliableRocket(outputStream, from, to);
+            saveMostReliableRocket.succeeded(System.nanoTime() - start, 0);
+        } catch (CipherException | RuntimeException | Error e) {
+            saveMostReliableRocket.failed(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private MethodRecorder recorder(String method) {
+        MethodRecorder recorder = new MethodRecorder();
+        recorders.put(method, recorder);
+        return recorder;
+    }
+
+    private static final class MethodRecorder {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder resultSizes = new LongAdder();
+
+        private <T> T record(Supplier<T> call) {
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = call.get();
+            } catch (RuntimeException | Error e) {
+                failed(System.nanoTime() - start);
+                throw e;
+            }
+            succeeded(System.nanoTime() - start, sizeOf(result));
+            return result;
+        }
+
+        private void succeeded(long nanos, long resultSize) {
+            latencies.record(nanos);
+            resultSizes.add(resultSize);
+        }
+
+        private void failed(long nanos) {
+            errors.increment();
+            latencies.record(nanos);
+        }
+
+        private MethodStats stats() {
+            return new MethodStats(latencies.count(), errors.sum(),
+                    Duration.ofNanos(latencies.percentile(50)),
+                    Duration.ofNanos(latencies.percentile(99)),
+                    Duration.ofNanos(latencies.percentile(99.9)),
+                    Duration.ofNanos(latencies.max()),
+                    resultSizes.sum());
+        }
+
+        private static long sizeOf(Object result) {
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (result instanceof Map<?, ?> map) {
+                return map.size();
+            }
+            return result == null ? 0 : 1;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package bg.sofia.uni.fmi.mjt.space.metrics;
+
+import bg.sofia.uni.fmi.mjt.space.loader.LoadStats;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Publishes load statistics as a platform MXBean. The statistics are read from a supplier on every
+ * access, so a bean registered for a reloading scanner always shows its latest load.
+ */
+public final class LoadMetrics implements LoadStatsMXBean {
+
+    private final Supplier<LoadStats> stats;
+
+    private LoadMetrics(Supplier<LoadStats> stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Registers load statistics with the platform MBean server under
+     * bg.sofia.uni.fmi.mjt.space:type=Load,name=&lt;name&gt;.
+     *
+     * @param name  the name of the dataset
+     * @param stats returns the statistics of the current load
+     * @throws IllegalArgumentException if any argument is null
+     * @throws JMException              if the registration fails, e.g. the name is taken
+     */
+    public static ObjectName register(String name, Supplier<LoadStats> stats) throws JMException {
+        if (name == null) {
+            throw new IllegalArgumentException("name cannot be null");
+        }
+        if (stats == null) {
+            throw new IllegalArgumentException("stats cannot be null");
+        }
+
+        ObjectName objectName = new ObjectName(
+                InstrumentedSpaceScanner.MBEAN_DOMAIN + ":type=Load,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new LoadMetrics(stats), objectName);
+        return objectName;
+    }
+
+    @Override
+    public long getBytesRead() {
+        return stats.get().bytesRead();
+    }
+
+    @Override
+    public long getMissionRows() {
+        return stats.get().missionRows();
+    }
+
+    @Override
+    public long getRocketRows() {
+        return stats.get().rocketRows();
+    }
+
+    @Override
+    public long getRejectedRows() {
+        return stats.get().rejectedRows();
+    }
+
+    @Override
+    public double getRowsPerSecond() {
+        return stats.get().rowsPerSecond();
+    }
+
+    @Override
+    public Map<String, Long> getPhaseNanos() {
+        Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        stats.get().phaseTimes().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> phaseNanos.put(e.getKey().name(), e.getValue().toNanos()));
+        return phaseNanos;
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return stats.get().totalTime().toNanos();
+    }
+
+    @Override
+    public long getPeakHeapUsedBytes() {
+        return stats.get().peakHeapUsedBytes();
+    }
+}
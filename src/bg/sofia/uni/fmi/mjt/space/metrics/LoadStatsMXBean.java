@@ -0,0 +1,26 @@
+package bg.sofia.uni.fmi.mjt.space.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of the statistics of a dataset load. Times are in nanoseconds and phase
+ * times are keyed by phase name.
+ */
+public interface LoadStatsMXBean {
+
+    long getBytesRead();
+
+    long getMissionRows();
+
+    long getRocketRows();
+
+    long getRejectedRows();
+
+    double getRowsPerSecond();
+
+    Map<String, Long> getPhaseNanos();
+
+    long getTotalNanos();
+
+    long getPeakHeapUsedBytes();
+}
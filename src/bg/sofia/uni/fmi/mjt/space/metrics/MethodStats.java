@@ -0,0 +1,23 @@
+package bg.sofia.uni.fmi.mjt.space.metrics;
+
+import java.time.Duration;
+
+/**
+ * A point-in-time view of the calls of one SpaceScannerAPI method.
+ *
+ * @param calls       completed calls, failed ones included
+ * @param errors      calls that threw
+ * @param p50         the median latency
+ * @param p99         the 99th percentile latency
+ * @param p999        the 99.9th percentile latency
+ * @param max         the highest latency
+ * @param resultSizes the total number of elements returned by the successful calls
+ */
+public record MethodStats(long calls, long errors, Duration p50, Duration p99, Duration p999, Duration max,
+                          long resultSizes) {
+
+    public double meanResultSize() {
+        long successes = calls - errors;
+        return successes == 0 ? 0 : (double) resultSizes / successes;
+    }
+}
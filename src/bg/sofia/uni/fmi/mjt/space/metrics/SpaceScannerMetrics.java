@@ -0,0 +1,63 @@
+package bg.sofia.uni.fmi.mjt.space.metrics;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Publishes the method statistics of an InstrumentedSpaceScanner; every read takes a fresh snapshot.
+ */
+final class SpaceScannerMetrics implements SpaceScannerMetricsMXBean {
+
+    private final InstrumentedSpaceScanner scanner;
+
+    SpaceScannerMetrics(InstrumentedSpaceScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    @Override
+    public Map<String, Long> getCalls() {
+        return perMethod(MethodStats::calls);
+    }
+
+    @Override
+    public Map<String, Long> getErrors() {
+        return perMethod(MethodStats::errors);
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP50Nanos() {
+        return perMethod(stats -> nanos(stats.p50()));
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP99Nanos() {
+        return perMethod(stats -> nanos(stats.p99()));
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP999Nanos() {
+        return perMethod(stats -> nanos(stats.p999()));
+    }
+
+    @Override
+    public Map<String, Long> getLatencyMaxNanos() {
+        return perMethod(stats -> nanos(stats.max()));
+    }
+
+    @Override
+    public Map<String, Double> getMeanResultSize() {
+        return perMethod(MethodStats::meanResultSize);
+    }
+
+    private <T> Map<String, T> perMethod(Function<MethodStats, T> attribute) {
+        Map<String, T> values = new LinkedHashMap<>();
+        scanner.stats().forEach((method, stats) -> values.put(method, attribute.apply(stats)));
+        return values;
+    }
+
+    private static long nanos(Duration duration) {
+        return duration.toNanos();
+    }
+}
@@ -0,0 +1,24 @@
+package bg.sofia.uni.fmi.mjt.space.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of an InstrumentedSpaceScanner. Every attribute is keyed by method name;
+ * latencies are in nanoseconds.
+ */
+public interface SpaceScannerMetricsMXBean {
+
+    Map<String, Long> getCalls();
+
+    Map<String, Long> getErrors();
+
+    Map<String, Long> getLatencyP50Nanos();
+
+    Map<String, Long> getLatencyP99Nanos();
+
+    Map<String, Long> getLatencyP999Nanos();
+
+    Map<String, Long> getLatencyMaxNanos();
+
+    Map<String, Double> getMeanResultSize();
+}
@@ -23,6 +23,13 @@ public record Mission(String id, String company, String location,
     }
 
     public String getCountry() {
+        return countryOf(location);
+    }
+
+    /**
+     * Returns the country a location belongs to, the way getCountry does for a mission launched there.
+     */
+    public static String countryOf(String location) {
         return location.replaceAll("\"", "")
                 .substring(location.lastIndexOf(',') + 1)
                 .trim();
@@ -1,11 +1,18 @@
 package bg.sofia.uni.fmi.mjt.space.mission;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 public enum MissionStatus {
     SUCCESS("Success"),
     FAILURE("Failure"),
     PARTIAL_FAILURE("Partial Failure"),
     PRELAUNCH_FAILURE("Prelaunch Failure");
 
+    private static final Map<String, MissionStatus> BY_VALUE = Arrays.stream(values())
+            .collect(Collectors.toMap(status -> status.value, status -> status));
+
     private final String value;
 
     MissionStatus(String value) {
@@ -17,11 +24,10 @@ public enum MissionStatus {
     }
 
     public static MissionStatus fromValue(String value) {
-        for (MissionStatus s : values()) {
-            if (s.value.equals(value)) {
-                return s;
-            }
+        MissionStatus status = BY_VALUE.get(value);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown MissionStatus: " + value);
         }
-        throw new IllegalArgumentException("Unknown MissionStatus: " + value);
+        return status;
     }
 }
\ No newline at end of file
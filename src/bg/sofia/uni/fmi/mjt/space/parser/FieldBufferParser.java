@@ -0,0 +1,111 @@
+package bg.sofia.uni.fmi.mjt.space.parser;
+
+import bg.sofia.uni.fmi.mjt.space.splitter.FieldCursor;
+import bg.sofia.uni.fmi.mjt.space.splitter.StringSplitter;
+
+import java.util.List;
+
+/**
+ * Base of the record parsers: reads the fields of a line into reused buffers, each field being a range
+ * of a CharSequence. Plain fields read through a FieldCursor are ranges of the line itself; split or
+ * unescaped fields are whole strings of their own.
+ */
+abstract class FieldBufferParser<T> implements RecordParser<T> {
+    private static final char SEPARATOR = ',';
+
+    private final int fieldCount;
+    private StringSplitter splitter;
+    private FieldCursor cursor;
+
+    private final CharSequence[] sources;
+    private final int[] starts;
+    private final int[] ends;
+
+    FieldBufferParser(StringSplitter splitter, int fieldCount) {
+        this(fieldCount);
+        this.splitter = splitter;
+    }
+
+    FieldBufferParser(FieldCursor cursor, int fieldCount) {
+        this(fieldCount);
+        this.cursor = cursor;
+    }
+
+    private FieldBufferParser(int fieldCount) {
+        this.fieldCount = fieldCount;
+        this.sources = new CharSequence[fieldCount];
+        this.starts = new int[fieldCount];
+        this.ends = new int[fieldCount];
+    }
+
+    /**
+     * Reads the fields of s into the buffers.
+     *
+     * @throws IllegalArgumentException if s does not have exactly the expected number of fields
+     */
+    void readFields(String s) {
+        if (cursor != null) {
+            readCursorFields(s);
+        } else {
+            splitFields(s);
+        }
+    }
+
+    CharSequence source(int index) {
+        return sources[index];
+    }
+
+    int start(int index) {
+        return starts[index];
+    }
+
+    int end(int index) {
+        return ends[index];
+    }
+
+    String field(int index) {
+        return sources[index].subSequence(starts[index], ends[index]).toString();
+    }
+
+    boolean isBlank(int index) {
+        return FieldParsers.isBlank(sources[index], starts[index], ends[index]);
+    }
+
+    private void splitFields(String s) {
+        List<String> parameters = splitter.split(s, SEPARATOR);
+        if (parameters.size() != fieldCount) {
+            throw new IllegalArgumentException("String s must have " + fieldCount + " parameters");
+        }
+
+        for (int i = 0; i < fieldCount; i++) {
+            sources[i] = parameters.get(i);
+            starts[i] = 0;
+            ends[i] = parameters.get(i).length();
+        }
+    }
+
+    private void readCursorFields(String s) {
+        cursor.reset(s, SEPARATOR);
+
+        int count = 0;
+        while (cursor.next()) {
+            if (count < fieldCount) {
+                if (cursor.isEscaped()) {
+                    String value = cursor.value();
+                    sources[count] = value;
+                    starts[count] = 0;
+                    ends[count] = value.length();
+                } else {
+                    sources[count] = s;
+                    starts[count] = cursor.start();
+                    ends[count] = cursor.end();
+                }
+            }
+            count++;
+        }
+
+        if (count != fieldCount) {
+            throw new IllegalArgumentException("String s must have " + fieldCount + " parameters");
+        }
+    }
+}
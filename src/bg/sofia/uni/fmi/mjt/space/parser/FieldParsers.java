@@ -0,0 +1,181 @@
+package bg.sofia.uni.fmi.mjt.space.parser;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Hand-rolled parsers for the fixed field layouts of the datasets, working over a range of a
+ * CharSequence. Every parser handles only the well-formed common case itself and falls back to the
+ * general JDK parser for anything else, so results and exceptions are identical to the JDK ones.
+ */
+final class FieldParsers {
+
+    static final DateTimeFormatter MISSION_DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("EEE MMM dd, yyyy", Locale.ENGLISH);
+
+    private static final String[] DAYS_OF_WEEK = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    private static final String[] MONTHS =
+        {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+    private static final int MISSION_DATE_LENGTH = "Mon Jan 01, 1957".length();
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private FieldParsers() {
+    }
+
+    /**
+     * Parses a date in the "EEE MMM dd, yyyy" layout, e.g. "Fri Aug 07, 2020".
+     */
+    static LocalDate parseMissionDate(CharSequence s, int start, int end) {
+        if (end - start == MISSION_DATE_LENGTH && s.charAt(start + 3) == ' ' && s.charAt(start + 7) == ' ' &&
+                s.charAt(start + 10) == ',' && s.charAt(start + 11) == ' ') {
+            int dayOfWeek = indexOf(DAYS_OF_WEEK, s, start);
+            int month = indexOf(MONTHS, s, start + 4) + 1;
+            int dayOfMonth = digits(s, start + 8, start + 10);
+            int year = digits(s, start + 12, end);
+
+            if (dayOfWeek >= 0 && month > 0 && dayOfMonth > 0 && year > 0 &&
+                    dayOfMonth <= Month.of(month).length(Year.isLeap(year))) {
+                LocalDate date = LocalDate.of(year, month, dayOfMonth);
+                if (date.getDayOfWeek().ordinal() == dayOfWeek) {
+                    return date;
+                }
+            }
+        }
+        return LocalDate.parse(s.subSequence(start, end), MISSION_DATE_FORMATTER);
+    }
+
+    /**
+     * Parses a cost such as "5,000.0 " the way Double.parseDouble(s.replace(",", "").trim()) does.
+     */
+    static double parseCost(CharSequence s, int start, int end) {
+        double value = parseSimpleDecimal(s, start, end, true);
+        if (!Double.isNaN(value)) {
+            return value;
+        }
+        return Double.parseDouble(s.subSequence(start, end).toString().replace(",", "").trim());
+    }
+
+    /**
+     * Parses a height such as "58.2 m" the way Double.parseDouble(s.substring(0, s.length() - 1).trim())
+     * does, i.e. dropping the last character whatever it is.
+     */
+    static double parseHeight(CharSequence s, int start, int end) {
+        double value = parseSimpleDecimal(s, start, end - 1, false);
+        if (!Double.isNaN(value)) {
+            return value;
+        }
+        return Double.parseDouble(s.subSequence(start, end - 1).toString().trim());
+    }
+
+    /**
+     * Returns true if the range is empty or contains only white space, as String.isBlank() does.
+     */
+    static boolean isBlank(CharSequence s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value whose toString() equals the range, without creating a string for it, or null if
+     * there is none, leaving the error to the general parser.
+     */
+    static <T> T parseValue(T[] values, CharSequence s, int start, int end) {
+        for (T value : values) {
+            String name = value.toString();
+            if (name.length() == end - start && regionMatches(name, s, start)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses an optionally signed plain decimal of at most 15 digits. Both operands of the final division
+     * are exact doubles, so the correctly rounded quotient equals the Double.parseDouble result.
+     * Returns NaN for anything outside that shape, leaving it to the general parser.
+     */
+    private static double parseSimpleDecimal(CharSequence s, int start, int end, boolean skipCommas) {
+        while (start < end && (s.charAt(start) <= ' ' || (skipCommas && s.charAt(start) == ','))) {
+            start++;
+        }
+        while (end > start && (s.charAt(end - 1) <= ' ' || (skipCommas && s.charAt(end - 1) == ','))) {
+            end--;
+        }
+
+        boolean negative = false;
+        if (start < end && (s.charAt(start) == '-' || s.charAt(start) == '+')) {
+            negative = s.charAt(start) == '-';
+            start++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_EXACT_DIGITS) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c != ',' || !skipCommas) {
+                return Double.NaN;
+            }
+        }
+
+        if (digits == 0) {
+            return Double.NaN;
+        }
+
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static int indexOf(String[] names, CharSequence s, int start) {
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            if (s.charAt(start) == name.charAt(0) && s.charAt(start + 1) == name.charAt(1) &&
+                    s.charAt(start + 2) == name.charAt(2)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(String name, CharSequence s, int start) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != s.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digits(CharSequence s, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -4,18 +4,19 @@ import bg.sofia.uni.fmi.mjt.space.mission.Detail;
 import bg.sofia.uni.fmi.mjt.space.mission.Mission;
 import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
 import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.splitter.FieldCursor;
 import bg.sofia.uni.fmi.mjt.space.splitter.StringSplitter;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Locale;
 import java.util.Optional;
 
-public class MissionParser implements RecordParser<Mission> {
-    private static final DateTimeFormatter MISSION_DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("EEE MMM dd, yyyy", Locale.ENGLISH);
+/**
+ * Parses mission lines either through a StringSplitter or, without allocating the intermediate field
+ * strings, through a FieldCursor. A parser reuses its field buffers between calls and must not be
+ * shared between threads.
+ */
+public class MissionParser extends FieldBufferParser<Mission> {
     private static final String DETAIL_SPLIT = "\\s*\\|\\s*";
+    private static final char DETAIL_SEPARATOR = '|';
     private static final int NUM_OF_PARAMS = 8;
     private static final int ID_INDEX = 0;
     private static final int COMPANY_INDEX = 1;
@@ -25,32 +26,93 @@ public class MissionParser implements RecordParser<Mission> {
     private static final int ROCKET_STATUS_INDEX = 5;
     private static final int COST_INDEX = 6;
     private static final int MISSION_STATUS_INDEX = 7;
-    private static final char SEPARATOR = ',';
-
-    private StringSplitter splitter;
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
 
     public MissionParser(StringSplitter splitter) {
-        this.splitter = splitter;
+        super(splitter, NUM_OF_PARAMS);
+    }
+
+    public MissionParser(FieldCursor cursor) {
+        super(cursor, NUM_OF_PARAMS);
     }
 
     @Override
     public Mission parseRecord(String s) {
-        List<String> parameters = splitter.split(s, SEPARATOR);
-        if (parameters.size() != NUM_OF_PARAMS) {
-            throw new IllegalArgumentException("String s must have " + NUM_OF_PARAMS + " parameters");
+        readFields(s);
+
+        return new Mission( field(ID_INDEX),
+                            field(COMPANY_INDEX),
+                            field(LOCATION_INDEX),
+                            FieldParsers.parseMissionDate(source(DATE_INDEX), start(DATE_INDEX), end(DATE_INDEX)),
+                            parseDetail(source(DETAIL_INDEX), start(DETAIL_INDEX), end(DETAIL_INDEX)),
+                            parseRocketStatus(),
+                            parseCost(),
+                            parseMissionStatus());
+    }
+
+    private Optional<Double> parseCost() {
+        return isBlank(COST_INDEX) ? Optional.empty() :
+                Optional.of(FieldParsers.parseCost(source(COST_INDEX), start(COST_INDEX), end(COST_INDEX)));
+    }
+
+    private RocketStatus parseRocketStatus() {
+        RocketStatus status = FieldParsers.parseValue(ROCKET_STATUSES, source(ROCKET_STATUS_INDEX),
+                start(ROCKET_STATUS_INDEX), end(ROCKET_STATUS_INDEX));
+        return status != null ? status : RocketStatus.fromValue(field(ROCKET_STATUS_INDEX));
+    }
+
+    private MissionStatus parseMissionStatus() {
+        MissionStatus status = FieldParsers.parseValue(MISSION_STATUSES, source(MISSION_STATUS_INDEX),
+                start(MISSION_STATUS_INDEX), end(MISSION_STATUS_INDEX));
+        return status != null ? status : MissionStatus.fromValue(field(MISSION_STATUS_INDEX));
+    }
+
+    /**
+     * Splits "rocket | payload" the way String.split(DETAIL_SPLIT) does, falling back to the regular
+     * expression for the rare shapes where trailing empty parts would change the result.
+     */
+    private static Detail parseDetail(CharSequence s, int start, int end) {
+        int separator = indexOf(s, start, end, DETAIL_SEPARATOR);
+        if (separator >= 0) {
+            int payloadStart = skipWhitespace(s, separator + 1, end);
+            int nextSeparator = indexOf(s, payloadStart, end, DETAIL_SEPARATOR);
+            int payloadEnd = trimWhitespace(s, payloadStart, nextSeparator < 0 ? end : nextSeparator);
+
+            if (payloadStart < payloadEnd) {
+                return new Detail(s.subSequence(start, trimWhitespace(s, start, separator)).toString(),
+                        s.subSequence(payloadStart, payloadEnd).toString());
+            }
+        }
+
+        String[] detailParams = s.subSequence(start, end).toString().split(DETAIL_SPLIT);
+        return new Detail(detailParams[0], detailParams[1]);
+    }
+
+    private static int indexOf(CharSequence s, int start, int end, char c) {
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(CharSequence s, int start, int end) {
+        while (start < end && isRegexWhitespace(s.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimWhitespace(CharSequence s, int start, int end) {
+        while (end > start && isRegexWhitespace(s.charAt(end - 1))) {
+            end--;
         }
+        return end;
+    }
 
-        String[] detailParams = parameters.get(DETAIL_INDEX).split(DETAIL_SPLIT);
-        Optional<Double> cost = parameters.get(COST_INDEX).isBlank() ? Optional.empty() :
-                Optional.of(Double.parseDouble(parameters.get(COST_INDEX).replace(",", "").trim()));
-
-        return new Mission( parameters.get(ID_INDEX),
-                            parameters.get(COMPANY_INDEX),
-                            parameters.get(LOCATION_INDEX),
-                            LocalDate.parse(parameters.get(DATE_INDEX), MISSION_DATE_FORMATTER),
-                            new Detail(detailParams[0], detailParams[1]),
-                            RocketStatus.fromValue(parameters.get(ROCKET_STATUS_INDEX)),
-                            cost,
-                            MissionStatus.fromValue(parameters.get(MISSION_STATUS_INDEX)));
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 }
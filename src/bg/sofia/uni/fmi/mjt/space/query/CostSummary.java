@@ -0,0 +1,20 @@
+package bg.sofia.uni.fmi.mjt.space.query;
+
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+
+/**
+ * The cost aggregates of a set of missions. Missions without a known cost are counted but take no
+ * part in the cost aggregates, which are MissionColumns.NO_COST when no mission has a known cost.
+ *
+ * @param missions       the missions in the set
+ * @param costedMissions the missions with a known cost
+ * @param sum            the total known cost, zero if there is none
+ * @param min            the lowest known cost
+ * @param max            the highest known cost
+ */
+public record CostSummary(long missions, long costedMissions, double sum, double min, double max) {
+
+    public double mean() {
+        return costedMissions == 0 ? MissionColumns.NO_COST : sum / costedMissions;
+    }
+}
@@ -0,0 +1,95 @@
+package bg.sofia.uni.fmi.mjt.space.query;
+
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+
+import java.time.LocalDate;
+
+/**
+ * The mission attributes a query can project and group by. Every attribute is read from its column as
+ * an int key, a dictionary code, ordinal or year, and turned into text only once per distinct key.
+ */
+public enum MissionField {
+    COMPANY {
+        @Override
+        int key(MissionColumns missions, int row) {
+            return missions.companyCode(row);
+        }
+
+        @Override
+        String name(MissionColumns missions, int key) {
+            return missions.companies().decode(key);
+        }
+    },
+    LOCATION {
+        @Override
+        int key(MissionColumns missions, int row) {
+            return missions.locationCode(row);
+        }
+
+        @Override
+        String name(MissionColumns missions, int key) {
+            return missions.locations().decode(key);
+        }
+    },
+    COUNTRY {
+        @Override
+        int key(MissionColumns missions, int row) {
+            return missions.countryCode(row);
+        }
+
+        @Override
+        String name(MissionColumns missions, int key) {
+            return missions.countries().decode(key);
+        }
+    },
+    ROCKET_NAME {
+        @Override
+        int key(MissionColumns missions, int row) {
+            return missions.rocketCode(row);
+        }
+
+        @Override
+        String name(MissionColumns missions, int key) {
+            return missions.rocketNames().decode(key);
+        }
+    },
+    MISSION_STATUS {
+        @Override
+        int key(MissionColumns missions, int row) {
+            return missions.missionStatus(row).ordinal();
+        }
+
+        @Override
+        String name(MissionColumns missions, int key) {
+            return MissionStatus.values()[key].toString();
+        }
+    },
+    ROCKET_STATUS {
+        @Override
+        int key(MissionColumns missions, int row) {
+            return missions.rocketStatus(row).ordinal();
+        }
+
+        @Override
+        String name(MissionColumns missions, int key) {
+            return RocketStatus.values()[key].toString();
+        }
+    },
+    YEAR {
+        @Override
+        int key(MissionColumns missions, int row) {
+            return LocalDate.ofEpochDay(missions.epochDay(row)).getYear();
+        }
+
+        @Override
+        String name(MissionColumns missions, int key) {
+            return String.valueOf(key);
+        }
+    };
+
+    abstract int key(MissionColumns missions, int row);
+
+    abstract String name(MissionColumns missions, int key);
+}
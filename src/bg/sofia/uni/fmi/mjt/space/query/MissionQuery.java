@@ -0,0 +1,723 @@
+package bg.sofia.uni.fmi.mjt.space.query;
+
+import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import bg.sofia.uni.fmi.mjt.space.index.BitmapIndex;
+import bg.sofia.uni.fmi.mjt.space.index.DateIndex;
+import bg.sofia.uni.fmi.mjt.space.index.RocketJoinIndex;
+import bg.sofia.uni.fmi.mjt.space.index.RowBitmap;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.selection.TopKSelector;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+import bg.sofia.uni.fmi.mjt.space.storage.StringDictionary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * A composable query over the missions of a scanner. Filters are combined with AND and a filter given
+ * several values matches any of them. Every terminal operation plans the query anew. The status,
+ * company and country filters are answered together by intersecting their bitmaps; the date index can
+ * answer a launch window and the rocket join index rocket names. Whichever of these yields the fewest
+ * candidate rows drives the run, and the other filters are checked against the columns of the
+ * candidates alone. Without any of them every row is checked. String values are turned into
+ * dictionary codes once per run, so a value that never occurs empties the query without reading any
+ * row. Missions are materialized only by the operations returning them.
+ * <p>
+ * Results are in load order unless stated otherwise. A query is not thread-safe and must not run
+ * concurrently with appends to its scanner; it sees the rows appended before each run.
+ */
+public class MissionQuery {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final MissionColumns missions;
+    private final DateIndex dateIndex;
+    private final RocketJoinIndex rocketJoinIndex;
+    private final BitmapIndex bitmapIndex;
+    private final List<Filter> filters = new ArrayList<>();
+
+    /**
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public MissionQuery(MissionColumns missions, DateIndex dateIndex, RocketJoinIndex rocketJoinIndex,
+                        BitmapIndex bitmapIndex) {
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+        if (dateIndex == null) {
+            throw new IllegalArgumentException("dateIndex cannot be null");
+        }
+        if (rocketJoinIndex == null) {
+            throw new IllegalArgumentException("rocketJoinIndex cannot be null");
+        }
+        if (bitmapIndex == null) {
+            throw new IllegalArgumentException("bitmapIndex cannot be null");
+        }
+        this.missions = missions;
+        this.dateIndex = dateIndex;
+        this.rocketJoinIndex = rocketJoinIndex;
+        this.bitmapIndex = bitmapIndex;
+    }
+
+    /**
+     * Keeps the missions launched between from and to inclusive.
+     *
+     * @throws IllegalArgumentException   if from or to is null
+     * @throws TimeFrameMismatchException if to is before from
+     */
+    public MissionQuery launchedBetween(LocalDate from, LocalDate to) {
+        if (from == null) {
+            throw new IllegalArgumentException("LocalDate from cannot be null");
+        }
+        if (to == null) {
+            throw new IllegalArgumentException("LocalDate to cannot be null");
+        }
+        if (to.isBefore(from)) {
+            throw new TimeFrameMismatchException("LocalDate to cannot be before LocalDate from");
+        }
+        filters.add(new DateFilter(from, to));
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no status is given or a status is null
+     */
+    public MissionQuery withMissionStatus(MissionStatus... missionStatuses) {
+        MissionStatus[] statuses = checkValues(missionStatuses, "missionStatus");
+        boolean[] accepted = new boolean[MissionStatus.values().length];
+        for (MissionStatus status : statuses) {
+            accepted[status.ordinal()] = true;
+        }
+        filters.add(new ColumnFilter("missionStatus", Arrays.toString(statuses),
+                row -> accepted[missions.missionStatus(row).ordinal()],
+                () -> union(statuses, bitmapIndex::missionStatus)));
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no status is given or a status is null
+     */
+    public MissionQuery withRocketStatus(RocketStatus... rocketStatuses) {
+        RocketStatus[] statuses = checkValues(rocketStatuses, "rocketStatus");
+        boolean[] accepted = new boolean[RocketStatus.values().length];
+        for (RocketStatus status : statuses) {
+            accepted[status.ordinal()] = true;
+        }
+        filters.add(new ColumnFilter("rocketStatus", Arrays.toString(statuses),
+                row -> accepted[missions.rocketStatus(row).ordinal()],
+                () -> union(statuses, bitmapIndex::rocketStatus)));
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no company is given or a company is null
+     */
+    public MissionQuery byCompany(String... companies) {
+        filters.add(new CodeFilter("company", checkValues(companies, "company"), missions::companies,
+                missions::companyCode, bitmapIndex::company, null, null));
+        return this;
+    }
+
+    /**
+     * @param locations full locations, as returned by Mission.location
+     * @throws IllegalArgumentException if no location is given or a location is null
+     */
+    public MissionQuery atLocation(String... locations) {
+        filters.add(new CodeFilter("location", checkValues(locations, "location"), missions::locations,
+                missions::locationCode, null, null, null));
+        return this;
+    }
+
+    /**
+     * @param countries countries, as returned by Mission.getCountry
+     * @throws IllegalArgumentException if no country is given or a country is null
+     */
+    public MissionQuery inCountry(String... countries) {
+        filters.add(new CodeFilter("country", checkValues(countries, "country"), missions::countries,
+                missions::countryCode, bitmapIndex::country, null, null));
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no rocket name is given or a rocket name is null
+     */
+    public MissionQuery withRocket(String... rocketNames) {
+        filters.add(new CodeFilter("rocketName", checkValues(rocketNames, "rocketName"), missions::rocketNames,
+                missions::rocketCode, null, rocketJoinIndex::missionCount, rocketJoinIndex::missionRows));
+        return this;
+    }
+
+    /**
+     * Keeps the missions with a known cost between min and max inclusive.
+     *
+     * @throws IllegalArgumentException if max is less than min or either is NaN
+     */
+    public MissionQuery costBetween(double min, double max) {
+        if (Double.isNaN(min) || Double.isNaN(max) || max < min) {
+            throw new IllegalArgumentException("max must be a number not less than min");
+        }
+        filters.add(new ColumnFilter("cost", "[" + min + ", " + max + "]", row -> {
+            double cost = missions.cost(row);
+            return cost >= min && cost <= max;
+        }, null));
+        return this;
+    }
+
+    public long count() {
+        return matchingRows().length;
+    }
+
+    public List<Mission> missions() {
+        return materialize(matchingRows());
+    }
+
+    public List<String> ids() {
+        int[] rows = matchingRows();
+        List<String> ids = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            ids.add(missions.id(row));
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the value of a field for every matching mission. Equal values share one instance.
+     *
+     * @throws IllegalArgumentException if field is null
+     */
+    public List<String> values(MissionField field) {
+        if (field == null) {
+            throw new IllegalArgumentException("field cannot be null");
+        }
+
+        int[] rows = matchingRows();
+        Map<Integer, String> names = new HashMap<>();
+        List<String> values = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            values.add(names.computeIfAbsent(field.key(missions, row), key -> field.name(missions, key)));
+        }
+        return values;
+    }
+
+    public CostSummary costSummary() {
+        CostAccumulator accumulator = new CostAccumulator();
+        for (int row : matchingRows()) {
+            accumulator.add(missions.cost(row));
+        }
+        return accumulator.summary();
+    }
+
+    /**
+     * Returns the number of matching missions per value of a field, for the values that have any.
+     *
+     * @throws IllegalArgumentException if field is null
+     */
+    public Map<String, Long> countBy(MissionField field) {
+        return group(field, CostAccumulator::missions);
+    }
+
+    /**
+     * Returns the cost aggregates of the matching missions per value of a field, for the values that
+     * have any.
+     *
+     * @throws IllegalArgumentException if field is null
+     */
+    public Map<String, CostSummary> summarizeBy(MissionField field) {
+        return group(field, CostAccumulator::summary);
+    }
+
+    /**
+     * Returns the n values of a field with the most matching missions, from the most to the least,
+     * values with equal counts in alphabetical order.
+     *
+     * @throws IllegalArgumentException if field is null or n is not positive
+     */
+    public Map<String, Long> topBy(MissionField field, int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be greater than zero");
+        }
+
+        return countBy(field).entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(n)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * Returns the n cheapest matching missions, cheapest first. Missions without a known cost come
+     * last, and missions of equal cost keep their load order.
+     *
+     * @throws IllegalArgumentException if n is not positive
+     */
+    public List<Mission> cheapest(int n) {
+        return selectByCost(n, 1);
+    }
+
+    /**
+     * Returns the n most expensive matching missions, most expensive first. Missions without a known
+     * cost come last, and missions of equal cost keep their load order.
+     *
+     * @throws IllegalArgumentException if n is not positive
+     */
+    public List<Mission> mostExpensive(int n) {
+        return selectByCost(n, -1);
+    }
+
+    /**
+     * Describes how the query would run now: the index or bitmaps driving it and the number of candidate
+     * rows they yield, or a full scan, followed by the filters checked against the columns.
+     */
+    public String explain() {
+        Plan plan = plan();
+        String source = plan.source() + ": " + plan.candidateCount() + " candidate rows";
+        String checks = plan.checks().stream()
+                .map(Filter::description)
+                .collect(Collectors.joining(", "));
+        return checks.isEmpty() ? source : source + "; then " + checks;
+    }
+
+    /**
+     * Prepares every filter and picks the cheapest way to find candidates: the intersection of the
+     * bitmaps of all filters that have one, the indexed filter with the fewest candidates, or a scan.
+     */
+    private Plan plan() {
+        RowBitmap bitmap = null;
+        List<String> bitmapColumns = new ArrayList<>();
+        CandidateSource driver = null;
+        Filter driverFilter = null;
+        for (Filter filter : filters) {
+            filter.prepare();
+            RowBitmap rows = filter.bitmap();
+            if (rows != null) {
+                bitmap = bitmap == null ? rows : bitmap.and(rows);
+                bitmapColumns.add(filter.column());
+                continue;
+            }
+            Optional<CandidateSource> source = filter.candidateSource();
+            if (source.isPresent() && (driver == null || source.get().estimate() < driver.estimate())) {
+                driver = source.get();
+                driverFilter = filter;
+            }
+        }
+
+        if (bitmap != null && (driver == null || bitmap.cardinality() <= driver.estimate())) {
+            return new Plan("bitmaps of " + String.join(", ", bitmapColumns), bitmap.cardinality(),
+                    bitmap::toArray, true, checks(filter -> filter.bitmap() == null));
+        }
+        if (driver != null) {
+            Filter chosen = driverFilter;
+            return new Plan(driver.index(), driver.estimate(), driver.rows(), driver.inLoadOrder(),
+                    checks(filter -> filter != chosen));
+        }
+        return new Plan("full scan", missions.size(), null, true, filters);
+    }
+
+    private List<Filter> checks(Predicate<Filter> stillToCheck) {
+        return filters.stream().filter(stillToCheck).collect(Collectors.toList());
+    }
+
+    private int[] matchingRows() {
+        Plan plan = plan();
+        Filter[] checks = plan.checks().toArray(new Filter[0]);
+        if (plan.candidates() == null) {
+            int[] matches = new int[Math.min(missions.size(), INITIAL_CAPACITY)];
+            int count = 0;
+            for (int row = 0; row < missions.size(); row++) {
+                if (matchesAll(row, checks)) {
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, Math.max(INITIAL_CAPACITY, count << 1));
+                    }
+                    matches[count++] = row;
+                }
+            }
+            return Arrays.copyOf(matches, count);
+        }
+
+        int[] candidates = plan.candidates().get();
+        int count = 0;
+        for (int row : candidates) {
+            if (matchesAll(row, checks)) {
+                candidates[count++] = row;
+            }
+        }
+        int[] matches = count == candidates.length ? candidates : Arrays.copyOf(candidates, count);
+        if (!plan.inLoadOrder()) {
+            Arrays.sort(matches);
+        }
+        return matches;
+    }
+
+    private static boolean matchesAll(int row, Filter[] checks) {
+        for (Filter filter : checks) {
+            if (!filter.test(row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> RowBitmap union(T[] values, Function<T, RowBitmap> bitmapOf) {
+        RowBitmap union = bitmapOf.apply(values[0]);
+        for (int i = 1; i < values.length; i++) {
+            union = union.or(bitmapOf.apply(values[i]));
+        }
+        return union;
+    }
+
+    private List<Mission> materialize(int[] rows) {
+        List<Mission> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(missions.mission(row));
+        }
+        return result;
+    }
+
+    private List<Mission> selectByCost(int n, int sign) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be greater than zero");
+        }
+
+        TopKSelector selector = new TopKSelector(n);
+        for (int row : matchingRows()) {
+            selector.offer(sign * missions.cost(row), row);
+        }
+        return materialize(selector.drainSorted());
+    }
+
+    /**
+     * Aggregates the matching rows per key of a field in arrays indexed by key, decoding every key with
+     * missions once.
+     */
+    private <T> Map<String, T> group(MissionField field, Function<CostAccumulator, T> result) {
+        if (field == null) {
+            throw new IllegalArgumentException("field cannot be null");
+        }
+
+        int[] rows = matchingRows();
+        int[] keys = new int[rows.length];
+        int minKey = Integer.MAX_VALUE;
+        int maxKey = Integer.MIN_VALUE;
+        for (int i = 0; i < rows.length; i++) {
+            keys[i] = field.key(missions, rows[i]);
+            minKey = Math.min(minKey, keys[i]);
+            maxKey = Math.max(maxKey, keys[i]);
+        }
+
+        Map<String, T> groups = new HashMap<>();
+        if (rows.length == 0) {
+            return groups;
+        }
+        CostAccumulator[] accumulators = new CostAccumulator[maxKey - minKey + 1];
+        for (int i = 0; i < rows.length; i++) {
+            int slot = keys[i] - minKey;
+            if (accumulators[slot] == null) {
+                accumulators[slot] = new CostAccumulator();
+            }
+            accumulators[slot].add(missions.cost(rows[i]));
+        }
+        for (int slot = 0; slot < accumulators.length; slot++) {
+            if (accumulators[slot] != null) {
+                groups.put(field.name(missions, slot + minKey), result.apply(accumulators[slot]));
+            }
+        }
+        return groups;
+    }
+
+    private static <T> T[] checkValues(T[] values, String name) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("At least one " + name + " is required");
+        }
+        for (T value : values) {
+            if (value == null) {
+                throw new IllegalArgumentException(name + " cannot be null");
+            }
+        }
+        return values.clone();
+    }
+
+    private static final class CostAccumulator {
+        private long missions;
+        private long costedMissions;
+        private double sum;
+        private double min = MissionColumns.NO_COST;
+        private double max = MissionColumns.NO_COST;
+
+        void add(double cost) {
+            missions++;
+            if (!Double.isNaN(cost)) {
+                sum += cost;
+                min = costedMissions == 0 ? cost : Math.min(min, cost);
+                max = costedMissions == 0 ? cost : Math.max(max, cost);
+                costedMissions++;
+            }
+        }
+
+        long missions() {
+            return missions;
+        }
+
+        CostSummary summary() {
+            return new CostSummary(missions, costedMissions, sum, min, max);
+        }
+    }
+
+    /**
+     * How a run finds its rows: a source of candidates, or null for every row, and the filters still to
+     * check on each candidate.
+     */
+    private record Plan(String source, int candidateCount, Supplier<int[]> candidates, boolean inLoadOrder,
+                        List<Filter> checks) {
+    }
+
+    /**
+     * Rows an index yields for a filter, a superset of its matches.
+     *
+     * @param index       the name of the index, as explain reports it
+     * @param estimate    the number of rows the index yields
+     * @param rows        returns a fresh array of the rows
+     * @param inLoadOrder whether the rows come in load order
+     */
+    private record CandidateSource(String index, int estimate, Supplier<int[]> rows, boolean inLoadOrder) {
+    }
+
+    private abstract static class Filter {
+
+        /**
+         * Called before every run, so that values are resolved against the current dictionaries.
+         */
+        void prepare() {
+        }
+
+        /**
+         * Returns the rows an index yields for this filter, or empty if no index can answer it.
+         */
+        Optional<CandidateSource> candidateSource() {
+            return Optional.empty();
+        }
+
+        /**
+         * Returns the exact rows of this filter as a bitmap, or null if there is no bitmap for it.
+         */
+        RowBitmap bitmap() {
+            return null;
+        }
+
+        abstract boolean test(int row);
+
+        abstract String column();
+
+        abstract String description();
+    }
+
+    private final class DateFilter extends Filter {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final long fromDay;
+        private final long toDay;
+
+        DateFilter(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+            fromDay = from.toEpochDay();
+            toDay = to.toEpochDay();
+        }
+
+        @Override
+        Optional<CandidateSource> candidateSource() {
+            int start = dateIndex.lowerBound(from);
+            int end = dateIndex.upperBound(to);
+            return Optional.of(new CandidateSource("date index", end - start, () -> {
+                int[] rows = new int[end - start];
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = dateIndex.row(start + i);
+                }
+                return rows;
+            }, false));
+        }
+
+        @Override
+        String column() {
+            return "launchDate";
+        }
+
+        @Override
+        boolean test(int row) {
+            int day = missions.epochDay(row);
+            return day >= fromDay && day <= toDay;
+        }
+
+        @Override
+        String description() {
+            return "launched in [" + from + ", " + to + "]";
+        }
+    }
+
+    /**
+     * Checks a predicate over the columns, and uses the bitmap of the accepted values if there is one.
+     */
+    private static final class ColumnFilter extends Filter {
+        private final String column;
+        private final String values;
+        private final IntPredicate predicate;
+        private final Supplier<RowBitmap> bitmapSupplier;
+        private RowBitmap bitmap;
+
+        ColumnFilter(String column, String values, IntPredicate predicate, Supplier<RowBitmap> bitmapSupplier) {
+            this.column = column;
+            this.values = values;
+            this.predicate = predicate;
+            this.bitmapSupplier = bitmapSupplier;
+        }
+
+        @Override
+        void prepare() {
+            bitmap = bitmapSupplier == null ? null : bitmapSupplier.get();
+        }
+
+        @Override
+        RowBitmap bitmap() {
+            return bitmap;
+        }
+
+        @Override
+        boolean test(int row) {
+            return predicate.test(row);
+        }
+
+        @Override
+        String column() {
+            return column;
+        }
+
+        @Override
+        String description() {
+            return column + " in " + values;
+        }
+    }
+
+    /**
+     * Matches the rows whose dictionary code of a column is the code of any of the values. Values the
+     * dictionary has never seen are dropped; if none is left, the filter yields no candidates at all.
+     */
+    private static final class CodeFilter extends Filter {
+        private final String column;
+        private final String[] values;
+        private final Supplier<StringDictionary> dictionary;
+        private final IntUnaryOperator codeOfRow;
+        private final IntFunction<RowBitmap> bitmapOfCode;
+        private final IntUnaryOperator countOfCode;
+        private final IntFunction<int[]> rowsOfCode;
+        private int[] codes;
+        private boolean[] accepted;
+        private RowBitmap bitmap;
+
+        CodeFilter(String column, String[] values, Supplier<StringDictionary> dictionary,
+                   IntUnaryOperator codeOfRow, IntFunction<RowBitmap> bitmapOfCode, IntUnaryOperator countOfCode,
+                   IntFunction<int[]> rowsOfCode) {
+            this.column = column;
+            this.values = values;
+            this.dictionary = dictionary;
+            this.codeOfRow = codeOfRow;
+            this.bitmapOfCode = bitmapOfCode;
+            this.countOfCode = countOfCode;
+            this.rowsOfCode = rowsOfCode;
+        }
+
+        @Override
+        void prepare() {
+            StringDictionary current = dictionary.get();
+            codes = Arrays.stream(values)
+                    .mapToInt(current::codeOf)
+                    .filter(code -> code != StringDictionary.NO_CODE)
+                    .distinct()
+                    .toArray();
+            accepted = new boolean[current.size()];
+            for (int code : codes) {
+                accepted[code] = true;
+            }
+            if (bitmapOfCode != null) {
+                bitmap = RowBitmap.EMPTY;
+                for (int code : codes) {
+                    bitmap = bitmap.or(bitmapOfCode.apply(code));
+                }
+            }
+        }
+
+        @Override
+        RowBitmap bitmap() {
+            return bitmap;
+        }
+
+        /**
+         * Without any code left, the dictionary alone shows that nothing matches; otherwise the index of
+         * the column, if it has one, yields the rows of the codes.
+         */
+        @Override
+        Optional<CandidateSource> candidateSource() {
+            if (codes.length == 0) {
+                return Optional.of(new CandidateSource("dictionary (no " + column + " occurs)", 0, () -> new int[0],
+                        true));
+            }
+            if (rowsOfCode == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new CandidateSource(column + " index", candidateCount(), this::candidateRows, false));
+        }
+
+        @Override
+        boolean test(int row) {
+            return accepted[codeOfRow.applyAsInt(row)];
+        }
+
+        @Override
+        String column() {
+            return column;
+        }
+
+        @Override
+        String description() {
+            return column + " in " + Arrays.toString(values);
+        }
+
+        private int candidateCount() {
+            int sum = 0;
+            for (int code : codes) {
+                sum += countOfCode.applyAsInt(code);
+            }
+            return sum;
+        }
+
+        private int[] candidateRows() {
+            int[][] parts = new int[codes.length][];
+            int total = 0;
+            for (int i = 0; i < codes.length; i++) {
+                parts[i] = rowsOfCode.apply(codes[i]);
+                total += parts[i].length;
+            }
+            int[] rows = new int[total];
+            int offset = 0;
+            for (int[] part : parts) {
+                System.arraycopy(part, 0, rows, offset, part.length);
+                offset += part.length;
+            }
+            return rows;
+        }
+    }
+}
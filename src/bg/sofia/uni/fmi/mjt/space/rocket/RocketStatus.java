@@ -1,9 +1,16 @@
 package bg.sofia.uni.fmi.mjt.space.rocket;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 public enum RocketStatus {
     STATUS_RETIRED("StatusRetired"),
     STATUS_ACTIVE("StatusActive");
 
+    private static final Map<String, RocketStatus> BY_VALUE = Arrays.stream(values())
+            .collect(Collectors.toMap(status -> status.value, status -> status));
+
     private final String value;
 
     RocketStatus(String value) {
@@ -15,11 +22,10 @@ public enum RocketStatus {
     }
 
     public static RocketStatus fromValue(String value) {
-        for (RocketStatus s : values()) {
-            if (s.value.equals(value)) {
-                return s;
-            }
+        RocketStatus status = BY_VALUE.get(value);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown RocketStatus: " + value);
         }
-        throw new IllegalArgumentException("Unknown RocketStatus: " + value);
+        return status;
     }
 }
\ No newline at end of file
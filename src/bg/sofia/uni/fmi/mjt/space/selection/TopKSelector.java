@@ -0,0 +1,111 @@
+package bg.sofia.uni.fmi.mjt.space.selection;
+
+import java.util.Arrays;
+
+/**
+ * Selects the k ids with the smallest keys out of a stream of (key, id) pairs in O(N log k) time and
+ * O(k) memory. Keys are ordered by Double.compare, so NaN keys come after every number and can stand
+ * for a missing value sorted last. Equal keys are ordered by id, which keeps the selection stable when
+ * ids are offered in increasing order.
+ */
+public class TopKSelector {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int k;
+    private double[] keys;
+    private int[] ids;
+    private int size;
+
+    public TopKSelector(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be greater than zero");
+        }
+        this.k = k;
+
+        int capacity = Math.min(k, INITIAL_CAPACITY);
+        keys = new double[capacity];
+        ids = new int[capacity];
+    }
+
+    /**
+     * Offers a candidate, keeping it only if it is among the k smallest seen so far.
+     */
+    public void offer(double key, int id) {
+        if (size < k) {
+            if (size == keys.length) {
+                int capacity = (int) Math.min(k, (long) size << 1);
+                keys = Arrays.copyOf(keys, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            keys[size] = key;
+            ids[size] = id;
+            siftUp(size++);
+        } else if (isWorse(keys[0], ids[0], key, id)) {
+            keys[0] = key;
+            ids[0] = id;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Returns the selected ids ordered from the smallest key to the largest and empties the selector.
+     */
+    public int[] drainSorted() {
+        int[] result = new int[size];
+        while (size > 0) {
+            result[size - 1] = ids[0];
+            size--;
+            keys[0] = keys[size];
+            ids[0] = ids[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean isWorse(double key, int id, double otherKey, int otherId) {
+        int comparison = Double.compare(key, otherKey);
+        return comparison > 0 || (comparison == 0 && id > otherId);
+    }
+
+    private void siftUp(int index) {
+        double key = keys[index];
+        int id = ids[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(key, id, keys[parent], ids[parent])) {
+                break;
+            }
+            keys[index] = keys[parent];
+            ids[index] = ids[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        ids[index] = id;
+    }
+
+    private void siftDown(int index) {
+        double key = keys[index];
+        int id = ids[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && isWorse(keys[right], ids[right], keys[child], ids[child])) {
+                child = right;
+            }
+            if (!isWorse(keys[child], ids[child], key, id)) {
+                break;
+            }
+            keys[index] = keys[child];
+            ids[index] = ids[child];
+            index = child;
+        }
+        keys[index] = key;
+        ids[index] = id;
+    }
+}
@@ -0,0 +1,48 @@
+package bg.sofia.uni.fmi.mjt.space.splitter;
+
+public interface FieldCursor {
+    /**
+     * Points the cursor before the first field of a line. The cursor keeps no copy of the line,
+     * so the same cursor can walk many lines without allocating.
+     *
+     * @param line      the line to be split
+     * @param separator the character to split by
+     * @throws IllegalArgumentException if the line is null
+     */
+    void reset(CharSequence line, char separator);
+
+    /**
+     * Moves the cursor to the next field.
+     *
+     * @return false if there are no more fields in the line
+     */
+    boolean next();
+
+    /**
+     * Returns the line the cursor walks over.
+     */
+    CharSequence line();
+
+    /**
+     * Returns the offset in the line where the current field starts.
+     * A field wrapped in quotes starts after the opening quote.
+     */
+    int start();
+
+    /**
+     * Returns the offset in the line right after the current field ends.
+     * A field wrapped in quotes ends before the closing quote.
+     */
+    int end();
+
+    /**
+     * Returns true if the current field has quotes that need unescaping, in which case start and end
+     * delimit the raw field, quotes included, and only value() returns its content.
+     */
+    boolean isEscaped();
+
+    /**
+     * Returns the content of the current field as a string, unescaping quotes if needed.
+     */
+    String value();
+}
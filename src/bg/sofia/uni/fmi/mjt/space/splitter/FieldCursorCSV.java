@@ -0,0 +1,126 @@
+package bg.sofia.uni.fmi.mjt.space.splitter;
+
+/**
+ * Allocation-free counterpart of SplitterCSV. It reports the same fields as offsets into the line and
+ * creates a string only when value() is called.
+ */
+public class FieldCursorCSV implements FieldCursor {
+
+    private static final char QUOTE = '"';
+
+    private CharSequence line;
+    private char separator;
+    private int position;
+    private boolean exhausted = true;
+    private int start;
+    private int end;
+    private boolean escaped;
+
+    @Override
+    public void reset(CharSequence line, char separator) {
+        if (line == null) {
+            throw new IllegalArgumentException("line cannot be null");
+        }
+        this.line = line;
+        this.separator = separator;
+        position = 0;
+        exhausted = false;
+    }
+
+    @Override
+    public boolean next() {
+        if (exhausted) {
+            return false;
+        }
+
+        int length = line.length();
+        int rawStart = position;
+        int toggles = 0;
+        boolean hasEscapedQuotes = false;
+        boolean inQuotes = false;
+        int i = rawStart;
+        for (; i < length; i++) {
+            char c = line.charAt(i);
+            if (c == QUOTE) {
+                if (inQuotes && i + 1 < length && line.charAt(i + 1) == QUOTE) {
+                    hasEscapedQuotes = true;
+                    i++;
+                } else {
+                    toggles++;
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == separator && !inQuotes) {
+                break;
+            }
+        }
+
+        if (i >= length) {
+            exhausted = true;
+        } else {
+            position = i + 1;
+        }
+        setField(rawStart, Math.min(i, length), toggles, hasEscapedQuotes);
+        return true;
+    }
+
+    @Override
+    public CharSequence line() {
+        return line;
+    }
+
+    @Override
+    public int start() {
+        return start;
+    }
+
+    @Override
+    public int end() {
+        return end;
+    }
+
+    @Override
+    public boolean isEscaped() {
+        return escaped;
+    }
+
+    @Override
+    public String value() {
+        if (!escaped) {
+            return line.subSequence(start, end).toString();
+        }
+
+        StringBuilder current = new StringBuilder(end - start);
+        boolean inQuotes = false;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c == QUOTE) {
+                if (inQuotes && i + 1 < end && line.charAt(i + 1) == QUOTE) {
+                    current.append(QUOTE);
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        return current.toString();
+    }
+
+    private void setField(int rawStart, int rawEnd, int toggles, boolean hasEscapedQuotes) {
+        if (toggles == 0 && !hasEscapedQuotes) {
+            start = rawStart;
+            end = rawEnd;
+            escaped = false;
+        } else if (toggles == 2 && !hasEscapedQuotes && rawEnd - rawStart >= 2 &&
+                line.charAt(rawStart) == QUOTE && line.charAt(rawEnd - 1) == QUOTE) {
+            start = rawStart + 1;
+            end = rawEnd - 1;
+            escaped = false;
+        } else {
+            start = rawStart;
+            end = rawEnd;
+            escaped = true;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package bg.sofia.uni.fmi.mjt.space.storage;
+
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A versioned binary image of a dataset. The file starts with a magic number and a format version,
+ * followed by the mission columns and the rockets, all big-endian:
+ * <pre>
+ *     int magic, int version
+ *     mission dictionaries, country code of every location, row count, numeric columns, ids and
+ *     payloads (see MissionColumns)
+ *     rocket count, ids, names, wiki flags and pages, heights (NaN when unknown)
+ * </pre>
+ * Strings are stored as tables of offsets followed by their UTF-8 bytes, so opening a snapshot maps
+ * the file without parsing any text or creating any per-mission objects, and the mission columns are
+ * served from the mapping. Snapshots are limited to 2 GB, the size of a single mapping.
+ */
+public final class DatasetSnapshot {
+
+    public static final int MAGIC = 0x4D4A5453;
+    public static final int VERSION = 2;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte NO_WIKI = 0;
+    private static final byte HAS_WIKI = 1;
+
+    private final MissionColumns missions;
+    private final List<Rocket> rockets;
+
+    private DatasetSnapshot(MissionColumns missions, List<Rocket> rockets) {
+        this.missions = missions;
+        this.rockets = rockets;
+    }
+
+    /**
+     * Writes the missions and rockets to a snapshot file, replacing it if it exists.
+     *
+     * @throws IllegalArgumentException if any argument is null
+     * @throws IOException              if the file cannot be written
+     */
+    public static void write(Path file, MissionColumns missions, List<Rocket> rockets) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file cannot be null");
+        }
+        if (missions == null) {
+            throw new IllegalArgumentException("missions cannot be null");
+        }
+        if (rockets == null) {
+            throw new IllegalArgumentException("rockets cannot be null");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            missions.writeTo(out);
+            writeRockets(out, rockets);
+        }
+    }
+
+    /**
+     * Memory-maps a snapshot file. The mapping outlives the file channel and is released with the
+     * snapshot once it is no longer reachable.
+     *
+     * @throws IllegalArgumentException if file is null
+     * @throws IOException              if the file cannot be read, is not a snapshot, has another
+     *                                  version or is corrupted
+     */
+    public static DatasetSnapshot open(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file cannot be null");
+        }
+
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + file + " is larger than 2 GB");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a dataset snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ", expected " + VERSION);
+            }
+
+            MissionColumns missions = MissionColumns.readFrom(buffer);
+            List<Rocket> rockets = readRockets(buffer);
+            return new DatasetSnapshot(missions, rockets);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                 | IllegalArgumentException e) {
+            throw new IOException("Snapshot " + file + " is corrupted", e);
+        }
+    }
+
+    public MissionColumns missions() {
+        return missions;
+    }
+
+    public List<Rocket> rockets() {
+        return rockets;
+    }
+
+    private static void writeRockets(DataOutputStream out, List<Rocket> rockets) throws IOException {
+        int count = rockets.size();
+        out.writeInt(count);
+        StringColumn.write(out, count, i -> rockets.get(i).id());
+        StringColumn.write(out, count, i -> rockets.get(i).name());
+
+        for (Rocket rocket : rockets) {
+            out.writeByte(rocket.wiki().isPresent() ? HAS_WIKI : NO_WIKI);
+        }
+        StringColumn.write(out, count, i -> rockets.get(i).wiki().orElse(""));
+
+        for (Rocket rocket : rockets) {
+            out.writeDouble(rocket.height().orElse(Double.NaN));
+        }
+    }
+
+    /**
+     * Rockets are a small dimension table joined by name, so they are materialized eagerly.
+     */
+    private static List<Rocket> readRockets(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        StringColumn ids = StringColumn.map(buffer);
+        StringColumn names = StringColumn.map(buffer);
+        byte[] wikiFlags = new byte[count];
+        buffer.get(wikiFlags);
+        StringColumn wikis = StringColumn.map(buffer);
+        if (ids.size() != count || names.size() != count || wikis.size() != count) {
+            throw new IllegalArgumentException("Rocket columns do not match the rocket count " + count);
+        }
+
+        List<Rocket> rockets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double height = buffer.getDouble();
+            rockets.add(new Rocket(ids.get(i), names.get(i),
+                    wikiFlags[i] == HAS_WIKI ? Optional.of(wikis.get(i)) : Optional.empty(),
+                    Double.isNaN(height) ? Optional.empty() : Optional.of(height)));
+        }
+        return rockets;
+    }
+}
@@ -0,0 +1,14 @@
+package bg.sofia.uni.fmi.mjt.space.storage;
+
+/**
+ * Memory accounting of a dictionary-encoded column. Sizes are estimates for a 64-bit JVM with compressed
+ * references and compact strings.
+ *
+ * @param distinctValues the number of values held by the dictionary
+ * @param references     the number of stored values encoded through the dictionary
+ * @param retainedBytes  the estimated size of the strings held by the dictionary
+ * @param savedBytes     the estimated size of the string copies that encoding avoided, that is the size
+ *                       of one copy per reference minus the retained strings
+ */
+public record DictionaryStats(int distinctValues, long references, long retainedBytes, long savedBytes) {
+}
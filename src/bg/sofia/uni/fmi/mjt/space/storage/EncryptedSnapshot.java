@@ -0,0 +1,714 @@
+package bg.sofia.uni.fmi.mjt.space.storage;
+
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * A dataset encrypted at rest in independent AES-GCM frames, big-endian:
+ * <pre>
+ *     header:  int magic, int version, 8 bytes file id, int rows per block
+ *     frames:  byte kind, 12 bytes nonce, int ciphertext length, ciphertext with a 16 byte tag
+ *              one MISSIONS frame per block of rows, then ROCKETS, then DIRECTORY
+ *     trailer: long offset of the DIRECTORY frame, int magic
+ * </pre>
+ * Blocks are cut from the rows in launch date order, whatever order they were loaded in, and every row
+ * carries its load position, so reads restore the load order. The directory lists the offset and the
+ * first and last launch day of every block; as the blocks cover consecutive date ranges, a date window
+ * is served by decrypting only the narrow range of blocks that overlap it. The directory is encrypted
+ * too and nothing but the size of the blocks is visible without the key.
+ * <p>
+ * The length of a frame is checked before anything is allocated for it: a MISSIONS frame may take at
+ * most MAX_ROW_LENGTH bytes per row of a block and no frame may run past the end of the file, while a
+ * stream is read as far as it actually goes. A forged length thus cannot exhaust memory before the
+ * frame fails authentication.
+ * <p>
+ * Every frame has a random nonce and authenticates the header, its kind and its position, so frames
+ * cannot be modified, reordered, moved between files or dropped without failing decryption. The frames
+ * are encrypted with a key derived from the given one, which keeps them apart from the ciphertexts the
+ * scanner produces with the key itself.
+ */
+public final class EncryptedSnapshot {
+
+    public static final int MAGIC = 0x4D4A5445;
+    public static final int VERSION = 2;
+    public static final int DEFAULT_ROWS_PER_BLOCK = 4096;
+    public static final int MAX_ROWS_PER_BLOCK = 1 << 16;
+    public static final int MAX_ROW_LENGTH = 1 << 10;
+
+    private static final String CIPHER_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String KEY_ALGORITHM = "AES";
+    private static final String KEY_DERIVATION_ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_DERIVATION_LABEL = "MJT encrypted snapshot".getBytes(StandardCharsets.UTF_8);
+    private static final int TAG_LENGTH = 16;
+    private static final int NONCE_LENGTH = 12;
+    private static final int FILE_ID_LENGTH = 8;
+    private static final int HEADER_LENGTH = 3 * Integer.BYTES + FILE_ID_LENGTH;
+    private static final int FRAME_HEADER_LENGTH = 1 + NONCE_LENGTH + Integer.BYTES;
+    private static final int TRAILER_LENGTH = Long.BYTES + Integer.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int ROW_BITS = 32;
+    private static final long ROW_MASK = 0xFFFFFFFFL;
+
+    private static final byte MISSIONS = 1;
+    private static final byte ROCKETS = 2;
+    private static final byte DIRECTORY = 3;
+
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final MissionColumns missions;
+    private final List<Rocket> rockets;
+    private final int decryptedBlocks;
+
+    private EncryptedSnapshot(MissionColumns missions, List<Rocket> rockets, int decryptedBlocks) {
+        this.missions = missions;
+        this.rockets = rockets;
+        this.decryptedBlocks = decryptedBlocks;
+    }
+
+    /**
+     * Writes the missions and rockets to an encrypted snapshot file in blocks of DEFAULT_ROWS_PER_BLOCK
+     * rows, replacing the file if it exists.
+     *
+     * @throws IllegalArgumentException if any argument is null
+     * @throws IOException              if the file cannot be written
+     * @throws CipherException          if the key cannot be used for encryption
+     */
+    public static void write(Path file, MissionColumns missions, List<Rocket> rockets, SecretKey secretKey)
+            throws IOException, CipherException {
+        write(file, missions, rockets, secretKey, DEFAULT_ROWS_PER_BLOCK);
+    }
+
+    /**
+     * Writes the missions and rockets to an encrypted snapshot file, replacing the file if it exists.
+     * The rows are sorted by launch date first; use the overload taking the date order when it is known.
+     *
+     * @param rowsPerBlock the number of missions encrypted together; smaller blocks make date windows
+     *                     cheaper to read and the whole file slightly larger
+     * @throws IllegalArgumentException if any argument is null or rowsPerBlock is not between 1 and
+     *                                  MAX_ROWS_PER_BLOCK
+     * @throws IOException              if the file cannot be written or a block takes more than
+     *                                  MAX_ROW_LENGTH bytes per row
+     * @throws CipherException          if the key cannot be used for encryption
+     */
+    public static void write(Path file, MissionColumns missions, List<Rocket> rockets, SecretKey secretKey,
+                             int rowsPerBlock) throws IOException, CipherException {
+        validate(missions, "missions");
+        write(file, missions, dateOrder(missions), rockets, secretKey, rowsPerBlock);
+    }
+
+    /**
+     * Writes the missions and rockets to an encrypted snapshot file, replacing the file if it exists.
+     *
+     * @param rowsInDateOrder every row id of missions once, ordered by launch date, as kept by a date
+     *                        index; blocks are cut in this order
+     * @param rowsPerBlock    the number of missions encrypted together; smaller blocks make date windows
+     *                        cheaper to read and the whole file slightly larger
+     * @throws IllegalArgumentException if any argument is null, rowsInDateOrder is not a permutation of
+     *                                  the rows ordered by launch date or rowsPerBlock is not between 1
+     *                                  and MAX_ROWS_PER_BLOCK
+     * @throws IOException              if the file cannot be written or a block takes more than
+     *                                  MAX_ROW_LENGTH bytes per row
+     * @throws CipherException          if the key cannot be used for encryption
+     */
+    public static void write(Path file, MissionColumns missions, int[] rowsInDateOrder, List<Rocket> rockets,
+                             SecretKey secretKey, int rowsPerBlock) throws IOException, CipherException {
+        validate(file, "file");
+        validate(missions, "missions");
+        validate(rowsInDateOrder, "rowsInDateOrder");
+        validate(rockets, "rockets");
+        validate(secretKey, "secretKey");
+        if (rowsPerBlock <= 0) {
+            throw new IllegalArgumentException("rowsPerBlock must be greater than zero");
+        }
+        if (rowsPerBlock > MAX_ROWS_PER_BLOCK) {
+            throw new IllegalArgumentException("rowsPerBlock must be at most " + MAX_ROWS_PER_BLOCK);
+        }
+        validateDateOrder(missions, rowsInDateOrder);
+
+        SecretKey frameKey = deriveFrameKey(secretKey);
+        byte[] header = newHeader(rowsPerBlock);
+        int blockCount = (missions.size() + rowsPerBlock - 1) / rowsPerBlock;
+
+        try (FrameWriter out = new FrameWriter(Files.newOutputStream(file), frameKey, header)) {
+            ByteArrayOutputStream directoryBytes = new ByteArrayOutputStream();
+            DataOutputStream directory = new DataOutputStream(directoryBytes);
+            directory.writeInt(blockCount);
+
+            for (int block = 0; block < blockCount; block++) {
+                int from = block * rowsPerBlock;
+                int to = Math.min(from + rowsPerBlock, missions.size());
+
+                directory.writeLong(out.offset());
+                directory.writeInt(missions.epochDay(rowsInDateOrder[from]));
+                directory.writeInt(missions.epochDay(rowsInDateOrder[to - 1]));
+                byte[] plaintext = encodeMissions(missions, rowsInDateOrder, from, to);
+                if (plaintext.length + TAG_LENGTH > maxBlockFrameLength(rowsPerBlock)) {
+                    throw new IOException("Block " + block + " takes " + plaintext.length
+                            + " bytes, more than " + MAX_ROW_LENGTH + " bytes per row");
+                }
+                out.writeFrame(MISSIONS, block, plaintext);
+            }
+
+            directory.writeLong(out.offset());
+            out.writeFrame(ROCKETS, 0, encodeRockets(rockets));
+
+            long directoryOffset = out.offset();
+            out.writeFrame(DIRECTORY, 0, directoryBytes.toByteArray());
+            out.writeTrailer(directoryOffset);
+        }
+    }
+
+    /**
+     * Decrypts a whole snapshot from a stream, one block at a time, without seeking and without keeping
+     * more than one block of plaintext. The stream is not closed.
+     *
+     * @throws IllegalArgumentException if any argument is null
+     * @throws IOException              if the stream cannot be read or is not a valid snapshot
+     * @throws CipherException          if a frame fails authentication, e.g. the key is wrong or the
+     *                                  snapshot was modified
+     */
+    public static EncryptedSnapshot read(InputStream inputStream, SecretKey secretKey)
+            throws IOException, CipherException {
+        validate(inputStream, "inputStream");
+        validate(secretKey, "secretKey");
+
+        SecretKey frameKey = deriveFrameKey(secretKey);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE));
+        byte[] header = new byte[HEADER_LENGTH];
+        in.readFully(header);
+        validateHeader(header);
+
+        DecodedRows decoded = new DecodedRows();
+        List<Rocket> rockets = null;
+        int blocks = 0;
+        while (true) {
+            int kind = in.read();
+            if (kind == -1) {
+                throw new EOFException("The snapshot ends before its directory");
+            }
+
+            if (kind == MISSIONS && rockets == null) {
+                byte[] plaintext = readFrame(in, frameKey, header, MISSIONS, blocks++);
+                decodeMissions(plaintext, Integer.MIN_VALUE, Integer.MAX_VALUE, decoded);
+            } else if (kind == ROCKETS && rockets == null) {
+                rockets = decodeRockets(readFrame(in, frameKey, header, ROCKETS, 0));
+            } else if (kind == DIRECTORY && rockets != null) {
+                Directory directory = Directory.decode(readFrame(in, frameKey, header, DIRECTORY, 0));
+                if (directory.blockCount() != blocks) {
+                    throw new IOException("The snapshot has " + blocks + " blocks, its directory lists "
+                            + directory.blockCount());
+                }
+                return new EncryptedSnapshot(decoded.inLoadOrder(), rockets, blocks);
+            } else {
+                throw new IOException("Unexpected frame of kind " + kind + " after " + blocks + " blocks");
+            }
+        }
+    }
+
+    /**
+     * Reads the missions launched in a date window and all rockets from a snapshot file. Only the blocks
+     * whose launch days overlap the window are decrypted, in parallel.
+     *
+     * @throws IllegalArgumentException   if any argument is null
+     * @throws TimeFrameMismatchException if to is before from
+     * @throws IOException                if the file cannot be read or is not a valid snapshot
+     * @throws CipherException            if a frame fails authentication, e.g. the key is wrong or the
+     *                                    snapshot was modified
+     */
+    public static EncryptedSnapshot read(Path file, SecretKey secretKey, LocalDate from, LocalDate to)
+            throws IOException, CipherException {
+        validate(file, "file");
+        validate(secretKey, "secretKey");
+        validate(from, "from");
+        validate(to, "to");
+        if (to.isBefore(from)) {
+            throw new TimeFrameMismatchException("to cannot be before from");
+        }
+
+        SecretKey frameKey = deriveFrameKey(secretKey);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            byte[] header = new byte[HEADER_LENGTH];
+            readFully(channel, ByteBuffer.wrap(header), 0);
+            validateHeader(header);
+
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_LENGTH);
+            readFully(channel, trailer, channel.size() - TRAILER_LENGTH);
+            long directoryOffset = trailer.flip().getLong();
+            if (trailer.getInt() != MAGIC) {
+                throw new IOException(file + " is not an encrypted snapshot");
+            }
+
+            Directory directory = Directory.decode(readFrame(channel, directoryOffset, frameKey, header, DIRECTORY, 0));
+            List<Rocket> rockets = decodeRockets(
+                    readFrame(channel, directory.rocketsOffset(), frameKey, header, ROCKETS, 0));
+
+            int fromDay = Math.toIntExact(from.toEpochDay());
+            int toDay = Math.toIntExact(to.toEpochDay());
+            int[] blocks = IntStream.range(0, directory.blockCount())
+                    .filter(block -> directory.minDays()[block] <= toDay && directory.maxDays()[block] >= fromDay)
+                    .toArray();
+            byte[][] plaintexts = decryptBlocks(channel, directory, blocks, frameKey, header);
+
+            DecodedRows decoded = new DecodedRows();
+            for (byte[] plaintext : plaintexts) {
+                decodeMissions(plaintext, fromDay, toDay, decoded);
+            }
+            return new EncryptedSnapshot(decoded.inLoadOrder(), rockets, blocks.length);
+        }
+    }
+
+    public MissionColumns missions() {
+        return missions;
+    }
+
+    public List<Rocket> rockets() {
+        return rockets;
+    }
+
+    /**
+     * Returns the number of mission blocks decrypted to read this snapshot.
+     */
+    int decryptedBlocks() {
+        return decryptedBlocks;
+    }
+
+    private static byte[][] decryptBlocks(FileChannel channel, Directory directory, int[] blocks,
+                                          SecretKey frameKey, byte[] header) throws IOException, CipherException {
+        try {
+            return Arrays.stream(blocks).parallel()
+                    .mapToObj(block -> {
+                        try {
+                            return readFrame(channel, directory.offsets()[block], frameKey, header, MISSIONS, block);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        } catch (CipherException e) {
+                            throw new UncheckedCipherException(e);
+                        }
+                    })
+                    .toArray(byte[][]::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (UncheckedCipherException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void validate(Object argument, String name) {
+        if (argument == null) {
+            throw new IllegalArgumentException(name + " cannot be null");
+        }
+    }
+
+    private static int[] dateOrder(MissionColumns missions) {
+        long[] keys = new long[missions.size()];
+        for (int row = 0; row < keys.length; row++) {
+            keys[row] = ((long) missions.epochDay(row) << ROW_BITS) | row;
+        }
+        Arrays.sort(keys);
+
+        int[] rows = new int[keys.length];
+        for (int position = 0; position < rows.length; position++) {
+            rows[position] = (int) (keys[position] & ROW_MASK);
+        }
+        return rows;
+    }
+
+    private static void validateDateOrder(MissionColumns missions, int[] rowsInDateOrder) {
+        if (rowsInDateOrder.length != missions.size()) {
+            throw new IllegalArgumentException("rowsInDateOrder must list every row once");
+        }
+
+        boolean[] seen = new boolean[rowsInDateOrder.length];
+        int previousDay = Integer.MIN_VALUE;
+        for (int row : rowsInDateOrder) {
+            if (row < 0 || row >= seen.length || seen[row]) {
+                throw new IllegalArgumentException("rowsInDateOrder must list every row once");
+            }
+            seen[row] = true;
+            if (missions.epochDay(row) < previousDay) {
+                throw new IllegalArgumentException("rowsInDateOrder must be ordered by launch date");
+            }
+            previousDay = missions.epochDay(row);
+        }
+    }
+
+    private static byte[] newHeader(int rowsPerBlock) {
+        byte[] fileId = new byte[FILE_ID_LENGTH];
+        RANDOM.nextBytes(fileId);
+        return ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).putInt(VERSION).put(fileId).putInt(rowsPerBlock)
+                .array();
+    }
+
+    private static void validateHeader(byte[] header) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("The input is not an encrypted snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported encrypted snapshot version " + version + ", expected " + VERSION);
+        }
+        int rowsPerBlock = rowsPerBlock(header);
+        if (rowsPerBlock <= 0 || rowsPerBlock > MAX_ROWS_PER_BLOCK) {
+            throw new IOException("Invalid number of rows per block " + rowsPerBlock);
+        }
+    }
+
+    private static int rowsPerBlock(byte[] header) {
+        return ByteBuffer.wrap(header, HEADER_LENGTH - Integer.BYTES, Integer.BYTES).getInt();
+    }
+
+    /**
+     * Returns the largest ciphertext a MISSIONS frame of a block of rowsPerBlock rows may have: its row
+     * count, MAX_ROW_LENGTH bytes per row and the tag.
+     */
+    private static int maxBlockFrameLength(int rowsPerBlock) {
+        return Integer.BYTES + rowsPerBlock * MAX_ROW_LENGTH + TAG_LENGTH;
+    }
+
+    /**
+     * Returns the largest ciphertext a frame of a kind may have in a snapshot with this header.
+     */
+    private static int maxFrameLength(byte[] header, byte kind) {
+        return kind == MISSIONS ? maxBlockFrameLength(rowsPerBlock(header)) : Integer.MAX_VALUE;
+    }
+
+    private static SecretKey deriveFrameKey(SecretKey secretKey) throws CipherException {
+        byte[] keyBytes = secretKey.getEncoded();
+        if (keyBytes == null) {
+            throw new CipherException("The key cannot be exported to derive the snapshot key");
+        }
+
+        try {
+            Mac mac = Mac.getInstance(KEY_DERIVATION_ALGORITHM);
+            mac.init(new SecretKeySpec(keyBytes, KEY_DERIVATION_ALGORITHM));
+            byte[] derived = mac.doFinal(KEY_DERIVATION_LABEL);
+            return new SecretKeySpec(derived, 0, Math.min(keyBytes.length, derived.length), KEY_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("Deriving the snapshot key failed", e);
+        }
+    }
+
+    private static Cipher frameCipher(int mode, SecretKey frameKey, byte[] nonce, byte[] header, byte kind,
+                                      int index) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+        cipher.init(mode, frameKey, new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, nonce));
+        cipher.updateAAD(header);
+        cipher.updateAAD(ByteBuffer.allocate(1 + Integer.BYTES).put(kind).putInt(index).array());
+        return cipher;
+    }
+
+    private static byte[] decryptFrame(SecretKey frameKey, byte[] header, byte kind, int index, byte[] nonce,
+                                       byte[] ciphertext) throws CipherException {
+        try {
+            return frameCipher(Cipher.DECRYPT_MODE, frameKey, nonce, header, kind, index).doFinal(ciphertext);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("Decryption of frame " + index + " of kind " + kind + " failed", e);
+        }
+    }
+
+    /**
+     * Reads the rest of a frame whose kind byte has already been read. The ciphertext is read in pieces,
+     * so no more memory is taken than the stream actually supplies.
+     */
+    private static byte[] readFrame(DataInputStream in, SecretKey frameKey, byte[] header, byte kind, int index)
+            throws IOException, CipherException {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        in.readFully(nonce);
+        int length = validLength(in.readInt(), maxFrameLength(header, kind));
+        byte[] ciphertext = in.readNBytes(length);
+        if (ciphertext.length < length) {
+            throw new EOFException("The snapshot ends inside frame " + index + " of kind " + kind);
+        }
+        return decryptFrame(frameKey, header, kind, index, nonce, ciphertext);
+    }
+
+    private static byte[] readFrame(FileChannel channel, long offset, SecretKey frameKey, byte[] header, byte kind,
+                                    int index) throws IOException, CipherException {
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_LENGTH);
+        readFully(channel, frameHeader, offset);
+        frameHeader.flip();
+        if (frameHeader.get() != kind) {
+            throw new IOException("Expected a frame of kind " + kind + " at offset " + offset);
+        }
+        byte[] nonce = new byte[NONCE_LENGTH];
+        frameHeader.get(nonce);
+        long remaining = channel.size() - offset - FRAME_HEADER_LENGTH;
+        int maxLength = (int) Math.min(maxFrameLength(header, kind), remaining);
+        byte[] ciphertext = new byte[validLength(frameHeader.getInt(), maxLength)];
+        readFully(channel, ByteBuffer.wrap(ciphertext), offset + FRAME_HEADER_LENGTH);
+        return decryptFrame(frameKey, header, kind, index, nonce, ciphertext);
+    }
+
+    private static int validLength(int length, int maxLength) throws IOException {
+        if (length < TAG_LENGTH || length > maxLength) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        return length;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        if (position < 0) {
+            throw new IOException("Invalid offset " + position);
+        }
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read == -1) {
+                throw new EOFException("The snapshot ends at offset " + position);
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Encodes the rows at positions from inclusive to to exclusive of rowsInDateOrder, each with its row id.
+     */
+    private static byte[] encodeMissions(MissionColumns missions, int[] rowsInDateOrder, int from, int to)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(to - from);
+        for (int position = from; position < to; position++) {
+            int row = rowsInDateOrder[position];
+            Mission mission = missions.mission(row);
+            out.writeInt(row);
+            out.writeUTF(mission.id());
+            out.writeUTF(mission.company());
+            out.writeUTF(mission.location());
+            out.writeInt(missions.epochDay(row));
+            out.writeUTF(mission.detail().rocketName());
+            out.writeUTF(mission.detail().payload());
+            out.writeByte(mission.rocketStatus().ordinal());
+            out.writeDouble(missions.cost(row));
+            out.writeByte(mission.missionStatus().ordinal());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Adds the missions of a block launched between fromDay and toDay inclusive.
+     */
+    private static void decodeMissions(byte[] plaintext, int fromDay, int toDay, DecodedRows decoded)
+            throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(plaintext));
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int row = in.readInt();
+            String id = in.readUTF();
+            String company = in.readUTF();
+            String location = in.readUTF();
+            int epochDay = in.readInt();
+            Detail detail = new Detail(in.readUTF(), in.readUTF());
+            RocketStatus rocketStatus = ROCKET_STATUSES[ordinal(in.readUnsignedByte(), ROCKET_STATUSES.length)];
+            double cost = in.readDouble();
+            MissionStatus missionStatus = MISSION_STATUSES[ordinal(in.readUnsignedByte(), MISSION_STATUSES.length)];
+
+            if (row < 0) {
+                throw new IOException("Invalid row id " + row);
+            }
+            if (epochDay >= fromDay && epochDay <= toDay) {
+                decoded.add(row, new Mission(id, company, location, LocalDate.ofEpochDay(epochDay), detail, rocketStatus,
+                        Double.isNaN(cost) ? Optional.empty() : Optional.of(cost), missionStatus));
+            }
+        }
+    }
+
+    private static int ordinal(int ordinal, int bound) throws IOException {
+        if (ordinal >= bound) {
+            throw new IOException("Invalid status ordinal " + ordinal);
+        }
+        return ordinal;
+    }
+
+    private static byte[] encodeRockets(List<Rocket> rockets) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(rockets.size());
+        for (Rocket rocket : rockets) {
+            out.writeUTF(rocket.id());
+            out.writeUTF(rocket.name());
+            out.writeBoolean(rocket.wiki().isPresent());
+            out.writeUTF(rocket.wiki().orElse(""));
+            out.writeDouble(rocket.height().orElse(Double.NaN));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Rocket> decodeRockets(byte[] plaintext) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(plaintext));
+        int count = in.readInt();
+        List<Rocket> rockets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String id = in.readUTF();
+            String name = in.readUTF();
+            boolean hasWiki = in.readBoolean();
+            String wiki = in.readUTF();
+            double height = in.readDouble();
+            rockets.add(new Rocket(id, name, hasWiki ? Optional.of(wiki) : Optional.empty(),
+                    Double.isNaN(height) ? Optional.empty() : Optional.of(height)));
+        }
+        return rockets;
+    }
+
+    private record Directory(int blockCount, long[] offsets, int[] minDays, int[] maxDays, long rocketsOffset) {
+
+        private static Directory decode(byte[] plaintext) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(plaintext));
+            int blockCount = in.readInt();
+            if (blockCount < 0 || blockCount > plaintext.length) {
+                throw new IOException("Invalid block count " + blockCount);
+            }
+
+            long[] offsets = new long[blockCount];
+            int[] minDays = new int[blockCount];
+            int[] maxDays = new int[blockCount];
+            for (int block = 0; block < blockCount; block++) {
+                offsets[block] = in.readLong();
+                minDays[block] = in.readInt();
+                maxDays[block] = in.readInt();
+            }
+            return new Directory(blockCount, offsets, minDays, maxDays, in.readLong());
+        }
+    }
+
+    /**
+     * Carries a CipherException out of a parallel stream. Its only constructor takes the CipherException,
+     * so a fork-join pool that rethrows it from another thread cannot re-create it around a different cause.
+     */
+    private static final class UncheckedCipherException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private UncheckedCipherException(CipherException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized CipherException getCause() {
+            return (CipherException) super.getCause();
+        }
+    }
+
+    /**
+     * Missions decoded in date order together with their row ids, put back in load order at the end.
+     */
+    private static final class DecodedRows {
+        private final MissionColumns missions = new MissionColumns();
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private boolean inLoadOrder = true;
+
+        private void add(int row, Mission mission) {
+            int index = missions.size();
+            if (index == keys.length) {
+                keys = Arrays.copyOf(keys, index + (index >> 1));
+            }
+            if (index > 0 && row < (int) (keys[index - 1] >>> ROW_BITS)) {
+                inLoadOrder = false;
+            }
+            keys[index] = ((long) row << ROW_BITS) | index;
+            missions.add(mission);
+        }
+
+        private MissionColumns inLoadOrder() {
+            if (inLoadOrder) {
+                return missions;
+            }
+
+            long[] sorted = Arrays.copyOf(keys, missions.size());
+            Arrays.sort(sorted);
+            MissionColumns ordered = new MissionColumns();
+            for (long key : sorted) {
+                ordered.add(missions.mission((int) (key & ROW_MASK)));
+            }
+            return ordered;
+        }
+    }
+
+    /**
+     * Writes frames and keeps track of the offset of the next one.
+     */
+    private static final class FrameWriter implements AutoCloseable {
+        private final DataOutputStream out;
+        private final SecretKey frameKey;
+        private final byte[] header;
+        private long offset;
+
+        private FrameWriter(OutputStream outputStream, SecretKey frameKey, byte[] header) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE));
+            this.frameKey = frameKey;
+            this.header = header;
+            out.write(header);
+            offset = header.length;
+        }
+
+        private long offset() {
+            return offset;
+        }
+
+        private void writeFrame(byte kind, int index, byte[] plaintext) throws IOException, CipherException {
+            byte[] nonce = new byte[NONCE_LENGTH];
+            RANDOM.nextBytes(nonce);
+
+            byte[] ciphertext;
+            try {
+                ciphertext = frameCipher(Cipher.ENCRYPT_MODE, frameKey, nonce, header, kind, index).doFinal(plaintext);
+            } catch (GeneralSecurityException e) {
+                throw new CipherException("Encryption of frame " + index + " of kind " + kind + " failed", e);
+            }
+
+            out.writeByte(kind);
+            out.write(nonce);
+            out.writeInt(ciphertext.length);
+            out.write(ciphertext);
+            offset += FRAME_HEADER_LENGTH + ciphertext.length;
+        }
+
+        private void writeTrailer(long directoryOffset) throws IOException {
+            out.writeLong(directoryOffset);
+            out.writeInt(MAGIC);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package bg.sofia.uni.fmi.mjt.space.storage;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Struct-of-arrays storage for missions. Every mission is a row id and every attribute lives in its
+ * own primitive column: dates as epoch days, costs as doubles with a NaN sentinel for a missing cost,
+ * statuses as ordinals and the repeating strings as dictionary codes. The country of a mission is
+ * derived once per distinct location and stored as a country code of that location. Columns read from
+ * a snapshot are views of the mapped file: queries read the primitive columns straight from it, and the
+ * unique strings stay in it until a row is materialized. The first append copies the primitive columns
+ * to the heap.
+ */
+public class MissionColumns {
+
+    public static final double NO_COST = Double.NaN;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int BYTES_PER_ROW = 4 * Integer.BYTES + Double.BYTES + 2 * Byte.BYTES;
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+
+    private final StringDictionary companies;
+    private final StringDictionary locations;
+    private final StringDictionary rocketNames;
+    private final StringDictionary countries;
+    private int[] countryOfLocation;
+
+    private final StringColumn ids;
+    private final StringColumn payloads;
+    private IntBuffer companyCodes;
+    private IntBuffer locationCodes;
+    private IntBuffer rocketCodes;
+    private IntBuffer epochDays;
+    private DoubleBuffer costs;
+    private ByteBuffer rocketStatuses;
+    private ByteBuffer missionStatuses;
+    private int size;
+
+    public MissionColumns() {
+        companies = new StringDictionary();
+        locations = new StringDictionary();
+        rocketNames = new StringDictionary();
+        countries = new StringDictionary();
+        countryOfLocation = new int[INITIAL_CAPACITY];
+        ids = new StringColumn();
+        payloads = new StringColumn();
+        companyCodes = IntBuffer.allocate(INITIAL_CAPACITY);
+        locationCodes = IntBuffer.allocate(INITIAL_CAPACITY);
+        rocketCodes = IntBuffer.allocate(INITIAL_CAPACITY);
+        epochDays = IntBuffer.allocate(INITIAL_CAPACITY);
+        costs = DoubleBuffer.allocate(INITIAL_CAPACITY);
+        rocketStatuses = ByteBuffer.allocate(INITIAL_CAPACITY);
+        missionStatuses = ByteBuffer.allocate(INITIAL_CAPACITY);
+    }
+
+    private MissionColumns(ByteBuffer buffer) {
+        companies = readDictionary(buffer);
+        locations = readDictionary(buffer);
+        rocketNames = readDictionary(buffer);
+        countries = readDictionary(buffer);
+        countryOfLocation = new int[locations.size()];
+        mapInts(buffer, locations.size(), countries.size()).get(0, countryOfLocation);
+
+        size = buffer.getInt();
+        if (size < 0 || (long) size * BYTES_PER_ROW > buffer.remaining()) {
+            throw new IllegalArgumentException("Row count " + size + " does not fit the buffer");
+        }
+        companyCodes = mapInts(buffer, size, companies.size());
+        locationCodes = mapInts(buffer, size, locations.size());
+        rocketCodes = mapInts(buffer, size, rocketNames.size());
+        epochDays = mapInts(buffer, size, Integer.MAX_VALUE);
+        costs = buffer.slice(buffer.position(), size * Double.BYTES).asDoubleBuffer();
+        buffer.position(buffer.position() + size * Double.BYTES);
+        rocketStatuses = mapOrdinals(buffer, size, ROCKET_STATUSES.length);
+        missionStatuses = mapOrdinals(buffer, size, MISSION_STATUSES.length);
+
+        ids = StringColumn.map(buffer);
+        payloads = StringColumn.map(buffer);
+        if (ids.size() != size || payloads.size() != size) {
+            throw new IllegalArgumentException("String columns do not match the row count " + size);
+        }
+    }
+
+    /**
+     * Appends a mission as the next row.
+     *
+     * @param mission the mission to be stored
+     * @return the row id of the mission
+     * @throws IllegalArgumentException if mission is null
+     */
+    public int add(Mission mission) {
+        if (mission == null) {
+            throw new IllegalArgumentException("mission cannot be null");
+        }
+        ensureCapacity(size + 1);
+
+        int row = size;
+        ids.add(mission.id());
+        payloads.add(mission.detail().payload());
+        companyCodes.put(row, companies.encode(mission.company()));
+        locationCodes.put(row, encodeLocation(mission.location()));
+        rocketCodes.put(row, rocketNames.encode(mission.detail().rocketName()));
+        epochDays.put(row, Math.toIntExact(mission.date().toEpochDay()));
+        costs.put(row, mission.cost().orElse(NO_COST));
+        rocketStatuses.put(row, (byte) mission.rocketStatus().ordinal());
+        missionStatuses.put(row, (byte) mission.missionStatus().ordinal());
+        size++;
+
+        return row;
+    }
+
+    /**
+     * Materializes the mission stored at a row.
+     */
+    public Mission mission(int row) {
+        double cost = costs.get(row);
+        return new Mission(ids.get(row),
+                companies.decode(companyCodes.get(row)),
+                locations.decode(locationCodes.get(row)),
+                LocalDate.ofEpochDay(epochDays.get(row)),
+                new Detail(rocketNames.decode(rocketCodes.get(row)), payloads.get(row)),
+                ROCKET_STATUSES[rocketStatuses.get(row)],
+                Double.isNaN(cost) ? Optional.empty() : Optional.of(cost),
+                MISSION_STATUSES[missionStatuses.get(row)]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String id(int row) {
+        return ids.get(row);
+    }
+
+    public String payload(int row) {
+        return payloads.get(row);
+    }
+
+    public int epochDay(int row) {
+        return epochDays.get(row);
+    }
+
+    /**
+     * Returns the cost of the mission at a row or NO_COST if it is unknown.
+     */
+    public double cost(int row) {
+        return costs.get(row);
+    }
+
+    public int companyCode(int row) {
+        return companyCodes.get(row);
+    }
+
+    public int locationCode(int row) {
+        return locationCodes.get(row);
+    }
+
+    public int rocketCode(int row) {
+        return rocketCodes.get(row);
+    }
+
+    public int countryCode(int row) {
+        return countryOfLocation[locationCodes.get(row)];
+    }
+
+    public MissionStatus missionStatus(int row) {
+        return MISSION_STATUSES[missionStatuses.get(row)];
+    }
+
+    public RocketStatus rocketStatus(int row) {
+        return ROCKET_STATUSES[rocketStatuses.get(row)];
+    }
+
+    public boolean hasMissionStatus(int row, MissionStatus missionStatus) {
+        return missionStatuses.get(row) == missionStatus.ordinal();
+    }
+
+    public boolean hasRocketStatus(int row, RocketStatus rocketStatus) {
+        return rocketStatuses.get(row) == rocketStatus.ordinal();
+    }
+
+    public StringDictionary companies() {
+        return companies;
+    }
+
+    public StringDictionary locations() {
+        return locations;
+    }
+
+    public StringDictionary rocketNames() {
+        return rocketNames;
+    }
+
+    public StringDictionary countries() {
+        return countries;
+    }
+
+    /**
+     * Returns the memory accounting of the company, location, country and rocket name columns, keyed
+     * by column name. Every row counts as one reference of each column.
+     */
+    public Map<String, DictionaryStats> dictionaryStats() {
+        int[] companyReferences = new int[companies.size()];
+        int[] locationReferences = new int[locations.size()];
+        int[] countryReferences = new int[countries.size()];
+        int[] rocketNameReferences = new int[rocketNames.size()];
+        for (int row = 0; row < size; row++) {
+            companyReferences[companyCodes.get(row)]++;
+            locationReferences[locationCodes.get(row)]++;
+            countryReferences[countryCode(row)]++;
+            rocketNameReferences[rocketCodes.get(row)]++;
+        }
+
+        Map<String, DictionaryStats> stats = new LinkedHashMap<>();
+        stats.put("company", companies.stats(companyReferences));
+        stats.put("location", locations.stats(locationReferences));
+        stats.put("country", countries.stats(countryReferences));
+        stats.put("rocketName", rocketNames.stats(rocketNameReferences));
+        return stats;
+    }
+
+    private int encodeLocation(String location) {
+        int newCode = locations.size();
+        int code = locations.encode(location);
+        if (code == newCode) {
+            if (code == countryOfLocation.length) {
+                countryOfLocation = Arrays.copyOf(countryOfLocation, Math.max(code + 1, code << 1));
+            }
+            countryOfLocation[code] = countries.encode(Mission.countryOf(location));
+        }
+        return code;
+    }
+
+    /**
+     * Writes the dictionaries and all columns in the layout read by readFrom.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        writeDictionary(out, companies);
+        writeDictionary(out, locations);
+        writeDictionary(out, rocketNames);
+        writeDictionary(out, countries);
+        for (int location = 0; location < locations.size(); location++) {
+            out.writeInt(countryOfLocation[location]);
+        }
+
+        out.writeInt(size);
+        writeInts(out, companyCodes);
+        writeInts(out, locationCodes);
+        writeInts(out, rocketCodes);
+        writeInts(out, epochDays);
+        for (int row = 0; row < size; row++) {
+            out.writeDouble(costs.get(row));
+        }
+        for (int row = 0; row < size; row++) {
+            out.writeByte(rocketStatuses.get(row));
+        }
+        for (int row = 0; row < size; row++) {
+            out.writeByte(missionStatuses.get(row));
+        }
+
+        StringColumn.write(out, size, ids::get);
+        StringColumn.write(out, size, payloads::get);
+    }
+
+    /**
+     * Reads columns written by writeTo, starting at the position of the buffer. The dictionaries are
+     * decoded; the primitive columns, ids and payloads stay in the buffer. Every code and ordinal is
+     * checked once here, so a corrupted buffer fails now rather than in a later query.
+     *
+     * @throws IllegalArgumentException if the columns are inconsistent
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the columns do
+     */
+    static MissionColumns readFrom(ByteBuffer buffer) {
+        return new MissionColumns(buffer);
+    }
+
+    private void writeInts(DataOutput out, IntBuffer column) throws IOException {
+        for (int row = 0; row < size; row++) {
+            out.writeInt(column.get(row));
+        }
+    }
+
+    private static void writeDictionary(DataOutput out, StringDictionary dictionary) throws IOException {
+        StringColumn.write(out, dictionary.size(), dictionary::decode);
+    }
+
+    private static StringDictionary readDictionary(ByteBuffer buffer) {
+        StringColumn values = StringColumn.map(buffer);
+        StringDictionary dictionary = new StringDictionary();
+        for (int code = 0; code < values.size(); code++) {
+            if (dictionary.encode(values.get(code)) != code) {
+                throw new IllegalArgumentException("Duplicate dictionary value " + values.get(code));
+            }
+        }
+        return dictionary;
+    }
+
+    private static IntBuffer mapInts(ByteBuffer buffer, int count, int bound) {
+        IntBuffer column = buffer.slice(buffer.position(), count * Integer.BYTES).asIntBuffer();
+        buffer.position(buffer.position() + count * Integer.BYTES);
+
+        if (bound != Integer.MAX_VALUE) {
+            for (int i = 0; i < count; i++) {
+                int value = column.get(i);
+                if (value < 0 || value >= bound) {
+                    throw new IllegalArgumentException("Code " + value + " is out of range");
+                }
+            }
+        }
+        return column;
+    }
+
+    private static ByteBuffer mapOrdinals(ByteBuffer buffer, int count, int bound) {
+        ByteBuffer column = buffer.slice(buffer.position(), count);
+        buffer.position(buffer.position() + count);
+
+        for (int i = 0; i < count; i++) {
+            byte value = column.get(i);
+            if (value < 0 || value >= bound) {
+                throw new IllegalArgumentException("Ordinal " + value + " is out of range");
+            }
+        }
+        return column;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= companyCodes.capacity()) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, companyCodes.capacity() + (companyCodes.capacity() >> 1));
+        companyCodes = grow(companyCodes, newCapacity);
+        locationCodes = grow(locationCodes, newCapacity);
+        rocketCodes = grow(rocketCodes, newCapacity);
+        epochDays = grow(epochDays, newCapacity);
+        costs = grow(costs, newCapacity);
+        rocketStatuses = grow(rocketStatuses, newCapacity);
+        missionStatuses = grow(missionStatuses, newCapacity);
+    }
+
+    /**
+     * Copies the rows of a column into a larger heap buffer; a mapped column is read-only and has no
+     * room to append to.
+     */
+    private IntBuffer grow(IntBuffer column, int capacity) {
+        int[] grown = new int[capacity];
+        column.get(0, grown, 0, size);
+        return IntBuffer.wrap(grown);
+    }
+
+    private DoubleBuffer grow(DoubleBuffer column, int capacity) {
+        double[] grown = new double[capacity];
+        column.get(0, grown, 0, size);
+        return DoubleBuffer.wrap(grown);
+    }
+
+    private ByteBuffer grow(ByteBuffer column, int capacity) {
+        byte[] grown = new byte[capacity];
+        column.get(0, grown, 0, size);
+        return ByteBuffer.wrap(grown);
+    }
+}
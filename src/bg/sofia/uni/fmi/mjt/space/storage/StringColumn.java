@@ -0,0 +1,112 @@
+package bg.sofia.uni.fmi.mjt.space.storage;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * A column of strings. The rows read from a snapshot stay in the mapped file as UTF-8 bytes and are
+ * decoded only when they are accessed; the rows appended afterwards are kept in memory.
+ */
+final class StringColumn {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ByteBuffer mappedBytes;
+    private final IntBuffer mappedOffsets;
+    private final int mappedSize;
+
+    private String[] appended = new String[INITIAL_CAPACITY];
+    private int appendedSize;
+
+    StringColumn() {
+        this(null, null, 0);
+    }
+
+    private StringColumn(ByteBuffer mappedBytes, IntBuffer mappedOffsets, int mappedSize) {
+        this.mappedBytes = mappedBytes;
+        this.mappedOffsets = mappedOffsets;
+        this.mappedSize = mappedSize;
+    }
+
+    void add(String value) {
+        if (appendedSize == appended.length) {
+            appended = Arrays.copyOf(appended, appended.length + (appended.length >> 1));
+        }
+        appended[appendedSize++] = value;
+    }
+
+    String get(int row) {
+        if (row >= mappedSize) {
+            return appended[row - mappedSize];
+        }
+
+        int start = mappedOffsets.get(row);
+        byte[] bytes = new byte[mappedOffsets.get(row + 1) - start];
+        mappedBytes.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return mappedSize + appendedSize;
+    }
+
+    /**
+     * Writes count strings as a table: the count, count + 1 byte offsets and the UTF-8 bytes of all
+     * strings back to back.
+     */
+    static void write(DataOutput out, int count, IntFunction<String> values) throws IOException {
+        byte[][] encoded = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            encoded[i] = values.apply(i).getBytes(StandardCharsets.UTF_8);
+        }
+
+        out.writeInt(count);
+        int offset = 0;
+        out.writeInt(offset);
+        for (byte[] bytes : encoded) {
+            offset += bytes.length;
+            out.writeInt(offset);
+        }
+        for (byte[] bytes : encoded) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Maps a table written by write, starting at the position of the buffer, and moves the position past it.
+     * The whole offset table is checked, so that a corrupted table fails here instead of in a later get.
+     *
+     * @throws IllegalArgumentException if the table does not fit the buffer or its offsets decrease
+     */
+    static StringColumn map(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count >= buffer.remaining() / Integer.BYTES) {
+            throw new IllegalArgumentException("String count " + count + " does not fit the buffer");
+        }
+
+        IntBuffer offsets = buffer.slice(buffer.position(), (count + 1) * Integer.BYTES).asIntBuffer();
+        buffer.position(buffer.position() + (count + 1) * Integer.BYTES);
+
+        int previous = 0;
+        for (int i = 0; i <= count; i++) {
+            int offset = offsets.get(i);
+            if (offset < previous || (i == 0 && offset != 0)) {
+                throw new IllegalArgumentException("String offset " + offset + " at " + i + " is out of order");
+            }
+            previous = offset;
+        }
+        int length = offsets.get(count);
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("String bytes of length " + length + " do not fit the buffer");
+        }
+        ByteBuffer bytes = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+
+        return new StringColumn(bytes, offsets, count);
+    }
+}
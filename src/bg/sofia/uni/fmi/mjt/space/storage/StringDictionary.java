@@ -0,0 +1,104 @@
+package bg.sofia.uni.fmi.mjt.space.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense integer codes to strings in the order they are first seen and keeps one canonical
+ * instance of every value, so equal strings encoded through the same dictionary share their memory.
+ */
+public class StringDictionary {
+
+    public static final int NO_CODE = -1;
+
+    private static final int STRING_HEADER_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int ALIGNMENT = 8;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Returns the dense code of the value, assigning the next free code if the value is new.
+     *
+     * @param value the value to be encoded
+     * @return the code of the value
+     * @throws IllegalArgumentException if value is null
+     */
+    public int encode(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null");
+        }
+
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+
+        int newCode = values.size();
+        codes.put(value, newCode);
+        values.add(value);
+        return newCode;
+    }
+
+    /**
+     * Returns the code of the value or NO_CODE if the value has never been encoded.
+     */
+    public int codeOf(String value) {
+        Integer code = codes.get(value);
+        return code == null ? NO_CODE : code;
+    }
+
+    /**
+     * Returns the value behind a code.
+     *
+     * @throws IndexOutOfBoundsException if the code has not been assigned
+     */
+    public String decode(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * Returns the canonical instance of a value, encoding it if it is new.
+     *
+     * @throws IllegalArgumentException if value is null
+     */
+    public String intern(String value) {
+        return decode(encode(value));
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Returns the memory accounting of a column encoded through this dictionary.
+     *
+     * @param referencesPerCode how many stored values refer to each code
+     * @throws IllegalArgumentException if referencesPerCode is null or does not have one entry per code
+     */
+    public DictionaryStats stats(int[] referencesPerCode) {
+        if (referencesPerCode == null || referencesPerCode.length != values.size()) {
+            throw new IllegalArgumentException("referencesPerCode must have one entry per code");
+        }
+
+        long references = 0;
+        long retainedBytes = 0;
+        long referencedBytes = 0;
+        for (int code = 0; code < values.size(); code++) {
+            long bytes = estimatedSize(values.get(code));
+            references += referencesPerCode[code];
+            retainedBytes += bytes;
+            referencedBytes += bytes * referencesPerCode[code];
+        }
+        return new DictionaryStats(values.size(), references, retainedBytes, referencedBytes - retainedBytes);
+    }
+
+    private static long estimatedSize(String value) {
+        boolean latin1 = value.chars().allMatch(c -> c <= 0xFF);
+        long arrayBytes = ARRAY_HEADER_BYTES + (long) value.length() * (latin1 ? 1 : 2);
+        return STRING_HEADER_BYTES + (arrayBytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
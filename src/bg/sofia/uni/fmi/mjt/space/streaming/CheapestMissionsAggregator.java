@@ -0,0 +1,65 @@
+package bg.sofia.uni.fmi.mjt.space.streaming;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The n cheapest matching missions in a bounded max-heap. Missing costs sort last and equal costs keep
+ * file order, like the TopKSelector used by MJTSpaceScanner.
+ */
+class CheapestMissionsAggregator implements MissionAggregator<List<Mission>> {
+
+    private static final Comparator<Candidate> CHEAPEST_FIRST = Comparator
+            .comparingDouble(Candidate::cost)
+            .thenComparingLong(Candidate::position);
+
+    private final int n;
+    private final MissionStatus missionStatus;
+    private final RocketStatus rocketStatus;
+    private final PriorityQueue<Candidate> mostExpensiveFirst;
+    private long position;
+
+    CheapestMissionsAggregator(int n, MissionStatus missionStatus, RocketStatus rocketStatus) {
+        this.n = n;
+        this.missionStatus = missionStatus;
+        this.rocketStatus = rocketStatus;
+        this.mostExpensiveFirst = new PriorityQueue<>(CHEAPEST_FIRST.reversed());
+    }
+
+    @Override
+    public void accept(Mission mission) {
+        long missionPosition = position++;
+        if (mission.missionStatus() != missionStatus || mission.rocketStatus() != rocketStatus) {
+            return;
+        }
+
+        Candidate candidate = new Candidate(mission.cost().orElse(Double.NaN), missionPosition, mission);
+        if (mostExpensiveFirst.size() < n) {
+            mostExpensiveFirst.add(candidate);
+        } else if (CHEAPEST_FIRST.compare(candidate, mostExpensiveFirst.peek()) < 0) {
+            mostExpensiveFirst.poll();
+            mostExpensiveFirst.add(candidate);
+        }
+    }
+
+    @Override
+    public List<Mission> result() {
+        List<Candidate> candidates = new ArrayList<>(mostExpensiveFirst);
+        candidates.sort(CHEAPEST_FIRST);
+
+        List<Mission> result = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            result.add(candidate.mission());
+        }
+        return result;
+    }
+
+    private record Candidate(double cost, long position, Mission mission) {
+    }
+}
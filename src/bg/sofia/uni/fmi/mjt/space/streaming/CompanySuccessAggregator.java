@@ -0,0 +1,53 @@
+package bg.sofia.uni.fmi.mjt.space.streaming;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.storage.StringDictionary;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Successful missions per company code. Companies are coded in the order they first appear, so ties go
+ * to the company seen first, as in MJTSpaceScanner.
+ */
+class CompanySuccessAggregator implements MissionAggregator<String> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final StringDictionary companies = new StringDictionary();
+    private int[] successes = new int[INITIAL_CAPACITY];
+
+    CompanySuccessAggregator(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public void accept(Mission mission) {
+        int company = companies.encode(mission.company());
+        if (company == successes.length) {
+            successes = Arrays.copyOf(successes, successes.length << 1);
+        }
+
+        if (mission.missionStatus() == MissionStatus.SUCCESS &&
+                !mission.date().isBefore(from) && !mission.date().isAfter(to)) {
+            successes[company]++;
+        }
+    }
+
+    @Override
+    public String result() {
+        int bestCompany = StringDictionary.NO_CODE;
+        int bestSuccesses = 0;
+        for (int company = 0; company < companies.size(); company++) {
+            if (successes[company] > bestSuccesses) {
+                bestCompany = company;
+                bestSuccesses = successes[company];
+            }
+        }
+        return bestCompany == StringDictionary.NO_CODE ? "" : companies.decode(bestCompany);
+    }
+}
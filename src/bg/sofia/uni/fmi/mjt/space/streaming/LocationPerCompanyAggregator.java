@@ -0,0 +1,66 @@
+package bg.sofia.uni.fmi.mjt.space.streaming;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.storage.StringDictionary;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Counts of the matching missions per company and location code. Locations are coded in the order they
+ * first appear among all missions, so ties go to the location seen first, as in MJTSpaceScanner.
+ */
+class LocationPerCompanyAggregator implements MissionAggregator<Map<String, String>> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Predicate<Mission> counted;
+    private final StringDictionary companies = new StringDictionary();
+    private final StringDictionary locations = new StringDictionary();
+    private int[][] locationCounts = new int[INITIAL_CAPACITY][];
+
+    LocationPerCompanyAggregator(Predicate<Mission> counted) {
+        this.counted = counted;
+    }
+
+    @Override
+    public void accept(Mission mission) {
+        int location = locations.encode(mission.location());
+        if (!counted.test(mission)) {
+            return;
+        }
+
+        int company = companies.encode(mission.company());
+        if (company == locationCounts.length) {
+            locationCounts = Arrays.copyOf(locationCounts, locationCounts.length << 1);
+        }
+
+        int[] counts = locationCounts[company];
+        if (counts == null) {
+            counts = new int[Math.max(INITIAL_CAPACITY, location + 1)];
+        } else if (location >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(location + 1, counts.length << 1));
+        }
+        counts[location]++;
+        locationCounts[company] = counts;
+    }
+
+    @Override
+    public Map<String, String> result() {
+        Map<String, String> result = new HashMap<>();
+        for (int company = 0; company < companies.size(); company++) {
+            int[] counts = locationCounts[company];
+
+            int bestLocation = 0;
+            for (int location = 1; location < counts.length; location++) {
+                if (counts[location] > counts[bestLocation]) {
+                    bestLocation = location;
+                }
+            }
+            result.put(companies.decode(company), locations.decode(bestLocation));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,23 @@
+package bg.sofia.uni.fmi.mjt.space.streaming;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+
+/**
+ * A one-pass aggregate over a stream of missions. An aggregator sees every mission exactly once, in
+ * file order, and must keep only state that does not grow with the number of missions.
+ *
+ * @param <R> the type of the result
+ */
+public interface MissionAggregator<R> {
+    /**
+     * Folds the next mission into the aggregate.
+     *
+     * @param mission the next mission of the stream
+     */
+    void accept(Mission mission);
+
+    /**
+     * Returns the aggregate over all missions accepted so far.
+     */
+    R result();
+}
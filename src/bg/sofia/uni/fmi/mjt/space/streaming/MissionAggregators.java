@@ -0,0 +1,86 @@
+package bg.sofia.uni.fmi.mjt.space.streaming;
+
+import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Factories for the aggregators behind the streaming queries. Their results follow the contracts of the
+ * SpaceScannerAPI methods of the same name, ties included.
+ */
+public final class MissionAggregators {
+
+    private MissionAggregators() {
+    }
+
+    /**
+     * Counts successful missions per company in the inclusive time frame; the memory used depends on
+     * the number of companies.
+     *
+     * @throws IllegalArgumentException   if from or to is null
+     * @throws TimeFrameMismatchException if to is before from
+     */
+    public static MissionAggregator<String> companyWithMostSuccessfulMissions(LocalDate from, LocalDate to) {
+        validateTimeFrame(from, to);
+        return new CompanySuccessAggregator(from, to);
+    }
+
+    /**
+     * Counts missions per company and location; the memory used depends on the number of companies and
+     * locations.
+     */
+    public static MissionAggregator<Map<String, String>> mostDesiredLocationForMissionsPerCompany() {
+        return new LocationPerCompanyAggregator(mission -> true);
+    }
+
+    /**
+     * Counts successful missions per company and location in the inclusive time frame.
+     *
+     * @throws IllegalArgumentException   if from or to is null
+     * @throws TimeFrameMismatchException if to is before from
+     */
+    public static MissionAggregator<Map<String, String>> locationWithMostSuccessfulMissionsPerCompany(
+            LocalDate from, LocalDate to) {
+        validateTimeFrame(from, to);
+        Predicate<Mission> successInTimeFrame = mission -> mission.missionStatus() == MissionStatus.SUCCESS &&
+                !mission.date().isBefore(from) && !mission.date().isAfter(to);
+        return new LocationPerCompanyAggregator(successInTimeFrame);
+    }
+
+    /**
+     * Keeps the n cheapest matching missions seen so far; the memory used depends on n.
+     *
+     * @throws IllegalArgumentException if n is less than or equal to 0, missionStatus or rocketStatus is null
+     */
+    public static MissionAggregator<List<Mission>> topNLeastExpensiveMissions(int n, MissionStatus missionStatus,
+                                                                              RocketStatus rocketStatus) {
+        if (missionStatus == null) {
+            throw new IllegalArgumentException("missionStatus cannot be null");
+        }
+        if (rocketStatus == null) {
+            throw new IllegalArgumentException("rocketStatus cannot be null");
+        }
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be greater than zero");
+        }
+        return new CheapestMissionsAggregator(n, missionStatus, rocketStatus);
+    }
+
+    private static void validateTimeFrame(LocalDate from, LocalDate to) {
+        if (from == null) {
+            throw new IllegalArgumentException("LocalDate from cannot be null");
+        }
+        if (to == null) {
+            throw new IllegalArgumentException("LocalDate to cannot be null");
+        }
+        if (to.isBefore(from)) {
+            throw new TimeFrameMismatchException("LocalDate to cannot be before LocalDate from");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package bg.sofia.uni.fmi.mjt.space.streaming;
+
+import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import bg.sofia.uni.fmi.mjt.space.loader.CSVRecordReader;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.parser.MissionParser;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.splitter.FieldCursorCSV;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers mission queries over a CSV file of any size without loading it. Every scan reads the file
+ * once, record by record as CSVRecordReader splits it, parses each record with a MissionParser and hands
+ * the mission to the aggregators; no mission outlives its record unless an aggregator keeps it. Several
+ * aggregates can share one pass through scan.
+ */
+public class StreamingMissionScanner {
+
+    private final Path missionsFile;
+
+    /**
+     * @param missionsFile the missions CSV file, header line included
+     * @throws IllegalArgumentException if missionsFile is null
+     */
+    public StreamingMissionScanner(Path missionsFile) {
+        if (missionsFile == null) {
+            throw new IllegalArgumentException("missionsFile cannot be null");
+        }
+        this.missionsFile = missionsFile;
+    }
+
+    /**
+     * Feeds every mission of the file to all aggregators in a single pass.
+     *
+     * @throws IllegalArgumentException if aggregators or any of them is null, or a line cannot be parsed
+     * @throws IOException              if the file cannot be read
+     */
+    public void scan(MissionAggregator<?>... aggregators) throws IOException {
+        if (aggregators == null) {
+            throw new IllegalArgumentException("aggregators cannot be null");
+        }
+        for (MissionAggregator<?> aggregator : aggregators) {
+            if (aggregator == null) {
+                throw new IllegalArgumentException("aggregators cannot contain null");
+            }
+        }
+
+        MissionParser parser = new MissionParser(new FieldCursorCSV());
+        try (BufferedReader reader = Files.newBufferedReader(missionsFile, StandardCharsets.UTF_8)) {
+            new CSVRecordReader(reader).stream().skip(1).map(parser::parseRecord).forEach(mission -> {
+                for (MissionAggregator<?> aggregator : aggregators) {
+                    aggregator.accept(mission);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @see bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI#getCompanyWithMostSuccessfulMissions(LocalDate, LocalDate)
+     * @throws IllegalArgumentException   if from or to is null
+     * @throws TimeFrameMismatchException if to is before from
+     * @throws IOException                if the file cannot be read
+     */
+    public String getCompanyWithMostSuccessfulMissions(LocalDate from, LocalDate to) throws IOException {
+        return scanFor(MissionAggregators.companyWithMostSuccessfulMissions(from, to));
+    }
+
+    /**
+     * @see bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI#getMostDesiredLocationForMissionsPerCompany()
+     * @throws IOException if the file cannot be read
+     */
+    public Map<String, String> getMostDesiredLocationForMissionsPerCompany() throws IOException {
+        return scanFor(MissionAggregators.mostDesiredLocationForMissionsPerCompany());
+    }
+
+    /**
+     * @see bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI#getLocationWithMostSuccessfulMissionsPerCompany(LocalDate,
+     * LocalDate)
+     * @throws IllegalArgumentException   if from or to is null
+     * @throws TimeFrameMismatchException if to is before from
+     * @throws IOException                if the file cannot be read
+     */
+    public Map<String, String> getLocationWithMostSuccessfulMissionsPerCompany(LocalDate from, LocalDate to)
+            throws IOException {
+        return scanFor(MissionAggregators.locationWithMostSuccessfulMissionsPerCompany(from, to));
+    }
+
+    /**
+     * @see bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI#getTopNLeastExpensiveMissions(int, MissionStatus,
+     * RocketStatus)
+     * @throws IllegalArgumentException if n is less than or equal to 0, missionStatus or rocketStatus is null
+     * @throws IOException              if the file cannot be read
+     */
+    public List<Mission> getTopNLeastExpensiveMissions(int n, MissionStatus missionStatus, RocketStatus rocketStatus)
+            throws IOException {
+        return scanFor(MissionAggregators.topNLeastExpensiveMissions(n, missionStatus, rocketStatus));
+    }
+
+    private <R> R scanFor(MissionAggregator<R> aggregator) throws IOException {
+        scan(aggregator);
+        return aggregator.result();
+    }
+}
@@ -3,6 +3,10 @@ package bg.sofia.uni.fmi.mjt.space;
 import bg.sofia.uni.fmi.mjt.space.algorithm.Rijndael;
 import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
 import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import bg.sofia.uni.fmi.mjt.space.loader.IngestionPolicy;
+import bg.sofia.uni.fmi.mjt.space.loader.LoadPhase;
+import bg.sofia.uni.fmi.mjt.space.loader.LoadStats;
+import bg.sofia.uni.fmi.mjt.space.loader.RejectedLine;
 import bg.sofia.uni.fmi.mjt.space.mission.Mission;
 import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
 import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
@@ -14,10 +18,14 @@ import javax.crypto.SecretKey;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -183,6 +191,234 @@ public class MJTSpaceScannerTest {
                 "Rockets should be parsed from non-empty CSV");
     }
 
+    @Test
+    void testFromFiles_matchesReaderConstructor() throws IOException {
+        Path directory = Files.createTempDirectory("space-scanner");
+        Path missionsFile = Files.writeString(directory.resolve("missions.csv"), MISSIONS_CSV);
+        Path rocketsFile = Files.writeString(directory.resolve("rockets.csv"), ROCKETS_CSV);
+
+        MJTSpaceScanner fromFiles = MJTSpaceScanner.fromFiles(missionsFile, rocketsFile, newSecretKey());
+        MJTSpaceScanner fromReaders = newScanner(MISSIONS_CSV, ROCKETS_CSV);
+
+        assertEquals(new ArrayList<>(fromReaders.getAllMissions()), new ArrayList<>(fromFiles.getAllMissions()),
+                "Memory-mapped loading should produce the same missions in the same order");
+        assertEquals(new ArrayList<>(fromReaders.getAllRockets()), new ArrayList<>(fromFiles.getAllRockets()),
+                "Memory-mapped loading should produce the same rockets in the same order");
+    }
+
+    @Test
+    void testFromSnapshot_matchesReaderConstructor() throws IOException {
+        Path snapshotFile = Files.createTempDirectory("space-scanner").resolve("dataset.snapshot");
+        MJTSpaceScanner fromReaders = newScanner(MISSIONS_CSV, ROCKETS_CSV);
+        fromReaders.writeSnapshot(snapshotFile);
+
+        MJTSpaceScanner fromSnapshot = MJTSpaceScanner.fromSnapshot(snapshotFile, newSecretKey());
+
+        assertEquals(new ArrayList<>(fromReaders.getAllMissions()), new ArrayList<>(fromSnapshot.getAllMissions()),
+                "A snapshot should restore the same missions in the same order");
+        assertEquals(new ArrayList<>(fromReaders.getAllRockets()), new ArrayList<>(fromSnapshot.getAllRockets()),
+                "A snapshot should restore the same rockets in the same order");
+        assertEquals(fromReaders.getMostDesiredLocationForMissionsPerCompany(),
+                fromSnapshot.getMostDesiredLocationForMissionsPerCompany(),
+                "Queries over a snapshot should match queries over the parsed CSV");
+    }
+
+    @Test
+    void testFromEncryptedSnapshot_matchesReaderConstructor() throws IOException, CipherException {
+        Path snapshotFile = Files.createTempDirectory("space-scanner").resolve("dataset.encrypted");
+        SecretKey secretKey = newSecretKey();
+        MJTSpaceScanner fromReaders = new MJTSpaceScanner(new StringReader(MISSIONS_CSV),
+                new StringReader(ROCKETS_CSV), secretKey);
+        fromReaders.writeEncryptedSnapshot(snapshotFile);
+
+        MJTSpaceScanner fromStream;
+        try (InputStream in = Files.newInputStream(snapshotFile)) {
+            fromStream = MJTSpaceScanner.fromEncryptedSnapshot(in, secretKey);
+        }
+        MJTSpaceScanner fromWindow = MJTSpaceScanner.fromEncryptedSnapshot(snapshotFile, secretKey,
+                d(1985, 1, 1), d(1985, 12, 31));
+
+        assertEquals(new ArrayList<>(fromReaders.getAllMissions()), new ArrayList<>(fromStream.getAllMissions()),
+                "An encrypted snapshot should restore the same missions in the same order");
+        assertEquals(new ArrayList<>(fromReaders.getAllRockets()), new ArrayList<>(fromStream.getAllRockets()),
+                "An encrypted snapshot should restore the same rockets in the same order");
+        assertEquals(fromReaders.getLocationWithMostSuccessfulMissionsPerCompany(d(1985, 1, 1), d(1985, 12, 31)),
+                fromWindow.getLocationWithMostSuccessfulMissionsPerCompany(d(1985, 1, 1), d(1985, 12, 31)),
+                "Queries within the loaded window should match queries over the parsed CSV");
+        assertTrue(fromWindow.getAllMissions().stream().allMatch(m -> m.date().getYear() == 1985),
+                "Only the missions of the window should be loaded");
+    }
+
+    @Test
+    void testLoadStats_fromReaders() {
+        MJTSpaceScanner scanner = newScanner(MISSIONS_CSV, ROCKETS_CSV);
+
+        LoadStats stats = scanner.loadStats();
+
+        assertEquals(MISSIONS_CSV.length() + ROCKETS_CSV.length(), stats.bytesRead(),
+                "Every character of the readers should be counted");
+        assertEquals(scanner.getAllMissions().size(), stats.missionRows(), "Every mission should be counted");
+        assertEquals(scanner.getAllRockets().size(), stats.rocketRows(), "Every rocket should be counted");
+        assertTrue(stats.phaseTime(LoadPhase.MISSION_PARSE).toNanos() > 0, "Mission parsing should be timed");
+        assertTrue(stats.phaseTime(LoadPhase.INDEX_BUILD).toNanos() > 0, "Index building should be timed");
+        long phases = stats.phaseTimes().values().stream().mapToLong(Duration::toNanos).sum();
+        assertTrue(phases <= stats.totalTime().toNanos(), "Sequential phases should fit in the total time");
+        assertTrue(stats.rowsPerSecond() > 0, "The throughput should be positive");
+        assertTrue(stats.peakHeapUsedBytes() > 0, "The heap usage should be sampled");
+    }
+
+    @Test
+    void testLoadStats_fromFiles() throws IOException {
+        Path directory = Files.createTempDirectory("space-scanner");
+        Path missionsFile = Files.writeString(directory.resolve("all-missions-from-1957.csv"), MISSIONS_CSV);
+        Path rocketsFile = Files.writeString(directory.resolve("all-rockets-from-1957.csv"), ROCKETS_CSV);
+
+        LoadStats stats = MJTSpaceScanner.fromFiles(missionsFile, rocketsFile, newSecretKey()).loadStats();
+
+        assertEquals(Files.size(missionsFile) + Files.size(rocketsFile), stats.bytesRead(),
+                "The sizes of the files should be counted");
+        assertEquals(newScanner(MISSIONS_CSV, ROCKETS_CSV).getAllMissions().size(), stats.missionRows(),
+                "Every mission should be counted");
+    }
+
+    @Test
+    void testConstructor_whenLenient_skipsAndReportsBadLines() {
+        String[] missionLines = MISSIONS_CSV.substring(1).split("\n");
+        String missions = "\n" + missionLines[0] + "\n" + missionLines[1].replace("Success", "Exploded") + "\n"
+                + missionLines[2] + "\n" + "garbage\n" + missionLines[3] + "\n";
+        String rockets = ROCKETS_CSV + "12,Saturn X\n";
+        List<RejectedLine> rejected = new ArrayList<>();
+
+        MJTSpaceScanner scanner = new MJTSpaceScanner(new StringReader(missions), new StringReader(rockets),
+                newSecretKey(), IngestionPolicy.lenient(rejected::add, 3));
+
+        assertEquals(3, scanner.getAllMissions().size(), "The good missions should be loaded");
+        assertEquals(5, scanner.getAllRockets().size(), "The good rockets should be loaded");
+        assertEquals(List.of("missions:3", "missions:5", "rockets:7"),
+                rejected.stream().map(r -> r.source() + ":" + r.lineNumber()).toList(),
+                "Bad lines should be reported in order with their line numbers");
+        assertEquals("garbage", rejected.get(1).text(), "The raw text of a bad line should be reported");
+        assertInstanceOf(IllegalArgumentException.class, rejected.get(0).cause(), "The cause should be reported");
+        assertEquals(3, scanner.loadStats().rejectedRows(), "Rejected lines should be counted");
+    }
+
+    @Test
+    void testConstructor_whenErrorBudgetIsExceeded() {
+        String missions = MISSIONS_CSV + "garbage\n";
+        String rockets = ROCKETS_CSV + "12,Saturn X\n";
+
+        assertThrows(IllegalArgumentException.class, () -> new MJTSpaceScanner(new StringReader(missions),
+                        new StringReader(rockets), newSecretKey(), IngestionPolicy.lenient(r -> { }, 1)),
+                "Constructor should throw IllegalArgumentException when more lines than the budget are bad");
+        assertThrows(IllegalArgumentException.class, () -> new MJTSpaceScanner(new StringReader(missions),
+                        new StringReader(ROCKETS_CSV), newSecretKey()),
+                "Constructor should throw IllegalArgumentException on a bad line by default");
+    }
+
+    @Test
+    void testFromFiles_whenLenient_matchesReaderConstructor() throws IOException {
+        Path directory = Files.createTempDirectory("space-scanner");
+        String missions = MISSIONS_CSV + "garbage\n";
+        Path missionsFile = Files.writeString(directory.resolve("missions.csv"), missions);
+        Path rocketsFile = Files.writeString(directory.resolve("rockets.csv"), ROCKETS_CSV);
+        List<RejectedLine> fromFilesRejected = new ArrayList<>();
+        List<RejectedLine> fromReadersRejected = new ArrayList<>();
+
+        MJTSpaceScanner fromFiles = MJTSpaceScanner.fromFiles(missionsFile, rocketsFile, newSecretKey(),
+                IngestionPolicy.lenient(fromFilesRejected::add, 1));
+        MJTSpaceScanner fromReaders = new MJTSpaceScanner(new StringReader(missions), new StringReader(ROCKETS_CSV),
+                newSecretKey(), IngestionPolicy.lenient(fromReadersRejected::add, 1));
+
+        assertEquals(new ArrayList<>(fromReaders.getAllMissions()), new ArrayList<>(fromFiles.getAllMissions()),
+                "Lenient memory-mapped loading should keep the same missions");
+        assertEquals(fromReadersRejected.get(0).lineNumber(), fromFilesRejected.get(0).lineNumber(),
+                "Both loads should number the bad line the same");
+        assertEquals(missionsFile.toString(), fromFilesRejected.get(0).source(), "The file should be the source");
+        assertEquals(1, fromFiles.loadStats().rejectedRows(), "Rejected lines should be counted");
+    }
+
+    @Test
+    void testFromFiles_whenFieldSpansLines_matchesReaderConstructor() throws IOException {
+        Path directory = Files.createTempDirectory("space-scanner");
+        String missions = MISSIONS_CSV
+                + "2130,NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Mon Jun 17, 1985\","
+                + "\"Saturn V | STS-51-G\r\nTDRS\",StatusRetired,\"450.0 \",Success\r\n"
+                + "garbage\n";
+        Path missionsFile = Files.writeString(directory.resolve("missions.csv"), missions);
+        Path rocketsFile = Files.writeString(directory.resolve("rockets.csv"), ROCKETS_CSV);
+        List<RejectedLine> fromFilesRejected = new ArrayList<>();
+        List<RejectedLine> fromReadersRejected = new ArrayList<>();
+
+        MJTSpaceScanner fromFiles = MJTSpaceScanner.fromFiles(missionsFile, rocketsFile, newSecretKey(),
+                IngestionPolicy.lenient(fromFilesRejected::add, 1));
+        MJTSpaceScanner fromReaders = new MJTSpaceScanner(new StringReader(missions), new StringReader(ROCKETS_CSV),
+                newSecretKey(), IngestionPolicy.lenient(fromReadersRejected::add, 1));
+
+        List<Mission> loaded = new ArrayList<>(fromReaders.getAllMissions());
+        assertEquals(loaded, new ArrayList<>(fromFiles.getAllMissions()),
+                "Both loads should read a quoted line feed as part of the field");
+        assertEquals("STS-51-G\r\nTDRS", loaded.stream().filter(m -> m.id().equals("2130")).findFirst()
+                        .orElseThrow().detail().payload(),
+                "A quoted field should keep its line break");
+        assertEquals(10, fromReadersRejected.get(0).lineNumber(),
+                "Line feeds inside quotes should count towards the line numbers");
+        assertEquals(fromReadersRejected.get(0).lineNumber(), fromFilesRejected.get(0).lineNumber(),
+                "Both loads should number the lines after a multi-line field the same");
+    }
+
+    @Test
+    void testAppend_matchesLoadingEverythingAtOnce() throws CipherException {
+        String[] missionLines = MISSIONS_CSV.substring(1).split("\n");
+        String[] rocketLines = ROCKETS_CSV.substring(1).split("\n");
+        MJTSpaceScanner full = newScanner(MISSIONS_CSV, ROCKETS_CSV);
+
+        MJTSpaceScanner appended = newScanner("\n" + missionLines[0] + "\n" + missionLines[1] + "\n",
+                "\n" + rocketLines[0] + "\n");
+        appended.appendRockets(new StringReader(String.join("\n", List.of(rocketLines).subList(1, 3))));
+        appended.appendMissions(new StringReader(String.join("\n", List.of(missionLines).subList(2, 6))));
+        appended.appendRockets(new StringReader(String.join("\n", List.of(rocketLines).subList(3, 5))));
+
+        assertEquals(new ArrayList<>(full.getAllMissions()), new ArrayList<>(appended.getAllMissions()),
+                "Appended missions should follow the loaded ones in order");
+        assertEquals(new ArrayList<>(full.getAllRockets()), new ArrayList<>(appended.getAllRockets()),
+                "Appended rockets should follow the loaded ones in order");
+        assertEquals(full.getCompanyWithMostSuccessfulMissions(d(1985, 6, 1), d(1985, 7, 31)),
+                appended.getCompanyWithMostSuccessfulMissions(d(1985, 6, 1), d(1985, 7, 31)),
+                "Company successes should include the appended missions");
+        assertEquals(full.getLocationWithMostSuccessfulMissionsPerCompany(d(1985, 1, 1), d(1985, 12, 31)),
+                appended.getLocationWithMostSuccessfulMissionsPerCompany(d(1985, 1, 1), d(1985, 12, 31)),
+                "The date index should include the appended missions");
+        assertEquals(full.getWikiPagesForRocketsUsedInMostExpensiveMissions(10, MissionStatus.SUCCESS,
+                        RocketStatus.STATUS_RETIRED),
+                appended.getWikiPagesForRocketsUsedInMostExpensiveMissions(10, MissionStatus.SUCCESS,
+                        RocketStatus.STATUS_RETIRED),
+                "Rockets appended before and after their missions should be joined");
+
+        ByteArrayOutputStream fullOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream appendedOut = new ByteArrayOutputStream();
+        SecretKey key = newSecretKey();
+        new MJTSpaceScanner(new StringReader(MISSIONS_CSV), new StringReader(ROCKETS_CSV), key)
+                .saveMostReliableRocket(fullOut, d(1985, 1, 1), d(1985, 12, 31));
+        MJTSpaceScanner appendedWithKey = new MJTSpaceScanner(null, null, key);
+        appendedWithKey.appendMissions(new StringReader(MISSIONS_CSV.substring(1)));
+        appendedWithKey.appendRockets(new StringReader(ROCKETS_CSV.substring(1)));
+        appendedWithKey.saveMostReliableRocket(appendedOut, d(1985, 1, 1), d(1985, 12, 31));
+        assertArrayEquals(fullOut.toByteArray(), appendedOut.toByteArray(),
+                "Reliability should be computed over the appended missions and rockets");
+    }
+
+    @Test
+    void testAppendMissions_whenLineIsInvalid() {
+        MJTSpaceScanner scanner = newScanner(MISSIONS_CSV, ROCKETS_CSV);
+
+        assertThrows(IllegalArgumentException.class, () -> scanner.appendMissions(null),
+                "appendMissions() should throw IllegalArgumentException when the reader is null");
+        assertThrows(IllegalArgumentException.class,
+                () -> scanner.appendMissions(new StringReader(MISSIONS_CSV.substring(1) + "not,a,mission\n")),
+                "appendMissions() should throw IllegalArgumentException when a line cannot be parsed");
+        assertEquals(6, scanner.getAllMissions().size(), "A failed append should not add any mission");
+    }
+
     // -------------------------------------------------------------------------------------------------
     // Missions
     // -------------------------------------------------------------------------------------------------
@@ -295,6 +531,45 @@ public class MJTSpaceScannerTest {
         assertEquals(1, result.get("Kazakhstan").size(), "Kazakhstan should have 1 mission in the fixture");
     }
 
+    @Test
+    void testGetMissionsPerCountry_returnsSharedImmutablePartitions() {
+        MJTSpaceScanner scanner = newScanner(MISSIONS_CSV, ROCKETS_CSV);
+
+        Map<String, Collection<Mission>> first = scanner.getMissionsPerCountry();
+
+        assertSame(first, scanner.getMissionsPerCountry(), "Repeated calls should return the prebuilt partitions");
+        assertSame(first.get("USA"), scanner.getMissionsInCountry("USA"),
+                "A country query should return the same partition");
+        assertThrows(UnsupportedOperationException.class, () -> first.get("USA").clear(),
+                "Partitions should be immutable");
+        assertThrows(UnsupportedOperationException.class, first::clear, "The partition map should be immutable");
+    }
+
+    @Test
+    void testGetMissionsInCountry() {
+        MJTSpaceScanner scanner = newScanner(MISSIONS_CSV, ROCKETS_CSV);
+
+        assertEquals(List.of("2115", "2121", "2129"),
+                scanner.getMissionsInCountry("USA").stream().map(Mission::id).collect(Collectors.toList()),
+                "USA missions should be returned in load order");
+        assertTrue(scanner.getMissionsInCountry("Japan").isEmpty(), "A country without missions should be empty");
+        assertThrows(IllegalArgumentException.class, () -> scanner.getMissionsInCountry(null),
+                "A null country should throw IllegalArgumentException");
+    }
+
+    @Test
+    void testGetMissionsPerCountry_afterAppend() {
+        MJTSpaceScanner scanner = newScanner(MISSIONS_CSV, ROCKETS_CSV);
+        Map<String, Collection<Mission>> before = scanner.getMissionsPerCountry();
+
+        scanner.appendMissions(new StringReader("3000,NASA,\"SLC-40, Cape Canaveral AFS, Florida, USA\"," +
+                "\"Fri Jan 03, 1986\",Saturn V | Test,StatusRetired,,Success\n"));
+        Map<String, Collection<Mission>> after = scanner.getMissionsPerCountry();
+
+        assertEquals(4, after.get("USA").size(), "The appended mission should be in its country partition");
+        assertSame(before.get("France"), after.get("France"), "Partitions of other countries should be reused");
+    }
+
     // -------------------------------------------------------------------------------------------------
     // Top N least expensive missions
     // -------------------------------------------------------------------------------------------------
@@ -650,4 +925,29 @@ public class MJTSpaceScannerTest {
                 "Most reliable rocket must be Saturn V. Failures include FAILURE, PARTIAL_FAILURE, PRELAUNCH_FAILURE.");
     }
 
+    @Test
+    void testSaveMostReliableRocket_onlyCountsMissionsInTheWindow() throws CipherException {
+        // Saturn V succeeds in June only; Saturn IB fails in June and succeeds in October.
+        String missionsCsv = "\n" +
+                "6000,NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Mon Jun 17, 1985\",Saturn V | A,StatusRetired,,Success\n" +
+                "6001,NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Tue Jun 18, 1985\",Saturn IB | B,StatusRetired,,Failure\n" +
+                "6002,NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Thu Oct 03, 1985\",Saturn IB | C,StatusRetired,,Success\n";
+        SecretKey key = newSecretKey();
+        MJTSpaceScanner scanner = new MJTSpaceScanner(
+                new StringReader(missionsCsv),
+                new StringReader(ROCKETS_CSV_RELIABILITY),
+                key
+        );
+
+        CloseTrackingOutputStream wholeYear = new CloseTrackingOutputStream();
+        scanner.saveMostReliableRocket(wholeYear, d(1985, 1, 1), d(1985, 12, 31));
+        CloseTrackingOutputStream october = new CloseTrackingOutputStream();
+        scanner.saveMostReliableRocket(october, d(1985, 10, 1), d(1985, 10, 31));
+
+        assertEquals("Saturn V", decryptUtf8(wholeYear.toByteArray(), key).trim(),
+                "Over the whole year Saturn V never failed while Saturn IB did");
+        assertEquals("Saturn IB", decryptUtf8(october.toByteArray(), key).trim(),
+                "Only the October success of Saturn IB should count in an October window");
+    }
+
 }
@@ -13,6 +13,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
 import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
@@ -49,6 +51,116 @@ class RijndaelTest {
         );
     }
 
+    @Test
+    void testConstructor_whenBufferSizeIsNotPositive() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new Rijndael(secretKey, 0),
+                "Constructor should throw IllegalArgumentException when bufferSize is not positive"
+        );
+    }
+
+    @Test
+    void testEncryptDecrypt_whenBufferIsSmallerThanInput() throws CipherException {
+        SymmetricBlockCipher smallBuffers = new Rijndael(secretKey, 7);
+        byte[] plaintext = randomBytes(1_000);
+
+        byte[] ciphertext = encryptToBytes(smallBuffers, plaintext);
+
+        assertArrayEquals(
+                encryptToBytes(cipher, plaintext),
+                ciphertext,
+                "The ciphertext should not depend on the buffer size"
+        );
+        assertArrayEquals(
+                plaintext,
+                decryptToBytes(smallBuffers, ciphertext),
+                "Decrypted data should be identical to the original when the buffer is smaller than the input"
+        );
+    }
+
+    @Test
+    void testEncryptDecrypt_whenChannelsProvided() throws CipherException {
+        byte[] plaintext = randomBytes(100_000);
+
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        cipher.encrypt(Channels.newChannel(new ByteArrayInputStream(plaintext)), Channels.newChannel(encrypted));
+
+        assertArrayEquals(
+                encryptToBytes(cipher, plaintext),
+                encrypted.toByteArray(),
+                "Channels and streams should produce the same ciphertext"
+        );
+
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        cipher.decrypt(Channels.newChannel(new ByteArrayInputStream(encrypted.toByteArray())),
+                Channels.newChannel(decrypted));
+
+        assertArrayEquals(
+                plaintext,
+                decrypted.toByteArray(),
+                "Decrypted data should be identical to the original when channels are used"
+        );
+    }
+
+    @Test
+    void testDecrypt_whenPreviousDecryptionFailed() throws CipherException {
+        byte[] plaintext = "data".getBytes(StandardCharsets.UTF_8);
+        byte[] ciphertext = encryptToBytes(cipher, plaintext);
+
+        assertThrows(
+                CipherException.class,
+                () -> decryptToBytes(cipher, "not-a-valid-ciphertext".getBytes(StandardCharsets.UTF_8)),
+                "Decrypt should throw CipherException when ciphertext is invalid"
+        );
+        assertArrayEquals(
+                plaintext,
+                decryptToBytes(cipher, ciphertext),
+                "A failed decryption should not affect the next one"
+        );
+    }
+
+    @Test
+    void testEncryptDecrypt_whenInstancesWithDifferentKeysAlternate() throws Exception {
+        byte[] plaintext = randomBytes(1_000);
+        SymmetricBlockCipher other = new Rijndael(generateAesKey(128));
+
+        byte[] ciphertext = encryptToBytes(cipher, plaintext);
+        byte[] otherCiphertext = encryptToBytes(other, plaintext);
+
+        assertArrayEquals(
+                plaintext,
+                decryptToBytes(cipher, ciphertext),
+                "An instance should decrypt with its own key after another key was used on the thread"
+        );
+        assertArrayEquals(
+                ciphertext,
+                encryptToBytes(new Rijndael(secretKey), plaintext),
+                "A new instance with the same key should produce the same ciphertext"
+        );
+        assertArrayEquals(
+                plaintext,
+                decryptToBytes(other, otherCiphertext),
+                "The other instance should still decrypt with its own key"
+        );
+    }
+
+    @Test
+    void testEncrypt_whenChannelIsNonBlocking() throws IOException {
+        Pipe pipe = Pipe.open();
+        try (Pipe.SourceChannel source = pipe.source()) {
+            source.configureBlocking(false);
+
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> cipher.encrypt(source, Channels.newChannel(new ByteArrayOutputStream())),
+                    "Encrypt should throw IllegalArgumentException when the source is non-blocking"
+            );
+        } finally {
+            pipe.sink().close();
+        }
+    }
+
     @Test
     void testEncryptDecrypt_whenPlainTextProvided() throws CipherException {
         byte[] plaintext = "Hello AES Rijndael".getBytes(StandardCharsets.UTF_8);
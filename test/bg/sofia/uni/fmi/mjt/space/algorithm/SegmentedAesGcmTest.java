@@ -0,0 +1,170 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SegmentedAesGcmTest {
+
+    private static final int SEGMENT_SIZE = 64;
+    private static final int HEADER_LENGTH = 17;
+    private static final int FRAME_OVERHEAD = 5 + 16;
+
+    private ExecutorService executor;
+    private SecretKey secretKey;
+    private SymmetricBlockCipher cipher;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        executor = Executors.newFixedThreadPool(4);
+        secretKey = generateAesKey();
+        cipher = new SegmentedAesGcm(secretKey, SEGMENT_SIZE, executor, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConstructor_whenArgumentsAreInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedAesGcm(null),
+                "Constructor should throw IllegalArgumentException when secretKey is null");
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedAesGcm(secretKey, 0, executor, 1),
+                "Constructor should throw IllegalArgumentException when segmentSize is not positive");
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedAesGcm(secretKey, 16, null, 1),
+                "Constructor should throw IllegalArgumentException when executor is null");
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedAesGcm(secretKey, 16, executor, 0),
+                "Constructor should throw IllegalArgumentException when parallelism is not positive");
+    }
+
+    @Test
+    void testEncryptDecrypt_whenInputSpansManySegments() throws CipherException {
+        for (int size : new int[] {0, 1, SEGMENT_SIZE - 1, SEGMENT_SIZE, 3 * SEGMENT_SIZE, 100 * SEGMENT_SIZE + 7}) {
+            byte[] plaintext = randomBytes(size);
+
+            byte[] ciphertext = encrypt(cipher, plaintext);
+
+            assertArrayEquals(plaintext, decrypt(cipher, ciphertext),
+                    "Decrypted data should be identical to the original for " + size + " bytes");
+        }
+    }
+
+    @Test
+    void testEncrypt_whenSamePlaintextIsEncryptedTwice() throws CipherException {
+        byte[] plaintext = randomBytes(SEGMENT_SIZE);
+
+        assertFalse(Arrays.equals(encrypt(cipher, plaintext), encrypt(cipher, plaintext)),
+                "Every encryption should use fresh nonces");
+    }
+
+    @Test
+    void testDecrypt_whenSegmentSizeDiffers() throws CipherException {
+        byte[] plaintext = randomBytes(10 * SEGMENT_SIZE);
+        SymmetricBlockCipher other = new SegmentedAesGcm(secretKey, 16, executor, 2);
+
+        assertArrayEquals(plaintext, decrypt(other, encrypt(cipher, plaintext)),
+                "The segment size should be read from the ciphertext");
+    }
+
+    @Test
+    void testDecrypt_whenCiphertextIsTampered() throws CipherException {
+        byte[] ciphertext = encrypt(cipher, randomBytes(3 * SEGMENT_SIZE));
+        ciphertext[HEADER_LENGTH + FRAME_OVERHEAD + SEGMENT_SIZE + 10] ^= 1;
+
+        CipherException e = assertThrows(CipherException.class, () -> decrypt(cipher, ciphertext),
+                "Decrypt should throw CipherException when a segment is modified");
+        assertInstanceOf(AEADBadTagException.class, e.getCause(),
+                "The failed authentication should be the cause");
+    }
+
+    @Test
+    void testDecrypt_whenLastSegmentIsRemoved() throws CipherException {
+        byte[] ciphertext = encrypt(cipher, randomBytes(3 * SEGMENT_SIZE));
+        byte[] truncated = Arrays.copyOf(ciphertext, HEADER_LENGTH + 2 * (FRAME_OVERHEAD + SEGMENT_SIZE));
+
+        assertThrows(CipherException.class, () -> decrypt(cipher, truncated),
+                "Decrypt should throw CipherException when the ciphertext is truncated at a segment boundary");
+    }
+
+    @Test
+    void testDecrypt_whenLastFlagIsForged() throws CipherException {
+        byte[] ciphertext = encrypt(cipher, randomBytes(3 * SEGMENT_SIZE));
+        int secondFrame = HEADER_LENGTH + FRAME_OVERHEAD + SEGMENT_SIZE;
+        byte[] truncated = Arrays.copyOf(ciphertext, secondFrame + FRAME_OVERHEAD + SEGMENT_SIZE);
+        truncated[secondFrame] = 1;
+
+        CipherException e = assertThrows(CipherException.class, () -> decrypt(cipher, truncated),
+                "Decrypt should throw CipherException when a segment is falsely marked as the last one");
+        assertInstanceOf(AEADBadTagException.class, e.getCause(),
+                "The failed authentication should be the cause");
+    }
+
+    @Test
+    void testDecrypt_whenSegmentsAreSwapped() throws CipherException {
+        byte[] ciphertext = encrypt(cipher, randomBytes(3 * SEGMENT_SIZE));
+        int frameLength = FRAME_OVERHEAD + SEGMENT_SIZE;
+        byte[] swapped = ciphertext.clone();
+        System.arraycopy(ciphertext, HEADER_LENGTH, swapped, HEADER_LENGTH + frameLength, frameLength);
+        System.arraycopy(ciphertext, HEADER_LENGTH + frameLength, swapped, HEADER_LENGTH, frameLength);
+
+        assertThrows(CipherException.class, () -> decrypt(cipher, swapped),
+                "Decrypt should throw CipherException when segments are reordered");
+    }
+
+    @Test
+    void testDecrypt_whenKeyDiffers() throws Exception {
+        byte[] ciphertext = encrypt(cipher, randomBytes(SEGMENT_SIZE));
+        SymmetricBlockCipher other = new SegmentedAesGcm(generateAesKey(), SEGMENT_SIZE, executor, 4);
+
+        assertThrows(CipherException.class, () -> decrypt(other, ciphertext),
+                "Decrypt should throw CipherException when the key differs");
+    }
+
+    @Test
+    void testDecrypt_whenInputIsNotSegmented() {
+        assertThrows(CipherException.class, () -> decrypt(cipher, randomBytes(100)),
+                "Decrypt should throw CipherException when the input has no segmented header");
+    }
+
+    private static SecretKey generateAesKey() throws NoSuchAlgorithmException {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(128);
+        return keyGenerator.generateKey();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] encrypt(SymmetricBlockCipher cipher, byte[] plaintext) throws CipherException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cipher.encrypt(new ByteArrayInputStream(plaintext), out);
+        return out.toByteArray();
+    }
+
+    private static byte[] decrypt(SymmetricBlockCipher cipher, byte[] ciphertext) throws CipherException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cipher.decrypt(new ByteArrayInputStream(ciphertext), out);
+        return out.toByteArray();
+    }
+}
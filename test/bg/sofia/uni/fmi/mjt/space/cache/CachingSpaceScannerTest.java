@@ -0,0 +1,135 @@
+package bg.sofia.uni.fmi.mjt.space.cache;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.StringReader;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingSpaceScannerTest {
+
+    private static final String ROCKETS_CSV =
+            "Unnamed: 0,Name,Wiki,Rocket Height\n" +
+                    "315,Saturn V,https://en.wikipedia.org/wiki/Saturn_V,110.6 m\n" +
+                    "314,Saturn IB,https://en.wikipedia.org/wiki/Saturn_IB,43.2 m\n";
+
+    private static final String MISSIONS_CSV =
+            "Unnamed: 0,Company Name,Location,Datum,Detail,Status Rocket, Rocket,Status Mission\n" +
+                    "2115,NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Tue Aug 27, 1985\",Saturn V | STS-51-I,StatusRetired,\"450.0 \",Success\n" +
+                    "2121,NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Thu Jul 25, 1985\",Saturn IB | STS-51-F,StatusRetired,\"450.0 \",Success\n";
+
+    private static final String APPENDED_MISSION =
+            "2126,RVSN USSR,\"Site 45/1, Baikonur Cosmodrome, Kazakhstan\",\"Fri Jun 21, 1985\",Saturn IB | EPN 03.0694,StatusRetired,\"20.0 \",Success\n";
+
+    private static MJTSpaceScanner newScanner() {
+        try {
+            SecretKey key = KeyGenerator.getInstance("AES").generateKey();
+            return new MJTSpaceScanner(new StringReader(MISSIONS_CSV), new StringReader(ROCKETS_CSV), key);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void testConstructor_whenArgumentsAreInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingSpaceScanner(null, 10, 100),
+                "Constructor should throw IllegalArgumentException when scanner is null");
+        assertThrows(IllegalArgumentException.class, () -> new CachingSpaceScanner(newScanner(), 0, 100),
+                "Constructor should throw IllegalArgumentException when maxEntries is not positive");
+        assertThrows(IllegalArgumentException.class, () -> new CachingSpaceScanner(newScanner(), 10, 0),
+                "Constructor should throw IllegalArgumentException when maxWeight is not positive");
+    }
+
+    @Test
+    void testQuery_repeatedCallsAreHits() {
+        CachingSpaceScanner cache = new CachingSpaceScanner(newScanner(), 10, 1_000);
+
+        Map<String, String> first = cache.getMostDesiredLocationForMissionsPerCompany();
+        Map<String, String> second = cache.getMostDesiredLocationForMissionsPerCompany();
+        cache.getTopNLeastExpensiveMissions(1, MissionStatus.SUCCESS, RocketStatus.STATUS_RETIRED);
+        cache.getTopNLeastExpensiveMissions(2, MissionStatus.SUCCESS, RocketStatus.STATUS_RETIRED);
+
+        assertSame(first, second, "A repeated query should be answered with the cached result");
+        assertEquals(1, cache.stats().hits(), "Only the repeated query should be a hit");
+        assertEquals(3, cache.stats().misses(), "Queries with different arguments should be separate entries");
+    }
+
+    @Test
+    void testQuery_resultsAreImmutable() {
+        CachingSpaceScanner cache = new CachingSpaceScanner(newScanner(), 10, 1_000);
+
+        Collection<Mission> missions = cache.getAllMissions();
+        Map<String, Collection<Mission>> perCountry = cache.getMissionsPerCountry();
+
+        assertThrows(UnsupportedOperationException.class, missions::clear,
+                "Cached collections should be immutable");
+        assertThrows(UnsupportedOperationException.class, () -> perCountry.get("USA").clear(),
+                "Collections nested in cached maps should be immutable");
+    }
+
+    @Test
+    void testQuery_invalidArgumentsAreNotCached() {
+        CachingSpaceScanner cache = new CachingSpaceScanner(newScanner(), 10, 1_000);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.getAllMissions(null),
+                "Invalid arguments should still be rejected by the scanner");
+        assertEquals(0, cache.stats().entries(), "A failed query should not be cached");
+    }
+
+    @Test
+    void testQuery_invalidatedWhenDatasetChanges() {
+        MJTSpaceScanner scanner = newScanner();
+        CachingSpaceScanner cache = new CachingSpaceScanner(scanner, 10, 1_000);
+        LocalDate from = LocalDate.of(1985, 1, 1);
+        LocalDate to = LocalDate.of(1985, 12, 31);
+
+        assertEquals(Map.of("NASA", "LC-39A, Kennedy Space Center, Florida, USA"),
+                cache.getLocationWithMostSuccessfulMissionsPerCompany(from, to), "Initial result should be computed");
+        scanner.appendMissions(new StringReader(APPENDED_MISSION));
+
+        assertEquals(2, cache.getLocationWithMostSuccessfulMissionsPerCompany(from, to).size(),
+                "A query after an append should see the appended mission");
+        assertEquals(1, cache.stats().invalidations(), "An append should invalidate the cache");
+        assertEquals(0, cache.stats().hits(), "A query after an append should not be a hit");
+    }
+
+    @Test
+    void testQuery_evictsLeastRecentlyUsedEntry() {
+        CachingSpaceScanner cache = new CachingSpaceScanner(newScanner(), 2, 1_000);
+
+        cache.getTopNTallestRockets(1);
+        cache.getTopNTallestRockets(2);
+        cache.getTopNTallestRockets(1);
+        cache.getAllRockets();
+        cache.getTopNTallestRockets(1);
+        cache.getTopNTallestRockets(2);
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.entries(), "The cache should hold at most maxEntries results");
+        assertEquals(2, stats.hits(), "Recently used entries should survive eviction");
+        assertEquals(2, stats.evictions(), "The least recently used entry should be evicted first");
+    }
+
+    @Test
+    void testQuery_respectsWeightBound() {
+        CachingSpaceScanner cache = new CachingSpaceScanner(newScanner(), 10, 3);
+
+        List<?> tallest = cache.getTopNTallestRockets(1);
+        cache.getAllMissions();
+
+        assertEquals(1, tallest.size(), "Results should be returned even when they are not cached");
+        assertEquals(1, cache.stats().entries(), "A result heavier than maxWeight should not be cached");
+        assertTrue(cache.stats().weight() <= 3, "The cached weight should stay within maxWeight");
+    }
+}
@@ -0,0 +1,128 @@
+package bg.sofia.uni.fmi.mjt.space.concurrent;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.StringReader;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentSpaceScannerTest {
+
+    private static final String ROCKETS_CSV =
+            "Unnamed: 0,Name,Wiki,Rocket Height\n" +
+                    "315,Saturn V,https://en.wikipedia.org/wiki/Saturn_V,110.6 m\n";
+
+    private static final String HEADER =
+            "Unnamed: 0,Company Name,Location,Datum,Detail,Status Rocket, Rocket,Status Mission\n";
+
+    private static String missions(String company, int count) {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < count; i++) {
+            csv.append(i).append(',').append(company)
+                    .append(",\"LC-39A, Kennedy Space Center, Florida, USA\",\"Tue Aug 27, 1985\",")
+                    .append("Saturn V | STS-51-I,StatusRetired,\"450.0 \",Success\n");
+        }
+        return csv.toString();
+    }
+
+    private static SecretKey newSecretKey() throws NoSuchAlgorithmException {
+        return KeyGenerator.getInstance("AES").generateKey();
+    }
+
+    @Test
+    void testConstructor_whenArgumentsAreNull() throws NoSuchAlgorithmException {
+        SecretKey key = newSecretKey();
+
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentSpaceScanner(null, key),
+                "Constructor should throw IllegalArgumentException when the initial scanner is null");
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConcurrentSpaceScanner(new MJTSpaceScanner(null, null, key), null),
+                "Constructor should throw IllegalArgumentException when secretKey is null");
+    }
+
+    @Test
+    void testReload_publishesNewDataset() throws NoSuchAlgorithmException {
+        ConcurrentSpaceScanner scanner = new ConcurrentSpaceScanner(new StringReader(missions("NASA", 2)),
+                new StringReader(ROCKETS_CSV), newSecretKey());
+        MJTSpaceScanner before = scanner.current();
+
+        scanner.reload(new StringReader(missions("SpaceX", 3)), new StringReader(ROCKETS_CSV));
+
+        assertNotSame(before, scanner.current(), "reload() should publish a new dataset");
+        assertEquals(1, scanner.dataVersion(), "Every publish should advance the data version");
+        assertEquals(3, scanner.getAllMissions().size(), "Queries should run against the new dataset");
+        assertEquals(2, before.getAllMissions().size(), "The previous dataset should stay intact");
+    }
+
+    @Test
+    void testReload_keepsDatasetWhenParsingFails() throws NoSuchAlgorithmException {
+        ConcurrentSpaceScanner scanner = new ConcurrentSpaceScanner(new StringReader(missions("NASA", 2)),
+                new StringReader(ROCKETS_CSV), newSecretKey());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> scanner.reload(new StringReader(HEADER + "broken\n"), new StringReader(ROCKETS_CSV)),
+                "reload() should fail on an invalid line");
+        assertEquals(2, scanner.getAllMissions().size(), "A failed reload should keep the current dataset");
+        assertEquals(0, scanner.dataVersion(), "A failed reload should not publish anything");
+    }
+
+    @Test
+    void testQueries_seeConsistentDatasetsDuringPublishes() throws Exception {
+        SecretKey key = newSecretKey();
+        MJTSpaceScanner nasa = new MJTSpaceScanner(new StringReader(missions("NASA", 10)),
+                new StringReader(ROCKETS_CSV), key);
+        MJTSpaceScanner spaceX = new MJTSpaceScanner(new StringReader(missions("SpaceX", 20)),
+                new StringReader(ROCKETS_CSV), key);
+        ConcurrentSpaceScanner scanner = new ConcurrentSpaceScanner(nasa, key);
+        LocalDate from = LocalDate.of(1985, 1, 1);
+        LocalDate to = LocalDate.of(1985, 12, 31);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(readers.submit(() -> {
+                    int queries = 0;
+                    do {
+                        Collection<Mission> missions = scanner.getAllMissions();
+                        String company = missions.iterator().next().company();
+                        assertEquals(company.equals("NASA") ? 10 : 20, missions.size(),
+                                "A query should never mix two datasets");
+                        assertTrue(missions.stream().allMatch(mission -> mission.company().equals(company)),
+                                "A query should never mix two datasets");
+                        assertFalse(scanner.getCompanyWithMostSuccessfulMissions(from, to).isEmpty(),
+                                "Every published dataset should answer queries");
+                        queries++;
+                    } while (running.get());
+                    return queries;
+                }));
+            }
+
+            for (int i = 0; i < 1_000; i++) {
+                scanner.publish(i % 2 == 0 ? spaceX : nasa);
+            }
+            running.set(false);
+
+            for (Future<Integer> result : results) {
+                assertTrue(result.get() > 0, "Every reader should have completed its queries");
+            }
+            assertEquals(1_000, scanner.dataVersion(), "Every publish should advance the data version");
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+}
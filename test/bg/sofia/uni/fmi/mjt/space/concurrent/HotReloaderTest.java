@@ -0,0 +1,200 @@
+package bg.sofia.uni.fmi.mjt.space.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.KeyGenerator;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotReloaderTest {
+
+    private static final Duration DEBOUNCE = Duration.ofMillis(100);
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private static final String ROCKETS_CSV =
+            "Unnamed: 0,Name,Wiki,Rocket Height\n" +
+                    "315,Saturn V,https://en.wikipedia.org/wiki/Saturn_V,110.6 m\n";
+
+    private static final String HEADER =
+            "Unnamed: 0,Company Name,Location,Datum,Detail,Status Rocket, Rocket,Status Mission\n";
+
+    private static final String MISSION =
+            ",NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Tue Aug 27, 1985\",Saturn V | STS-51-I," +
+                    "StatusRetired,\"450.0 \",Success\n";
+
+    @TempDir
+    Path directory;
+
+    private static String missions(int count) {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < count; i++) {
+            csv.append(i).append(MISSION);
+        }
+        return csv.toString();
+    }
+
+    private ConcurrentSpaceScanner scanner(int missions) throws NoSuchAlgorithmException {
+        return new ConcurrentSpaceScanner(new StringReader(missions(missions)), new StringReader(ROCKETS_CSV),
+                KeyGenerator.getInstance("AES").generateKey());
+    }
+
+    private static class LatchListener implements ReloadListener {
+        private final CountDownLatch succeeded = new CountDownLatch(1);
+        private final CountDownLatch failed = new CountDownLatch(1);
+
+        @Override
+        public void reloadSucceeded(Duration duration) {
+            succeeded.countDown();
+        }
+
+        @Override
+        public void reloadFailed(Exception failure) {
+            failed.countDown();
+        }
+    }
+
+    /**
+     * A scanner whose file reloads start, then wait until they are released.
+     */
+    private static class BlockingScanner extends ConcurrentSpaceScanner {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        BlockingScanner() throws NoSuchAlgorithmException {
+            super(new StringReader(missions(1)), new StringReader(ROCKETS_CSV),
+                    KeyGenerator.getInstance("AES").generateKey());
+        }
+
+        @Override
+        public void reloadFromFiles(Path missionsFile, Path rocketsFile) throws IOException {
+            started.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                throw new IOException("The reload was interrupted", e);
+            }
+            super.reloadFromFiles(missionsFile, rocketsFile);
+        }
+    }
+
+    @Test
+    void testStart_whenArgumentsAreInvalid() throws NoSuchAlgorithmException {
+        ConcurrentSpaceScanner scanner = scanner(1);
+        Path file = directory.resolve("missions.csv");
+
+        assertThrows(IllegalArgumentException.class, () -> HotReloader.start(null, file, file, DEBOUNCE),
+                "start() should throw IllegalArgumentException when scanner is null");
+        assertThrows(IllegalArgumentException.class,
+                () -> HotReloader.start(scanner, file, file, Duration.ofMillis(-1)),
+                "start() should throw IllegalArgumentException when debounce is negative");
+    }
+
+    @Test
+    void testWatch_reloadsWhenFileChanges() throws Exception {
+        Path missionsFile = Files.writeString(directory.resolve("missions.csv"), missions(1));
+        Path rocketsFile = Files.writeString(directory.resolve("rockets.csv"), ROCKETS_CSV);
+        ConcurrentSpaceScanner scanner = scanner(1);
+        LatchListener listener = new LatchListener();
+
+        try (HotReloader reloader = HotReloader.start(scanner, missionsFile, rocketsFile, DEBOUNCE, listener)) {
+            Files.writeString(missionsFile, missions(3));
+
+            assertTrue(listener.succeeded.await(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                    "A change of the missions file should trigger a reload");
+            assertEquals(3, scanner.getAllMissions().size(), "The reloaded dataset should be published");
+            assertEquals(1, reloader.stats().reloads(), "The reload should be counted");
+            assertFalse(reloader.stats().lastReloadDuration().isNegative(), "The reload duration should be reported");
+        }
+    }
+
+    @Test
+    void testWatch_reportsFailureAndKeepsDataset() throws Exception {
+        Path missionsFile = Files.writeString(directory.resolve("missions.csv"), missions(2));
+        Path rocketsFile = Files.writeString(directory.resolve("rockets.csv"), ROCKETS_CSV);
+        ConcurrentSpaceScanner scanner = scanner(2);
+        LatchListener listener = new LatchListener();
+
+        try (HotReloader reloader = HotReloader.start(scanner, missionsFile, rocketsFile, DEBOUNCE, listener)) {
+            Files.writeString(missionsFile, HEADER + "not,a,mission\n");
+
+            assertTrue(listener.failed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                    "An unparsable file should be reported as a failed reload");
+            assertEquals(2, scanner.getAllMissions().size(), "A failed reload should keep the current dataset");
+            assertTrue(reloader.stats().lastFailure().isPresent(), "The failure should be reported");
+        }
+    }
+
+    @Test
+    void testRequestReload_debouncesBurstsIntoOneReload() throws Exception {
+        Path missionsFile = Files.writeString(directory.resolve("missions.csv"), missions(4));
+        Path rocketsFile = Files.writeString(directory.resolve("rockets.csv"), ROCKETS_CSV);
+        ConcurrentSpaceScanner scanner = scanner(1);
+        LatchListener listener = new LatchListener();
+
+        try (HotReloader reloader = HotReloader.start(scanner, missionsFile, rocketsFile, Duration.ofSeconds(1),
+                listener)) {
+            for (int i = 0; i < 10; i++) {
+                reloader.requestReload();
+            }
+
+            assertTrue(listener.succeeded.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "The burst should be reloaded");
+            assertEquals(1, reloader.stats().reloads(), "A burst of requests should collapse into one reload");
+            assertEquals(4, scanner.getAllMissions().size(), "The reloaded dataset should be published");
+        }
+    }
+
+    @Test
+    void testClose_letsRunningReloadComplete() throws Exception {
+        Path missionsFile = Files.writeString(directory.resolve("missions.csv"), missions(3));
+        Path rocketsFile = Files.writeString(directory.resolve("rockets.csv"), ROCKETS_CSV);
+        BlockingScanner scanner = new BlockingScanner();
+        LatchListener listener = new LatchListener();
+        HotReloader reloader = HotReloader.start(scanner, missionsFile, rocketsFile, Duration.ZERO, listener);
+
+        reloader.requestReload();
+        assertTrue(scanner.started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "The reload should start");
+        Thread closer = new Thread(() -> {
+            try {
+                reloader.close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        closer.start();
+        closer.join(DEBOUNCE.toMillis());
+        assertTrue(closer.isAlive(), "close() should wait for the running reload");
+
+        scanner.released.countDown();
+        closer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+
+        assertFalse(closer.isAlive(), "close() should return once the reload completes");
+        assertTrue(listener.succeeded.await(0, TimeUnit.SECONDS), "The running reload should complete");
+        assertEquals(0, reloader.stats().failures(), "The running reload should not be counted as failed");
+        assertEquals(3, scanner.getAllMissions().size(), "The reloaded dataset should be published");
+    }
+
+    @Test
+    void testClose_dropsPendingReload() throws Exception {
+        Path missionsFile = Files.writeString(directory.resolve("missions.csv"), missions(3));
+        Path rocketsFile = Files.writeString(directory.resolve("rockets.csv"), ROCKETS_CSV);
+        ConcurrentSpaceScanner scanner = scanner(1);
+        LatchListener listener = new LatchListener();
+        HotReloader reloader = HotReloader.start(scanner, missionsFile, rocketsFile, Duration.ofMinutes(1), listener);
+
+        reloader.requestReload();
+        reloader.close();
+
+        assertEquals(0, reloader.stats().reloads() + reloader.stats().failures(),
+                "A reload that has not started should be dropped");
+        assertEquals(1, scanner.getAllMissions().size(), "The dataset should be kept");
+    }
+}
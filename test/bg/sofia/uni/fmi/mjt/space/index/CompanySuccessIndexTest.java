@@ -0,0 +1,109 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompanySuccessIndexTest {
+
+    private static final LocalDate JUNE_17 = LocalDate.of(1985, 6, 17);
+    private static final LocalDate JULY_25 = LocalDate.of(1985, 7, 25);
+    private static final LocalDate AUGUST_27 = LocalDate.of(1985, 8, 27);
+
+    private MissionColumns columns;
+    private DateIndex dateIndex;
+    private CompanySuccessIndex index;
+    private int nasa;
+    private int arianespace;
+
+    private static Mission mission(String company, LocalDate date, MissionStatus status) {
+        return new Mission("0", company, "LC-39A, Kennedy Space Center, Florida, USA", date,
+                new Detail("Saturn V", "Apollo"), RocketStatus.STATUS_RETIRED, Optional.empty(), status);
+    }
+
+    /**
+     * NASA succeeds twice on July 25 and once on June 17 and August 27, and fails once in between;
+     * Arianespace only fails. Rows are added out of date order.
+     */
+    @BeforeEach
+    void setUp() {
+        columns = new MissionColumns();
+        columns.add(mission("NASA", AUGUST_27, MissionStatus.SUCCESS));
+        columns.add(mission("NASA", JULY_25, MissionStatus.SUCCESS));
+        columns.add(mission("Arianespace", JULY_25, MissionStatus.FAILURE));
+        columns.add(mission("NASA", JUNE_17, MissionStatus.SUCCESS));
+        columns.add(mission("NASA", JULY_25, MissionStatus.SUCCESS));
+        columns.add(mission("NASA", JULY_25.plusDays(1), MissionStatus.PARTIAL_FAILURE));
+        dateIndex = new DateIndex(columns);
+        index = new CompanySuccessIndex(columns, dateIndex);
+        nasa = columns.companies().codeOf("NASA");
+        arianespace = columns.companies().codeOf("Arianespace");
+    }
+
+    @Test
+    void testConstructor_whenArgumentsAreNull() {
+        assertThrows(IllegalArgumentException.class, () -> new CompanySuccessIndex(null, dateIndex),
+                "Constructor should throw IllegalArgumentException when missions are null");
+        assertThrows(IllegalArgumentException.class, () -> new CompanySuccessIndex(columns, null),
+                "Constructor should throw IllegalArgumentException when dateIndex is null");
+    }
+
+    @Test
+    void testSuccesses_countsOnlySuccessfulMissionsInTheWindow() {
+        assertEquals(4, index.successes(nasa, JUNE_17, AUGUST_27), "Every NASA success should be counted");
+        assertEquals(2, index.successes(nasa, JUNE_17.plusDays(1), AUGUST_27.minusDays(1)),
+                "Only the successes strictly inside should be counted");
+        assertEquals(0, index.successes(arianespace, JUNE_17, AUGUST_27), "Failures should not be counted");
+    }
+
+    @Test
+    void testSuccesses_whenWindowIsOneDay() {
+        assertEquals(2, index.successes(nasa, JULY_25, JULY_25), "Both successes of the day should be counted");
+        assertEquals(1, index.successes(nasa, JUNE_17, JUNE_17), "The first day should be included");
+        assertEquals(1, index.successes(nasa, AUGUST_27, AUGUST_27), "The last day should be included");
+        assertEquals(0, index.successes(nasa, JULY_25.plusDays(1), JULY_25.plusDays(1)),
+                "A day with only a partial failure should count nothing");
+    }
+
+    @Test
+    void testSuccesses_whenWindowIsOutsideTheData() {
+        assertEquals(0, index.successes(nasa, LocalDate.of(1957, 1, 1), JUNE_17.minusDays(1)),
+                "A window before all missions should count nothing");
+        assertEquals(0, index.successes(nasa, AUGUST_27.plusDays(1), LocalDate.of(2020, 1, 1)),
+                "A window after all missions should count nothing");
+        assertEquals(4, index.successes(nasa, LocalDate.MIN, LocalDate.MAX),
+                "An unbounded window should count every success");
+    }
+
+    @Test
+    void testSuccesses_whenCompanyIsUnknown() {
+        assertEquals(0, index.successes(index.companyCount() + 5, JUNE_17, AUGUST_27),
+                "A company without successes should count nothing");
+    }
+
+    @Test
+    void testAddRows_keepsCountsForEarlierAndNewCompanies() {
+        columns.add(mission("NASA", JUNE_17.minusDays(1), MissionStatus.SUCCESS));
+        columns.add(mission("SpaceX", JULY_25, MissionStatus.SUCCESS));
+        index.addRows(columns, dateIndex.addNewRows(columns));
+        int spaceX = columns.companies().codeOf("SpaceX");
+
+        assertEquals(5, index.successes(nasa, JUNE_17.minusDays(1), AUGUST_27),
+                "An earlier appended success should be counted");
+        assertEquals(3, index.successes(nasa, JULY_25, AUGUST_27),
+                "An earlier appended success should not shift the later ones");
+        assertEquals(1, index.successes(spaceX, JULY_25, JULY_25), "A new company should be counted");
+        assertTrue(index.companyCount() > spaceX, "The new company should be indexed");
+        assertThrows(IllegalArgumentException.class, () -> index.addRows(columns, null),
+                "addRows() should throw IllegalArgumentException when the rows are null");
+    }
+}
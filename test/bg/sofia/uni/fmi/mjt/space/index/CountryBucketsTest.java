@@ -0,0 +1,98 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountryBucketsTest {
+
+    private static final String USA = "LC-39A, Kennedy Space Center, Florida, USA";
+    private static final String KAZAKHSTAN = "Site 31/6, Baikonur Cosmodrome, Kazakhstan";
+
+    private static Mission mission(String id, String location) {
+        return new Mission(id, "NASA", location, LocalDate.of(1985, 9, 12), new Detail("Saturn V", "Apollo"),
+                RocketStatus.STATUS_RETIRED, Optional.empty(), MissionStatus.SUCCESS);
+    }
+
+    private static MissionColumns columns(Mission... missions) {
+        MissionColumns columns = new MissionColumns();
+        for (Mission mission : missions) {
+            columns.add(mission);
+        }
+        return columns;
+    }
+
+    private static List<String> ids(Collection<Mission> missions) {
+        return missions.stream().map(Mission::id).toList();
+    }
+
+    @Test
+    void testConstructor_whenMissionsAreNull() {
+        assertThrows(IllegalArgumentException.class, () -> new CountryBuckets(null),
+                "Constructor should throw IllegalArgumentException when missions are null");
+    }
+
+    @Test
+    void testPartitions_areBuiltUpFrontInLoadOrder() {
+        MissionColumns columns = columns(mission("0", USA), mission("1", KAZAKHSTAN), mission("2", USA));
+        CountryBuckets buckets = new CountryBuckets(columns);
+        int usa = columns.countries().codeOf("USA");
+
+        Map<String, Collection<Mission>> partitions = buckets.partitionsByCountry();
+
+        assertEquals(List.of("0", "2"), ids(partitions.get("USA")), "USA missions should be in load order");
+        assertEquals(List.of("1"), ids(partitions.get("Kazakhstan")), "Kazakhstan should have its mission");
+        assertSame(partitions.get("USA"), buckets.missionsIn(usa), "A country should map to its partition");
+        assertSame(partitions, buckets.partitionsByCountry(), "The map should be built once");
+    }
+
+    @Test
+    void testPartitions_whenCountryIsUnknownOrEmpty() {
+        CountryBuckets buckets = new CountryBuckets(columns(mission("0", USA)));
+
+        assertTrue(buckets.missionsIn(-1).isEmpty(), "An unknown country should have no missions");
+        assertTrue(buckets.missionsIn(7).isEmpty(), "A country code out of range should have no missions");
+        assertTrue(new CountryBuckets(new MissionColumns()).partitionsByCountry().isEmpty(),
+                "No missions should mean no partitions");
+    }
+
+    @Test
+    void testPartitions_areImmutable() {
+        CountryBuckets buckets = new CountryBuckets(columns(mission("0", USA)));
+        Collection<Mission> usa = buckets.partitionsByCountry().get("USA");
+
+        assertThrows(UnsupportedOperationException.class, () -> usa.add(mission("1", USA)),
+                "Partitions should be immutable");
+        assertThrows(UnsupportedOperationException.class, usa::clear, "Partitions should be immutable");
+        assertThrows(UnsupportedOperationException.class, () -> buckets.partitionsByCountry().clear(),
+                "The partition map should be immutable");
+    }
+
+    @Test
+    void testAddNewRows_rebuildsOnlyAffectedPartitions() {
+        MissionColumns columns = columns(mission("0", USA), mission("1", KAZAKHSTAN));
+        CountryBuckets buckets = new CountryBuckets(columns);
+        Map<String, Collection<Mission>> before = buckets.partitionsByCountry();
+
+        columns.add(mission("2", USA));
+        columns.add(mission("3", "Tanegashima Space Center, Japan"));
+        buckets.addNewRows();
+        Map<String, Collection<Mission>> after = buckets.partitionsByCountry();
+
+        assertEquals(List.of("0", "2"), ids(after.get("USA")), "The appended mission should join its country");
+        assertEquals(List.of("3"), ids(after.get("Japan")), "A new country should get a partition");
+        assertSame(before.get("Kazakhstan"), after.get("Kazakhstan"), "Unaffected partitions should be reused");
+        assertEquals(List.of("0"), ids(before.get("USA")), "A partition handed out earlier should not change");
+    }
+}
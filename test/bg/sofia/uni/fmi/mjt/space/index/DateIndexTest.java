@@ -0,0 +1,80 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateIndexTest {
+
+    private static MissionColumns columnsWithDates(LocalDate... dates) {
+        MissionColumns columns = new MissionColumns();
+        for (int i = 0; i < dates.length; i++) {
+            columns.add(new Mission(String.valueOf(i), "NASA", "LC-39A, Kennedy Space Center, Florida, USA", dates[i],
+                    new Detail("Saturn V", "Apollo"), RocketStatus.STATUS_RETIRED, Optional.empty(),
+                    MissionStatus.SUCCESS));
+        }
+        return columns;
+    }
+
+    @Test
+    void testConstructor_whenMissionsAreNull() {
+        assertThrows(IllegalArgumentException.class, () -> new DateIndex(null),
+                "Constructor should throw IllegalArgumentException when missions are null");
+    }
+
+    @Test
+    void testRow_ordersByDateAndKeepsLoadOrderForEqualDates() {
+        DateIndex index = new DateIndex(columnsWithDates(
+                LocalDate.of(1985, 9, 12), LocalDate.of(1957, 10, 4), LocalDate.of(1985, 9, 12),
+                LocalDate.of(1969, 7, 16)));
+
+        int[] rows = new int[index.size()];
+        for (int position = 0; position < rows.length; position++) {
+            rows[position] = index.row(position);
+        }
+
+        assertArrayEquals(new int[] {1, 3, 0, 2}, rows, "Rows should be ordered by date, then by load order");
+    }
+
+    @Test
+    void testBounds_inclusiveWindow() {
+        DateIndex index = new DateIndex(columnsWithDates(
+                LocalDate.of(1957, 10, 4), LocalDate.of(1969, 7, 16), LocalDate.of(1969, 7, 16),
+                LocalDate.of(1985, 9, 12)));
+
+        assertEquals(1, index.lowerBound(LocalDate.of(1969, 7, 16)), "lowerBound should include the from day");
+        assertEquals(3, index.upperBound(LocalDate.of(1969, 7, 16)), "upperBound should include the to day");
+        assertEquals(0, index.lowerBound(LocalDate.MIN), "A window before all missions should start at 0");
+        assertEquals(4, index.upperBound(LocalDate.MAX), "A window after all missions should end at size");
+    }
+
+    @Test
+    void testAddNewRows_matchesRebuildingTheIndex() {
+        MissionColumns columns = columnsWithDates(LocalDate.of(1985, 9, 12), LocalDate.of(1957, 10, 4),
+                LocalDate.of(1969, 7, 16));
+        DateIndex index = new DateIndex(columns);
+
+        MissionColumns more = columnsWithDates(LocalDate.of(2020, 1, 1), LocalDate.of(1969, 7, 16),
+                LocalDate.of(1961, 4, 12));
+        for (int row = 0; row < more.size(); row++) {
+            columns.add(more.mission(row));
+        }
+        int[] newRows = index.addNewRows(columns);
+        DateIndex rebuilt = new DateIndex(columns);
+
+        assertArrayEquals(new int[] {5, 4, 3}, newRows, "New rows should be returned in date order");
+        assertEquals(rebuilt.size(), index.size(), "Appending should index every new row");
+        for (int position = 0; position < index.size(); position++) {
+            assertEquals(rebuilt.row(position), index.row(position), "Position " + position + " should match a rebuild");
+        }
+        assertEquals(0, index.addNewRows(columns).length, "A second call without new rows should add nothing");
+    }
+}
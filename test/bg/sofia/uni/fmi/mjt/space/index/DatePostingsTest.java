@@ -0,0 +1,62 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatePostingsTest {
+
+    private static final LocalDate EPOCH = LocalDate.ofEpochDay(0);
+
+    private static int[] rows(DatePostings postings, int key) {
+        int[] rows = new int[postings.size(key)];
+        for (int position = 0; position < rows.length; position++) {
+            rows[position] = postings.row(key, position);
+        }
+        return rows;
+    }
+
+    @Test
+    void testAdd_keepsDateOrderAndAddOrderForEqualDays() {
+        DatePostings postings = new DatePostings(1);
+        postings.add(0, 10, 0);
+        postings.add(0, 30, 1);
+        postings.add(0, 20, 2);
+        postings.add(0, 10, 3);
+        postings.add(0, 5, 4);
+
+        assertArrayEquals(new int[] {4, 0, 3, 2, 1}, rows(postings, 0),
+                "Postings should be ordered by day, equal days in the order they were added");
+    }
+
+    @Test
+    void testAdd_growsKeysAndCapacity() {
+        DatePostings postings = new DatePostings(0);
+        for (int row = 0; row < 100; row++) {
+            postings.add(3, row, row);
+        }
+
+        assertEquals(100, postings.size(3), "Every posting should be kept");
+        assertEquals(0, postings.size(2), "Other keys should stay empty");
+        assertEquals(0, postings.size(1_000), "A key never added should be empty");
+        assertTrue(postings.keys() >= 4, "The added key should be covered");
+    }
+
+    @Test
+    void testCount_isInclusiveOnBothEnds() {
+        DatePostings postings = new DatePostings(2);
+        postings.add(0, 10, 0);
+        postings.add(0, 10, 1);
+        postings.add(0, 20, 2);
+        postings.add(1, 15, 3);
+
+        assertEquals(2, postings.count(0, EPOCH.plusDays(10), EPOCH.plusDays(10)), "One day should be inclusive");
+        assertEquals(3, postings.count(0, EPOCH.plusDays(10), EPOCH.plusDays(20)), "Both ends should be inclusive");
+        assertEquals(0, postings.count(0, EPOCH.plusDays(11), EPOCH.plusDays(19)), "A gap should count nothing");
+        assertEquals(0, postings.count(0, EPOCH.plusDays(21), EPOCH.plusDays(30)), "A later window should count nothing");
+        assertEquals(1, postings.count(1, EPOCH, EPOCH.plusDays(30)), "Keys should be counted separately");
+        assertEquals(0, postings.count(7, EPOCH, EPOCH.plusDays(30)), "An unknown key should count nothing");
+    }
+}
@@ -0,0 +1,130 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RocketJoinIndexTest {
+
+    private static final LocalDate FIRST_LAUNCH = LocalDate.of(1985, 6, 17);
+
+    private MissionColumns columns;
+    private DateIndex dateIndex;
+    private List<Rocket> rockets;
+    private RocketJoinIndex index;
+
+    private static Mission mission(String rocketName, int day, MissionStatus status) {
+        return new Mission("0", "NASA", "LC-39A, Kennedy Space Center, Florida, USA", FIRST_LAUNCH.plusDays(day),
+                new Detail(rocketName, "Payload"), RocketStatus.STATUS_RETIRED, Optional.empty(), status);
+    }
+
+    private static Rocket rocket(String id, String name) {
+        return new Rocket(id, name, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Saturn V flies on days 0, 10 and 20, failing on day 10, and two rockets share its name; Scout X-3
+     * flies once, out of load order; Proton M never flies.
+     */
+    @BeforeEach
+    void setUp() {
+        columns = new MissionColumns();
+        columns.add(mission("Saturn V", 20, MissionStatus.SUCCESS));
+        columns.add(mission("Scout X-3", 5, MissionStatus.SUCCESS));
+        columns.add(mission("Saturn V", 0, MissionStatus.SUCCESS));
+        columns.add(mission("Saturn V", 10, MissionStatus.FAILURE));
+        dateIndex = new DateIndex(columns);
+        rockets = new ArrayList<>(List.of(rocket("1", "Saturn V"), rocket("2", "Scout X-3"),
+                rocket("3", "Proton M"), rocket("4", "Saturn V")));
+        index = new RocketJoinIndex(columns, dateIndex, rockets);
+    }
+
+    private int code(String rocketName) {
+        return columns.rocketNames().codeOf(rocketName);
+    }
+
+    @Test
+    void testConstructor_whenArgumentsAreNull() {
+        assertThrows(IllegalArgumentException.class, () -> new RocketJoinIndex(null, dateIndex, rockets),
+                "Constructor should throw IllegalArgumentException when missions are null");
+        assertThrows(IllegalArgumentException.class, () -> new RocketJoinIndex(columns, null, rockets),
+                "Constructor should throw IllegalArgumentException when dateIndex is null");
+        assertThrows(IllegalArgumentException.class, () -> new RocketJoinIndex(columns, dateIndex, null),
+                "Constructor should throw IllegalArgumentException when rockets are null");
+    }
+
+    @Test
+    void testLaunchesAndSuccesses_countTheWindow() {
+        assertEquals(3, index.launches(0, FIRST_LAUNCH, FIRST_LAUNCH.plusDays(20)), "Every launch should count");
+        assertEquals(2, index.successes(0, FIRST_LAUNCH, FIRST_LAUNCH.plusDays(20)), "Only successes should count");
+        assertEquals(1, index.launches(0, FIRST_LAUNCH.plusDays(10), FIRST_LAUNCH.plusDays(10)),
+                "A one-day window should include its day");
+        assertEquals(0, index.successes(0, FIRST_LAUNCH.plusDays(1), FIRST_LAUNCH.plusDays(19)),
+                "The failure in the window should not count as a success");
+        assertEquals(0, index.launches(0, FIRST_LAUNCH.plusDays(21), FIRST_LAUNCH.plusDays(100)),
+                "A window after all launches should count nothing");
+        assertEquals(1, index.launches(1, FIRST_LAUNCH, FIRST_LAUNCH.plusDays(20)), "Scout X-3 flew once");
+    }
+
+    @Test
+    void testLaunches_whenRocketsShareAName() {
+        assertEquals(index.launches(0, FIRST_LAUNCH, FIRST_LAUNCH.plusDays(20)),
+                index.launches(3, FIRST_LAUNCH, FIRST_LAUNCH.plusDays(20)),
+                "Rockets with the same name should share their missions");
+        assertArrayEquals(new int[] {0, 3}, index.rocketsNamed(code("Saturn V")),
+                "Both Saturn V rockets should be found, in list order");
+    }
+
+    @Test
+    void testLaunches_whenRocketHasNoMissions() {
+        int protonM = code("Proton M");
+
+        assertEquals(0, index.launches(2, FIRST_LAUNCH, FIRST_LAUNCH.plusDays(20)), "Proton M never flew");
+        assertEquals(0, index.successes(2, FIRST_LAUNCH, FIRST_LAUNCH.plusDays(20)), "Proton M never flew");
+        assertEquals(0, index.missionCount(protonM), "Proton M should have no missions");
+        assertEquals(0, index.missionRows(protonM).length, "Proton M should have no mission rows");
+        assertArrayEquals(new int[] {2}, index.rocketsNamed(protonM), "Proton M should still be named");
+    }
+
+    @Test
+    void testMissionRows_areInDateOrder() {
+        assertArrayEquals(new int[] {2, 3, 0}, index.missionRows(code("Saturn V")),
+                "Saturn V missions should be in date order");
+        assertEquals(3, index.missionCount(code("Saturn V")), "Saturn V flew three times");
+        assertEquals(0, index.rocketsNamed(columns.rocketNames().size() + 3).length,
+                "An unknown name should have no rockets");
+    }
+
+    @Test
+    void testAddRowsAndNewRockets_joinMissionsAndRocketsAddedInAnyOrder() {
+        rockets.add(rocket("5", "Falcon 9"));
+        index.addNewRockets(columns, rockets);
+        assertEquals(0, index.launches(4, FIRST_LAUNCH, FIRST_LAUNCH.plusDays(100)),
+                "A rocket added before its first mission should have no launches");
+
+        columns.add(mission("Falcon 9", 30, MissionStatus.SUCCESS));
+        columns.add(mission("Saturn V", -1, MissionStatus.SUCCESS));
+        index.addRows(columns, dateIndex.addNewRows(columns));
+
+        assertEquals(1, index.successes(4, FIRST_LAUNCH, FIRST_LAUNCH.plusDays(100)),
+                "The appended mission should join the rocket added before it");
+        assertEquals(4, index.launches(0, FIRST_LAUNCH.minusDays(1), FIRST_LAUNCH.plusDays(20)),
+                "An earlier appended mission should be counted");
+        assertArrayEquals(new int[] {5, 2, 3, 0}, index.missionRows(code("Saturn V")),
+                "An earlier appended mission should come first");
+        assertThrows(IllegalArgumentException.class, () -> index.addNewRockets(columns, List.of()),
+                "addNewRockets() should throw IllegalArgumentException when rockets were removed");
+    }
+}
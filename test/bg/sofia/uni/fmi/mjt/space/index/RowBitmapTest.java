@@ -0,0 +1,130 @@
+package bg.sofia.uni.fmi.mjt.space.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowBitmapTest {
+
+    private static final int CHUNK = 1 << 16;
+
+    /**
+     * Random rows over three chunks: a sparse one, a dense one past the array limit and a half-full one.
+     */
+    private static BitSet randomRows(Random random) {
+        BitSet rows = new BitSet();
+        for (int i = 0; i < 1_000; i++) {
+            rows.set(random.nextInt(CHUNK));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            rows.set(CHUNK + random.nextInt(CHUNK));
+        }
+        for (int i = 0; i < 4_000; i++) {
+            rows.set(3 * CHUNK + random.nextInt(CHUNK / 2));
+        }
+        return rows;
+    }
+
+    private static RowBitmap bitmapOf(BitSet rows) {
+        RowBitmap bitmap = new RowBitmap();
+        rows.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void assertSameRows(BitSet expected, RowBitmap actual, String message) {
+        assertArrayEquals(expected.stream().toArray(), actual.toArray(), message);
+        assertEquals(expected.cardinality(), actual.cardinality(), message + ": cardinality");
+    }
+
+    @Test
+    void testAdd_inAnyOrderAcrossArrayAndBitmapChunks() {
+        BitSet expected = new BitSet();
+        RowBitmap bitmap = new RowBitmap();
+        Random random = new Random(7);
+        for (int i = 0; i < 30_000; i++) {
+            int row = random.nextInt(4 * CHUNK);
+            expected.set(row);
+            bitmap.add(row);
+        }
+        bitmap.add(5);
+        bitmap.add(5);
+        expected.set(5);
+
+        assertSameRows(expected, bitmap, "Added rows should be kept once each, in increasing order");
+        assertTrue(bitmap.contains(5), "An added row should be contained");
+        assertFalse(bitmap.contains(-1), "A negative row should never be contained");
+        assertFalse(bitmap.contains(5 * CHUNK), "A row of a missing chunk should not be contained");
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1),
+                "add() should throw IllegalArgumentException when row is negative");
+    }
+
+    @Test
+    void testSetOperations_matchBitSet() {
+        Random random = new Random(42);
+        for (int round = 0; round < 5; round++) {
+            BitSet left = randomRows(random);
+            BitSet right = randomRows(random);
+            RowBitmap leftBitmap = bitmapOf(left);
+            RowBitmap rightBitmap = bitmapOf(right);
+
+            BitSet and = (BitSet) left.clone();
+            and.and(right);
+            BitSet or = (BitSet) left.clone();
+            or.or(right);
+            BitSet andNot = (BitSet) left.clone();
+            andNot.andNot(right);
+
+            assertSameRows(and, leftBitmap.and(rightBitmap), "and() should intersect");
+            assertEquals(and.cardinality(), leftBitmap.andCardinality(rightBitmap),
+                    "andCardinality() should count the intersection");
+            assertSameRows(or, leftBitmap.or(rightBitmap), "or() should unite");
+            assertSameRows(andNot, leftBitmap.andNot(rightBitmap), "andNot() should subtract");
+            assertSameRows(left, leftBitmap, "Operations should not change their operands");
+        }
+    }
+
+    @Test
+    void testSetOperations_withEmpty() {
+        RowBitmap bitmap = bitmapOf(randomRows(new Random(1)));
+
+        assertTrue(bitmap.and(RowBitmap.EMPTY).isEmpty(), "Intersecting with EMPTY should be empty");
+        assertArrayEquals(bitmap.toArray(), bitmap.or(RowBitmap.EMPTY).toArray(), "Uniting with EMPTY");
+        assertArrayEquals(bitmap.toArray(), bitmap.andNot(RowBitmap.EMPTY).toArray(), "Subtracting EMPTY");
+        assertTrue(bitmap.andNot(bitmap).isEmpty(), "Subtracting a bitmap from itself should be empty");
+    }
+
+    @Test
+    void testAnd_ofDenseChunksWithFewCommonRows() {
+        BitSet evens = new BitSet();
+        BitSet odds = new BitSet();
+        for (int row = 0; row < CHUNK; row++) {
+            (row % 2 == 0 ? evens : odds).set(row);
+        }
+        evens.set(11);
+        odds.set(10);
+
+        BitSet expected = new BitSet();
+        expected.set(10);
+        expected.set(11);
+        assertSameRows(expected, bitmapOf(evens).and(bitmapOf(odds)),
+                "A sparse intersection of dense chunks should keep exactly the common rows");
+    }
+
+    @Test
+    void testForEach_visitsRowsInIncreasingOrder() {
+        BitSet rows = randomRows(new Random(3));
+        BitSet visited = new BitSet();
+        int[] previous = {-1};
+
+        bitmapOf(rows).forEach(row -> {
+            assertTrue(row > previous[0], "Rows should be visited in increasing order");
+            previous[0] = row;
+            visited.set(row);
+        });
+
+        assertEquals(rows, visited, "Every row should be visited");
+    }
+}
@@ -0,0 +1,86 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CSVRecordReaderTest {
+
+    private static List<String> records(String content) {
+        return new CSVRecordReader(new StringReader(content)).stream().toList();
+    }
+
+    @Test
+    void testConstructor_whenReaderIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new CSVRecordReader(null),
+                "Constructor should throw IllegalArgumentException when reader is null");
+    }
+
+    @Test
+    void testNext_whenEmpty() {
+        CSVRecordReader reader = new CSVRecordReader(new StringReader(""));
+
+        assertFalse(reader.hasNext(), "An empty text should have no records");
+        assertThrows(NoSuchElementException.class, reader::next,
+                "next() should throw NoSuchElementException when there are no more records");
+    }
+
+    @Test
+    void testNext_splitsAtLineFeedsOutsideQuotes() {
+        assertEquals(List.of("a,\"b\nc\",d", "e,\"\"\"f\n\"\"\"", "g"),
+                records("a,\"b\nc\",d\ne,\"\"\"f\n\"\"\"\ng\n"),
+                "A line feed inside quotes should stay in its record");
+    }
+
+    @Test
+    void testNext_dropsCarriageReturnBeforeLineFeed() {
+        assertEquals(List.of("a", "\"b\r\nc\"", "", "d"), records("a\r\n\"b\r\nc\"\r\n\r\nd"),
+                "Only the carriage return ending a record should be dropped");
+    }
+
+    @Test
+    void testNext_whenRecordIsLongerThanBuffer() {
+        String longField = "x".repeat(20_000);
+
+        assertEquals(List.of("\"" + longField + "\n" + longField + "\"", "y"),
+                records("\"" + longField + "\n" + longField + "\"\ny\n"),
+                "A record should be read whole across buffer fills");
+    }
+
+    @Test
+    void testLineNumber_countsLineFeedsInsideQuotes() {
+        CSVRecordReader reader = new CSVRecordReader(new StringReader("header\n\"a\nb\nc\"\nd\n"));
+        List<Long> lineNumbers = new ArrayList<>();
+        while (reader.hasNext()) {
+            reader.next();
+            lineNumbers.add(reader.lineNumber());
+        }
+
+        assertEquals(List.of(1L, 2L, 5L), lineNumbers, "Records should be numbered by the line they start on");
+    }
+
+    @Test
+    void testNext_whenReadFails() {
+        Reader failing = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("disk error");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> new CSVRecordReader(failing).hasNext(),
+                "A read error should be thrown as UncheckedIOException");
+    }
+}
@@ -0,0 +1,138 @@
+package bg.sofia.uni.fmi.mjt.space.loader;
+
+import bg.sofia.uni.fmi.mjt.space.parser.RecordParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCSVLoaderTest {
+
+    private static final RecordParser<String> IDENTITY = s -> s;
+
+    @TempDir
+    Path directory;
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(directory.resolve("data.csv"), content, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> load(Path file, int minChunkSize) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            return new ParallelCSVLoader(pool, minChunkSize).load(file, () -> IDENTITY);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testConstructor_whenArgumentsAreInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCSVLoader(null),
+                "Constructor should throw IllegalArgumentException when pool is null");
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCSVLoader(ForkJoinPool.commonPool(), 0),
+                "Constructor should throw IllegalArgumentException when minChunkSize is not positive");
+    }
+
+    @Test
+    void testLoad_whenFileIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCSVLoader().load(null, () -> IDENTITY),
+                "load() should throw IllegalArgumentException when file is null");
+    }
+
+    @Test
+    void testLoad_whenOnlyHeader() throws IOException {
+        assertTrue(load(write("id,name"), 16).isEmpty(), "A file with only a header should have no records");
+        assertTrue(load(write(""), 16).isEmpty(), "An empty file should have no records");
+    }
+
+    @Test
+    void testLoad_keepsOrderAcrossManySmallChunks() throws IOException {
+        StringBuilder content = new StringBuilder("id,location,cost\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            String line = i + ",\"Site " + i + ", Baikonur Cosmodrome, Kazakhstan\",\"" + i + ",000.0 \"";
+            expected.add(line);
+            content.append(line).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+
+        assertEquals(expected, load(write(content.toString()), 16),
+                "Records should be identical and in file order whatever the chunk size");
+    }
+
+    @Test
+    void testLoad_doesNotCutInsideQuotes() throws IOException {
+        String record = "1,\"first line\nsecond line, still quoted\",x";
+
+        List<String> records = load(write("header\n" + record + "\n2,b,c"), 1);
+
+        assertEquals(List.of(record, "2,b,c"), records, "A line feed inside quotes should not end a record");
+    }
+
+    @Test
+    void testLoad_multiByteCharacters() throws IOException {
+        String record = "1,\"Alc\u00e2ntara Launch Center, Maranh\u00e3o, Brazil\",x";
+
+        assertEquals(List.of(record, record), load(write("header\n" + record + "\n" + record + "\n"), 8),
+                "UTF-8 text should survive chunking");
+    }
+
+    @Test
+    void testLoad_whenLenient_reportsRejectedLinesInFileOrder() throws IOException {
+        RecordParser<String> rejectingBad = s -> {
+            if (s.startsWith("bad")) {
+                throw new IllegalArgumentException("bad record");
+            }
+            return s;
+        };
+        StringBuilder content = new StringBuilder("id,name\n");
+        List<String> expected = new ArrayList<>();
+        List<Long> expectedLineNumbers = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String line = (i % 7 == 3 ? "bad," : "good,") + "\"quoted\nfield " + i + "\"";
+            if (i % 7 == 3) {
+                expectedLineNumbers.add(2L + 2 * i);
+            } else {
+                expected.add(line);
+            }
+            content.append(line).append('\n');
+        }
+        List<RejectedLine> rejected = new ArrayList<>();
+        RejectBudget budget = new RejectBudget(IngestionPolicy.lenient(rejected::add, 100));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<String> records;
+        try {
+            records = new ParallelCSVLoader(pool, 16).load(write(content.toString()), () -> rejectingBad, budget);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(expected, records, "Only the good records should be returned, in file order");
+        assertEquals(expectedLineNumbers, rejected.stream().map(RejectedLine::lineNumber).toList(),
+                "Rejected lines should be numbered from the header line, across chunks");
+        assertTrue(rejected.get(0).text().startsWith("bad,"), "The raw text of a rejected line should be kept");
+        assertEquals(expectedLineNumbers.size(), budget.rejected(), "Every rejection should be counted");
+    }
+
+    @Test
+    void testLoad_whenBudgetIsExceeded() throws IOException {
+        RecordParser<String> rejectingAll = s -> {
+            throw new IllegalArgumentException("bad record");
+        };
+        Path file = write("header\na\nb\nc\n");
+        RejectBudget budget = new RejectBudget(IngestionPolicy.lenient(RejectSink.DISCARD, 2));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelCSVLoader().load(file, () -> rejectingAll, budget),
+                "load() should throw IllegalArgumentException when more lines than the budget are rejected");
+    }
+}
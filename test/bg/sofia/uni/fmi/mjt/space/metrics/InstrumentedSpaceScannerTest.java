@@ -0,0 +1,107 @@
+package bg.sofia.uni.fmi.mjt.space.metrics;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedSpaceScannerTest {
+
+    private static final String ROCKETS_CSV =
+            "Unnamed: 0,Name,Wiki,Rocket Height\n" +
+                    "315,Saturn V,https://en.wikipedia.org/wiki/Saturn_V,110.6 m\n" +
+                    "314,Saturn IB,https://en.wikipedia.org/wiki/Saturn_IB,43.2 m\n";
+
+    private static final String MISSIONS_CSV =
+            "Unnamed: 0,Company Name,Location,Datum,Detail,Status Rocket, Rocket,Status Mission\n" +
+                    "2115,NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Tue Aug 27, 1985\",Saturn V | STS-51-I,StatusRetired,\"450.0 \",Success\n" +
+                    "2121,NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Thu Jul 25, 1985\",Saturn IB | STS-51-F,StatusRetired,\"450.0 \",Success\n";
+
+    private static InstrumentedSpaceScanner newScanner() {
+        try {
+            SecretKey key = KeyGenerator.getInstance("AES").generateKey();
+            return new InstrumentedSpaceScanner(
+                    new MJTSpaceScanner(new StringReader(MISSIONS_CSV), new StringReader(ROCKETS_CSV), key));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void testConstructor_whenDelegateIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new InstrumentedSpaceScanner(null),
+                "Constructor should throw IllegalArgumentException when delegate is null");
+    }
+
+    @Test
+    void testStats_countsCallsAndResultSizes() {
+        InstrumentedSpaceScanner scanner = newScanner();
+
+        scanner.getAllMissions();
+        scanner.getAllMissions();
+        scanner.getAllMissions(MissionStatus.FAILURE);
+        scanner.getTopNLeastExpensiveMissions(1, MissionStatus.SUCCESS, RocketStatus.STATUS_RETIRED);
+
+        MethodStats allMissions = scanner.stats().get("getAllMissions");
+        assertEquals(2, allMissions.calls(), "Every call should be counted");
+        assertEquals(0, allMissions.errors(), "Successful calls should not be errors");
+        assertEquals(4, allMissions.resultSizes(), "The sizes of the results should be added up");
+        assertEquals(2.0, allMissions.meanResultSize(), "The mean result size should be per successful call");
+        assertTrue(allMissions.max().compareTo(allMissions.p50()) >= 0, "The max should not be below the median");
+
+        assertEquals(1, scanner.stats().get("getAllMissions(MissionStatus)").calls(),
+                "The overloads should be recorded separately");
+        assertEquals(0, scanner.stats().get("getAllMissions(MissionStatus)").resultSizes(),
+                "An empty result should have size zero");
+        assertEquals(0, scanner.stats().get("getAllRockets").calls(), "Methods that were not called should be zero");
+        assertEquals(12, scanner.stats().size(), "Every method of the API should be recorded");
+    }
+
+    @Test
+    void testStats_countsErrors() {
+        InstrumentedSpaceScanner scanner = newScanner();
+
+        assertThrows(TimeFrameMismatchException.class, () -> scanner.getCompanyWithMostSuccessfulMissions(
+                LocalDate.of(1990, 1, 1), LocalDate.of(1980, 1, 1)),
+                "Exceptions of the delegate should be rethrown");
+
+        MethodStats stats = scanner.stats().get("getCompanyWithMostSuccessfulMissions");
+        assertEquals(1, stats.calls(), "A failed call should be counted");
+        assertEquals(1, stats.errors(), "A failed call should be an error");
+        assertEquals(0, stats.meanResultSize(), "Failed calls should not have a result size");
+    }
+
+    @Test
+    void testRegisterMBean_publishesStats() throws JMException {
+        InstrumentedSpaceScanner scanner = newScanner();
+        scanner.getAllRockets();
+
+        ObjectName name = scanner.registerMBean("test-" + System.nanoTime());
+        try {
+            TabularData calls = (TabularData) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Calls");
+
+            assertEquals(1L, calls.get(new Object[] {"getAllRockets"}).get("value"),
+                    "The MBean should publish the call counts");
+            assertThrows(IllegalStateException.class, () -> scanner.registerMBean("again"),
+                    "registerMBean() should throw IllegalStateException when already registered");
+        } finally {
+            scanner.unregisterMBean();
+        }
+
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name),
+                "unregisterMBean() should remove the MBean");
+    }
+}
@@ -0,0 +1,75 @@
+package bg.sofia.uni.fmi.mjt.space.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testPercentile_whenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count(), "An empty histogram should have no values");
+        assertEquals(0, histogram.percentile(99), "An empty histogram should report zero");
+    }
+
+    @Test
+    void testPercentile_whenValuesAreSmallAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(5, histogram.percentile(50), "Values below 16 should be counted exactly");
+        assertEquals(10, histogram.percentile(100), "The 100th percentile should be the largest value");
+        assertEquals(10, histogram.max(), "The max should be the largest value");
+    }
+
+    @Test
+    void testPercentile_isWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertEquals(100_000, histogram.count(), "Every value should be counted");
+        assertWithinError(50_000_000, histogram.percentile(50));
+        assertWithinError(99_000_000, histogram.percentile(99));
+        assertWithinError(99_900_000, histogram.percentile(99.9));
+        assertEquals(100_000_000, histogram.max(), "The max should be exact");
+    }
+
+    @Test
+    void testPercentile_neverExceedsMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+
+        assertEquals(1_000_001, histogram.percentile(50), "A percentile should be capped by the max");
+    }
+
+    @Test
+    void testBuckets_coverTheWholeRange() {
+        for (long value : new long[] {0, 15, 16, 17, 31, 32, 1_000_000_007L, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+
+            assertTrue(LatencyHistogram.highestValueIn(bucket) >= value,
+                    "The bucket of " + value + " should not end below it");
+            assertTrue(bucket == 0 || LatencyHistogram.highestValueIn(bucket - 1) < value,
+                    "The bucket of " + value + " should be the first one that holds it");
+        }
+    }
+
+    @Test
+    void testRecord_whenValueIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().record(-1),
+                "record() should throw IllegalArgumentException when value is negative");
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().percentile(0),
+                "percentile() should throw IllegalArgumentException when percentile is out of range");
+    }
+
+    private static void assertWithinError(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 16,
+                "Expected " + expected + " within 1/16, but was " + actual);
+    }
+}
@@ -0,0 +1,52 @@
+package bg.sofia.uni.fmi.mjt.space.metrics;
+
+import bg.sofia.uni.fmi.mjt.space.loader.LoadPhase;
+import bg.sofia.uni.fmi.mjt.space.loader.LoadStats;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadMetricsTest {
+
+    private static LoadStats stats(long missionRows) {
+        return new LoadStats(1_000, missionRows, 10, 2, Map.of(LoadPhase.MISSION_PARSE, Duration.ofMillis(3)),
+                Duration.ofSeconds(1), 1 << 20);
+    }
+
+    @Test
+    void testRegister_whenArgumentsAreNull() {
+        assertThrows(IllegalArgumentException.class, () -> LoadMetrics.register(null, () -> stats(1)),
+                "register() should throw IllegalArgumentException when name is null");
+        assertThrows(IllegalArgumentException.class, () -> LoadMetrics.register("load", null),
+                "register() should throw IllegalArgumentException when stats is null");
+    }
+
+    @Test
+    void testRegister_publishesTheLatestStats() throws JMException {
+        AtomicReference<LoadStats> current = new AtomicReference<>(stats(90));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        ObjectName name = LoadMetrics.register("test-" + System.nanoTime(), current::get);
+        try {
+            assertEquals(100.0, server.getAttribute(name, "RowsPerSecond"), "Rows per second should be published");
+            assertEquals(2L, server.getAttribute(name, "RejectedRows"), "Rejected rows should be published");
+            TabularData phases = (TabularData) server.getAttribute(name, "PhaseNanos");
+            assertEquals(3_000_000L, phases.get(new Object[] {"MISSION_PARSE"}).get("value"),
+                    "Phase times should be published in nanoseconds");
+
+            current.set(stats(190));
+            assertEquals(190L, server.getAttribute(name, "MissionRows"), "The latest stats should be published");
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package bg.sofia.uni.fmi.mjt.space.parser;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.splitter.FieldCursorCSV;
+import bg.sofia.uni.fmi.mjt.space.splitter.SplitterCSV;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorParsersTest {
+
+    private static final String MISSION_LINE =
+            "2112,Arianespace,\"ELA-1, Guiana Space Centre, French Guiana, France\",\"Thu Sep 12, 1985\"," +
+                    "\"Ariane 3 | ECS 3, Spacenet 3\",StatusRetired,\"5,000.0 \",Failure";
+
+    private static void assertSameMission(Mission expected, Mission actual) {
+        assertAll(
+                () -> assertEquals(expected.id(), actual.id(), "id should match"),
+                () -> assertEquals(expected.company(), actual.company(), "company should match"),
+                () -> assertEquals(expected.location(), actual.location(), "location should match"),
+                () -> assertEquals(expected.date(), actual.date(), "date should match"),
+                () -> assertEquals(expected.detail(), actual.detail(), "detail should match"),
+                () -> assertEquals(expected.rocketStatus(), actual.rocketStatus(), "rocketStatus should match"),
+                () -> assertEquals(expected.cost(), actual.cost(), "cost should match"),
+                () -> assertEquals(expected.missionStatus(), actual.missionStatus(), "missionStatus should match")
+        );
+    }
+
+    @Test
+    void testMissionParser_cursorMatchesSplitter() {
+        Mission expected = new MissionParser(new SplitterCSV()).parseRecord(MISSION_LINE);
+        Mission actual = new MissionParser(new FieldCursorCSV()).parseRecord(MISSION_LINE);
+
+        assertSameMission(expected, actual);
+        assertEquals(Optional.of(5000.0), actual.cost(), "Thousands separators should be ignored");
+    }
+
+    @Test
+    void testMissionParser_cursorWhenNotEnoughColumns() {
+        MissionParser parser = new MissionParser(new FieldCursorCSV());
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parseRecord("M3,SpaceX"),
+                "parseRecord should throw IllegalArgumentException when columns are missing");
+    }
+
+    @Test
+    void testMissionParser_cursorWhenTooManyColumns() {
+        MissionParser parser = new MissionParser(new FieldCursorCSV());
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parseRecord(MISSION_LINE + ",extra"),
+                "parseRecord should throw IllegalArgumentException when there are extra columns");
+    }
+
+    @Test
+    void testParsers_cursorMatchesSplitterOnBundledDataset() throws IOException {
+        Path missionsFile = Path.of("all-missions-from-1957.csv");
+        Path rocketsFile = Path.of("all-rockets-from-1957.csv");
+        if (!Files.exists(missionsFile) || !Files.exists(rocketsFile)) {
+            return;
+        }
+
+        MissionParser splitterMissionParser = new MissionParser(new SplitterCSV());
+        MissionParser cursorMissionParser = new MissionParser(new FieldCursorCSV());
+        List<String> missionLines = Files.readAllLines(missionsFile);
+        for (String line : missionLines.subList(1, missionLines.size())) {
+            assertSameMission(splitterMissionParser.parseRecord(line), cursorMissionParser.parseRecord(line));
+        }
+
+        RocketParser splitterRocketParser = new RocketParser(new SplitterCSV());
+        RocketParser cursorRocketParser = new RocketParser(new FieldCursorCSV());
+        List<String> rocketLines = Files.readAllLines(rocketsFile);
+        for (String line : rocketLines.subList(1, rocketLines.size())) {
+            Rocket expected = splitterRocketParser.parseRecord(line);
+            Rocket actual = cursorRocketParser.parseRecord(line);
+            assertEquals(List.of(expected.id(), expected.name(), expected.wiki(), expected.height()),
+                    List.of(actual.id(), actual.name(), actual.wiki(), actual.height()),
+                    "Rocket should be parsed identically from " + line);
+        }
+    }
+}
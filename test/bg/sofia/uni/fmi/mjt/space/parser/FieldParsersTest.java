@@ -0,0 +1,86 @@
+package bg.sofia.uni.fmi.mjt.space.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldParsersTest {
+
+    private static double jdkCost(String s) {
+        return Double.parseDouble(s.replace(",", "").trim());
+    }
+
+    private static double jdkHeight(String s) {
+        return Double.parseDouble(s.substring(0, s.length() - 1).trim());
+    }
+
+    @Test
+    void testParseMissionDate_matchesFormatter() {
+        LocalDate date = LocalDate.of(1957, 10, 4);
+        while (date.getYear() < 2030) {
+            String text = date.format(FieldParsers.MISSION_DATE_FORMATTER);
+            assertEquals(date, FieldParsers.parseMissionDate(text, 0, text.length()),
+                    "Hand-rolled date parsing should match the formatter for " + text);
+            date = date.plusDays(3);
+        }
+    }
+
+    @Test
+    void testParseMissionDate_whenDayOfWeekDoesNotMatch() {
+        String text = "Mon Aug 07, 2020";
+
+        assertThrows(DateTimeParseException.class, () -> FieldParsers.parseMissionDate(text, 0, text.length()),
+                "A day of week that conflicts with the date should be rejected like the formatter does");
+    }
+
+    @Test
+    void testParseMissionDate_whenRangeIsInsideLine() {
+        String line = "x,\"Fri Aug 07, 2020\",y";
+
+        assertEquals(LocalDate.of(2020, 8, 7), FieldParsers.parseMissionDate(line, 3, 19),
+                "Parsing should respect the given range");
+    }
+
+    @Test
+    void testParseCost_matchesDoubleParseDouble() {
+        String[] costs = {"450.0 ", "5,000.0 ", "29.75", " 0.5", "-0", "+7", "70.", ".25", "1,2,3", "123456789012345",
+            "1234567890123456789", "0.1", "1e3", "  ,5 ", "0.30000000000000004"};
+
+        for (String cost : costs) {
+            assertEquals(jdkCost(cost), FieldParsers.parseCost(cost, 0, cost.length()),
+                    "Cost parsing should match Double.parseDouble for " + cost);
+        }
+    }
+
+    @Test
+    void testParseCost_randomDecimals() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            String cost = random.nextInt(100_000) + "." + random.nextInt(100_000_000) + " ";
+            assertEquals(jdkCost(cost), FieldParsers.parseCost(cost, 0, cost.length()),
+                    "Cost parsing should match Double.parseDouble for " + cost);
+        }
+    }
+
+    @Test
+    void testParseCost_whenMalformed() {
+        String cost = "1, 000";
+
+        assertThrows(NumberFormatException.class, () -> FieldParsers.parseCost(cost, 0, cost.length()),
+                "Malformed costs should be rejected like Double.parseDouble does");
+    }
+
+    @Test
+    void testParseHeight_matchesDoubleParseDouble() {
+        String[] heights = {"58.2 m", "110.6 m", "70.0", "43.2", "9 m"};
+
+        for (String height : heights) {
+            assertEquals(jdkHeight(height), FieldParsers.parseHeight(height, 0, height.length()),
+                    "Height parsing should match Double.parseDouble for " + height);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package bg.sofia.uni.fmi.mjt.space.query;
+
+import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import bg.sofia.uni.fmi.mjt.space.index.BitmapIndex;
+import bg.sofia.uni.fmi.mjt.space.index.DateIndex;
+import bg.sofia.uni.fmi.mjt.space.index.RocketJoinIndex;
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.storage.MissionColumns;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MissionQueryTest {
+
+    private static final String[] COMPANIES = {"SpaceX", "NASA", "Roscosmos", "CASC", "Arianespace"};
+    private static final String[] LOCATIONS = {
+        "LC-39A, Kennedy Space Center, Florida, USA",
+        "SLC-40, Cape Canaveral AFS, Florida, USA",
+        "Site 31/6, Baikonur Cosmodrome, Kazakhstan",
+        "LC-2, Xichang Satellite Launch Center, China",
+        "ELA-3, Guiana Space Centre, French Guiana, France"
+    };
+    private static final String[] ROCKETS = {"Falcon 9", "Soyuz-2.1a", "Long March 3B", "Ariane 5 ECA"};
+    private static final LocalDate FIRST_LAUNCH = LocalDate.of(1990, 1, 1);
+    private static final int MISSION_COUNT = 500;
+
+    private List<Mission> all;
+    private MissionColumns columns;
+    private DateIndex dateIndex;
+    private RocketJoinIndex rocketJoinIndex;
+    private BitmapIndex bitmapIndex;
+
+    /**
+     * Missions in random launch order, so that the date index order differs from the load order.
+     */
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        all = new ArrayList<>();
+        columns = new MissionColumns();
+        for (int i = 0; i < MISSION_COUNT; i++) {
+            Mission mission = new Mission(String.valueOf(i), COMPANIES[random.nextInt(COMPANIES.length)],
+                    LOCATIONS[random.nextInt(LOCATIONS.length)], FIRST_LAUNCH.plusDays(random.nextInt(3_650)),
+                    new Detail(ROCKETS[random.nextInt(ROCKETS.length)], "Payload " + i),
+                    random.nextBoolean() ? RocketStatus.STATUS_ACTIVE : RocketStatus.STATUS_RETIRED,
+                    random.nextInt(4) == 0 ? Optional.empty() : Optional.of((double) random.nextInt(200)),
+                    MissionStatus.values()[random.nextInt(MissionStatus.values().length)]);
+            all.add(mission);
+            columns.add(mission);
+        }
+        dateIndex = new DateIndex(columns);
+        rocketJoinIndex = new RocketJoinIndex(columns, dateIndex, List.of());
+        bitmapIndex = new BitmapIndex(columns);
+    }
+
+    private MissionQuery query() {
+        return new MissionQuery(columns, dateIndex, rocketJoinIndex, bitmapIndex);
+    }
+
+    private List<Mission> scan(Predicate<Mission> predicate) {
+        return all.stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    private static boolean launchedBetween(Mission mission, LocalDate from, LocalDate to) {
+        return !mission.date().isBefore(from) && !mission.date().isAfter(to);
+    }
+
+    @Test
+    void testConstructor_whenArgumentsAreNull() {
+        assertThrows(IllegalArgumentException.class, () -> new MissionQuery(null, dateIndex, rocketJoinIndex,
+                bitmapIndex), "Constructor should throw IllegalArgumentException when missions is null");
+        assertThrows(IllegalArgumentException.class, () -> new MissionQuery(columns, dateIndex, rocketJoinIndex,
+                null), "Constructor should throw IllegalArgumentException when bitmapIndex is null");
+    }
+
+    @Test
+    void testFilters_whenArgumentsAreInvalid() {
+        assertThrows(TimeFrameMismatchException.class,
+                () -> query().launchedBetween(FIRST_LAUNCH.plusDays(1), FIRST_LAUNCH),
+                "launchedBetween() should throw TimeFrameMismatchException when to is before from");
+        assertThrows(IllegalArgumentException.class, () -> query().byCompany(),
+                "byCompany() should throw IllegalArgumentException when no company is given");
+        assertThrows(IllegalArgumentException.class, () -> query().inCountry("USA", null),
+                "inCountry() should throw IllegalArgumentException when a country is null");
+        assertThrows(IllegalArgumentException.class, () -> query().costBetween(10, 5),
+                "costBetween() should throw IllegalArgumentException when max is less than min");
+        assertThrows(IllegalArgumentException.class, () -> query().cheapest(0),
+                "cheapest() should throw IllegalArgumentException when n is not positive");
+    }
+
+    @Test
+    void testMissions_withoutFilters_returnsEverythingInLoadOrder() {
+        assertEquals(all, query().missions(), "A query without filters should return every mission");
+        assertTrue(query().explain().startsWith("full scan"), "A query without filters should scan");
+    }
+
+    @Test
+    void testMissions_whenDateWindowDrivesTheQuery() {
+        LocalDate from = FIRST_LAUNCH.plusDays(100);
+        LocalDate to = FIRST_LAUNCH.plusDays(300);
+
+        MissionQuery query = query().launchedBetween(from, to).withMissionStatus(MissionStatus.SUCCESS);
+
+        assertEquals(scan(m -> launchedBetween(m, from, to) && m.missionStatus() == MissionStatus.SUCCESS),
+                query.missions(), "Filtered missions should match a scan, in load order");
+        assertTrue(query.explain().startsWith("date index"), "A narrow window should drive the query");
+    }
+
+    @Test
+    void testMissions_whenBitmapsDriveTheQuery() {
+        MissionQuery query = query().inCountry("Kazakhstan", "China")
+                .launchedBetween(FIRST_LAUNCH, FIRST_LAUNCH.plusYears(9))
+                .withRocketStatus(RocketStatus.STATUS_ACTIVE);
+
+        assertEquals(scan(m -> (m.getCountry().equals("Kazakhstan") || m.getCountry().equals("China"))
+                        && launchedBetween(m, FIRST_LAUNCH, FIRST_LAUNCH.plusYears(9))
+                        && m.rocketStatus() == RocketStatus.STATUS_ACTIVE),
+                query.missions(), "Filtered missions should match a scan, in load order");
+        assertTrue(query.explain().startsWith("bitmaps of country, rocketStatus"),
+                "Two countries of active rockets should be more selective than nine years");
+    }
+
+    @Test
+    void testMissions_whenRocketDrivesTheQuery() {
+        MissionQuery query = query().withRocket("Falcon 9").byCompany("SpaceX", "NASA").costBetween(50, 150);
+
+        assertEquals(scan(m -> m.detail().rocketName().equals("Falcon 9")
+                        && (m.company().equals("SpaceX") || m.company().equals("NASA"))
+                        && m.cost().filter(cost -> cost >= 50 && cost <= 150).isPresent()),
+                query.missions(), "Filtered missions should match a scan, in load order");
+        assertTrue(query.explain().startsWith("rocketName index"), "The rocket name should drive the query");
+    }
+
+    @Test
+    void testCount_whenValueNeverOccurs() {
+        MissionQuery query = query().byCompany("Blue Origin").withMissionStatus(MissionStatus.SUCCESS);
+
+        assertEquals(0, query.count(), "A company that never occurs should match nothing");
+        assertTrue(query.explain().startsWith("bitmaps of company, missionStatus: 0 candidate rows"),
+                "A value missing from the dictionary should empty the query without a scan");
+    }
+
+    @Test
+    void testFilters_areCombinedWithAnd() {
+        MissionQuery query = query().byCompany("SpaceX").byCompany("NASA");
+
+        assertEquals(0, query.count(), "Repeated filters should all have to match");
+    }
+
+    @Test
+    void testIdsAndValues_projectTheMatchingMissions() {
+        MissionQuery query = query().atLocation(LOCATIONS[0]);
+        List<Mission> expected = scan(m -> m.location().equals(LOCATIONS[0]));
+
+        assertEquals(expected.stream().map(Mission::id).toList(), query.ids(), "Ids should be projected");
+        assertEquals(expected.stream().map(Mission::company).toList(), query.values(MissionField.COMPANY),
+                "Companies should be projected");
+        assertEquals(expected.stream().map(m -> String.valueOf(m.date().getYear())).toList(),
+                query.values(MissionField.YEAR), "Years should be projected");
+    }
+
+    @Test
+    void testCostSummary_ignoresMissingCosts() {
+        List<Mission> expected = scan(m -> m.company().equals("CASC"));
+        List<Double> costs = expected.stream().flatMap(m -> m.cost().stream()).toList();
+
+        CostSummary summary = query().byCompany("CASC").costSummary();
+
+        assertEquals(expected.size(), summary.missions(), "Every mission should be counted");
+        assertEquals(costs.size(), summary.costedMissions(), "Only known costs should be aggregated");
+        assertEquals(costs.stream().mapToDouble(Double::doubleValue).sum(), summary.sum(), 1e-9, "Sum of costs");
+        assertEquals(costs.stream().mapToDouble(Double::doubleValue).min().orElseThrow(), summary.min(), "Min cost");
+        assertEquals(costs.stream().mapToDouble(Double::doubleValue).max().orElseThrow(), summary.max(), "Max cost");
+    }
+
+    @Test
+    void testCostSummary_whenNothingMatches() {
+        CostSummary summary = query().inCountry("Atlantis").costSummary();
+
+        assertEquals(0, summary.missions(), "No mission should be counted");
+        assertTrue(Double.isNaN(summary.min()) && Double.isNaN(summary.mean()),
+                "Cost aggregates of no cost should be NO_COST");
+    }
+
+    @Test
+    void testCountByAndSummarizeBy_groupTheMatchingMissions() {
+        LocalDate to = FIRST_LAUNCH.plusYears(3);
+        Map<String, Long> expected = scan(m -> launchedBetween(m, FIRST_LAUNCH, to)).stream()
+                .collect(Collectors.groupingBy(Mission::getCountry, Collectors.counting()));
+
+        MissionQuery query = query().launchedBetween(FIRST_LAUNCH, to);
+
+        assertEquals(expected, query.countBy(MissionField.COUNTRY), "Missions should be counted per country");
+        Map<String, CostSummary> summaries = query.summarizeBy(MissionField.MISSION_STATUS);
+        for (MissionStatus status : MissionStatus.values()) {
+            double expectedMax = scan(m -> launchedBetween(m, FIRST_LAUNCH, to) && m.missionStatus() == status)
+                    .stream().flatMap(m -> m.cost().stream()).mapToDouble(Double::doubleValue).max().orElseThrow();
+            assertEquals(expectedMax, summaries.get(status.toString()).max(),
+                    "The max cost of every status should be aggregated");
+        }
+    }
+
+    @Test
+    void testTopBy_ordersByCountThenName() {
+        Map<String, Long> counts = query().countBy(MissionField.ROCKET_NAME);
+        List<String> expected = counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(2)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        assertEquals(expected, new ArrayList<>(query().topBy(MissionField.ROCKET_NAME, 2).keySet()),
+                "The rockets with the most missions should come first");
+    }
+
+    @Test
+    void testCheapestAndMostExpensive() {
+        List<Mission> usa = scan(m -> m.getCountry().equals("USA"));
+        Comparator<Mission> byCost = Comparator.comparing(m -> m.cost().orElse(Double.NaN));
+
+        assertEquals(usa.stream().sorted(byCost).limit(5).toList(), query().inCountry("USA").cheapest(5),
+                "The cheapest missions should come first, stable in load order");
+        assertEquals(usa.stream().filter(m -> m.cost().isPresent()).sorted(byCost.reversed()).limit(5).toList()
+                        .stream().map(m -> m.cost().orElseThrow()).toList(),
+                query().inCountry("USA").mostExpensive(5).stream().map(m -> m.cost().orElseThrow()).toList(),
+                "The most expensive missions should come first");
+    }
+
+    @Test
+    void testQuery_seesAppendedRows() {
+        MissionQuery query = query().byCompany("Blue Origin");
+        assertEquals(0, query.count(), "The company should not occur yet");
+
+        columns.add(new Mission("new", "Blue Origin", LOCATIONS[0], FIRST_LAUNCH, new Detail("New Shepard", "NS-1"),
+                RocketStatus.STATUS_ACTIVE, Optional.empty(), MissionStatus.SUCCESS));
+        bitmapIndex.addNewRows();
+
+        assertEquals(1, query.count(), "A company added after the query was built should be found");
+    }
+}
@@ -0,0 +1,63 @@
+package bg.sofia.uni.fmi.mjt.space.selection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    @Test
+    void testConstructor_whenKIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKSelector(0),
+                "Constructor should throw IllegalArgumentException when k is zero");
+        assertThrows(IllegalArgumentException.class, () -> new TopKSelector(-1),
+                "Constructor should throw IllegalArgumentException when k is negative");
+    }
+
+    @Test
+    void testDrainSorted_whenNothingOffered() {
+        assertArrayEquals(new int[0], new TopKSelector(3).drainSorted(),
+                "An empty selector should produce no ids");
+    }
+
+    @Test
+    void testDrainSorted_putsNaNLastAndKeepsOfferOrderForTies() {
+        TopKSelector selector = new TopKSelector(4);
+        double[] keys = {Double.NaN, 5.0, 1.0, 5.0, 1.0, Double.NaN};
+
+        for (int id = 0; id < keys.length; id++) {
+            selector.offer(keys[id], id);
+        }
+
+        assertArrayEquals(new int[] {2, 4, 1, 3}, selector.drainSorted(),
+                "Smallest keys should come first, ties in offer order and NaN after every number");
+    }
+
+    @Test
+    void testDrainSorted_matchesStableSort() {
+        Random random = new Random(42);
+        double[] keys = new double[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(500);
+        }
+
+        for (int k : new int[] {1, 10, 100, keys.length, Integer.MAX_VALUE}) {
+            TopKSelector selector = new TopKSelector(k);
+            for (int id = 0; id < keys.length; id++) {
+                selector.offer(keys[id], id);
+            }
+
+            int[] expected = IntStream.range(0, keys.length)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(id -> keys[id]))
+                    .limit(k)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            assertArrayEquals(expected, selector.drainSorted(), "Selection should match a stable sort for k = " + k);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package bg.sofia.uni.fmi.mjt.space.splitter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldCursorCSVTest {
+
+    private final FieldCursor cursor = new FieldCursorCSV();
+
+    private List<String> values(String line) {
+        List<String> result = new ArrayList<>();
+        cursor.reset(line, ',');
+        while (cursor.next()) {
+            result.add(cursor.value());
+        }
+        return result;
+    }
+
+    @Test
+    void testReset_whenLineIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> cursor.reset(null, ','),
+                "reset() should throw IllegalArgumentException when line is null");
+    }
+
+    @Test
+    void testNext_whenNotReset() {
+        assertFalse(cursor.next(), "A cursor that was never reset should have no fields");
+    }
+
+    @Test
+    void testOffsets_quotedFieldWithoutEscapes() {
+        String line = "1,\"LC-39A, Kennedy Space Center\",\"450.0 \"";
+        cursor.reset(line, ',');
+
+        assertTrue(cursor.next(), "First field should exist");
+        assertTrue(cursor.next(), "Second field should exist");
+        assertFalse(cursor.isEscaped(), "A field only wrapped in quotes should not need unescaping");
+        assertEquals("LC-39A, Kennedy Space Center", line.substring(cursor.start(), cursor.end()),
+                "Offsets should exclude the wrapping quotes");
+        assertTrue(cursor.next(), "Third field should exist");
+        assertEquals("450.0 ", line.substring(cursor.start(), cursor.end()),
+                "Offsets should keep whitespace inside the quotes");
+        assertFalse(cursor.next(), "There should be no fourth field");
+    }
+
+    @Test
+    void testValue_escapedQuotes() {
+        cursor.reset("\"a\"\"b\",c", ',');
+
+        assertTrue(cursor.next(), "First field should exist");
+        assertTrue(cursor.isEscaped(), "A field with escaped quotes should need unescaping");
+        assertEquals("a\"b", cursor.value(), "Escaped quotes should be unescaped on demand");
+    }
+
+    @Test
+    void testValues_matchSplitterCSV() {
+        StringSplitter splitter = new SplitterCSV();
+        String[] lines = {"", ",", "a,b,c", "\"\"", "\"\",x", "a\"b,c\"d,e", "\"a,b\",\"c,d\",\"e\"", "\"unterminated,x",
+            "x,\"\"\"\"", "\"a\"\"\",b,", "a\"\"b,c"};
+
+        for (String line : lines) {
+            assertEquals(splitter.split(line, ','), values(line), "Cursor should report the same fields for " + line);
+        }
+    }
+
+    @Test
+    void testValues_matchSplitterCSVOnBundledDataset() throws IOException {
+        StringSplitter splitter = new SplitterCSV();
+
+        for (String file : new String[] {"all-missions-from-1957.csv", "all-rockets-from-1957.csv"}) {
+            Path path = Path.of(file);
+            if (!Files.exists(path)) {
+                continue;
+            }
+            for (String line : Files.readAllLines(path)) {
+                assertEquals(splitter.split(line, ','), values(line), "Cursor should report the same fields for " + line);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package bg.sofia.uni.fmi.mjt.space.storage;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetSnapshotTest {
+
+    private static final List<Rocket> ROCKETS = List.of(
+            new Rocket("0", "Falcon 9 Block 5", Optional.of("https://en.wikipedia.org/wiki/Falcon_9"), Optional.of(70.0)),
+            new Rocket("1", "Tsyklon-3", Optional.empty(), Optional.empty()));
+
+    @TempDir
+    Path directory;
+
+    private static MissionColumns missions() {
+        MissionColumns missions = new MissionColumns();
+        missions.add(new Mission("0", "SpaceX", "LC-39A, Kennedy Space Center, Florida, USA", LocalDate.of(2020, 8, 7),
+                new Detail("Falcon 9 Block 5", "Starlink V1 L9 & BlackSky"), RocketStatus.STATUS_ACTIVE,
+                Optional.of(50.0), MissionStatus.SUCCESS));
+        missions.add(new Mission("1", "Yuzhmash", "Site 32/2, Plesetsk Cosmodrome, Russia", LocalDate.of(1977, 6, 17),
+                new Detail("Tsyklon-3", "Kosmos 921 \u2013 Cosmos"), RocketStatus.STATUS_RETIRED,
+                Optional.empty(), MissionStatus.FAILURE));
+        return missions;
+    }
+
+    @Test
+    void testWrite_whenArgumentsAreNull() {
+        assertThrows(IllegalArgumentException.class, () -> DatasetSnapshot.write(null, missions(), ROCKETS),
+                "write() should throw IllegalArgumentException when file is null");
+        assertThrows(IllegalArgumentException.class,
+                () -> DatasetSnapshot.write(directory.resolve("s"), null, ROCKETS),
+                "write() should throw IllegalArgumentException when missions is null");
+        assertThrows(IllegalArgumentException.class,
+                () -> DatasetSnapshot.write(directory.resolve("s"), missions(), null),
+                "write() should throw IllegalArgumentException when rockets is null");
+    }
+
+    @Test
+    void testOpen_roundTripsMissionsAndRockets() throws IOException {
+        Path file = directory.resolve("dataset.snapshot");
+        MissionColumns original = missions();
+        DatasetSnapshot.write(file, original, ROCKETS);
+
+        DatasetSnapshot snapshot = DatasetSnapshot.open(file);
+
+        assertEquals(original.size(), snapshot.missions().size(), "Row count should be restored");
+        for (int row = 0; row < original.size(); row++) {
+            assertEquals(original.mission(row), snapshot.missions().mission(row), "Row " + row + " should be restored");
+        }
+        assertEquals(ROCKETS, snapshot.rockets(), "Rockets should be restored");
+        assertEquals(original.companies().size(), snapshot.missions().companies().size(),
+                "Dictionaries should be restored");
+    }
+
+    @Test
+    void testOpen_whenEmpty() throws IOException {
+        Path file = directory.resolve("empty.snapshot");
+        DatasetSnapshot.write(file, new MissionColumns(), List.of());
+
+        DatasetSnapshot snapshot = DatasetSnapshot.open(file);
+
+        assertEquals(0, snapshot.missions().size(), "An empty dataset should have no missions");
+        assertTrue(snapshot.rockets().isEmpty(), "An empty dataset should have no rockets");
+    }
+
+    @Test
+    void testOpen_allowsAppendingAfterMappedRows() throws IOException {
+        Path file = directory.resolve("dataset.snapshot");
+        DatasetSnapshot.write(file, missions(), ROCKETS);
+        MissionColumns restored = DatasetSnapshot.open(file).missions();
+
+        Mission appended = missions().mission(0);
+        int row = restored.add(appended);
+
+        assertEquals(2, row, "An appended mission should get the next row id");
+        assertEquals(appended, restored.mission(row), "An appended mission should be restored");
+        assertEquals("1", restored.id(1), "Mapped rows should still be readable after an append");
+    }
+
+    @Test
+    void testOpen_restoresCountriesOfLocations() throws IOException {
+        Path file = directory.resolve("dataset.snapshot");
+        MissionColumns original = missions();
+        DatasetSnapshot.write(file, original, ROCKETS);
+
+        MissionColumns restored = DatasetSnapshot.open(file).missions();
+        int row = restored.add(new Mission("2", "CASC", "LC-9, Taiyuan Satellite Launch Center, China",
+                LocalDate.of(2020, 7, 3), new Detail("Long March 4B", "Gaofen-9 04"), RocketStatus.STATUS_ACTIVE,
+                Optional.of(64.68), MissionStatus.SUCCESS));
+
+        for (int i = 0; i < original.size(); i++) {
+            assertEquals(original.countries().decode(original.countryCode(i)),
+                    restored.countries().decode(restored.countryCode(i)), "The country of row " + i + " should be restored");
+            assertEquals(original.epochDay(i), restored.epochDay(i), "Mapped rows should be readable after an append");
+        }
+        assertEquals("China", restored.countries().decode(restored.countryCode(row)),
+                "An appended location should get its country");
+        assertEquals(64.68, restored.cost(row), "An appended row should keep its cost");
+    }
+
+    @Test
+    void testOpen_whenStringOffsetsAreOutOfOrder() throws IOException {
+        Path file = directory.resolve("dataset.snapshot");
+        DatasetSnapshot.write(file, missions(), ROCKETS);
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] idTable = ByteBuffer.allocate(18).putInt(2).putInt(0).putInt(1).putInt(2).put((byte) '0').put((byte) '1')
+                .array();
+        int idTableStart = indexOf(bytes, idTable);
+        ByteBuffer.wrap(bytes).putInt(idTableStart + 2 * Integer.BYTES, 3);
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> DatasetSnapshot.open(file),
+                "open() should throw IOException when the offsets of a string column decrease");
+    }
+
+    @Test
+    void testOpen_whenNotASnapshot() throws IOException {
+        Path file = Files.writeString(directory.resolve("missions.csv"), "Unnamed: 0,Company Name,Location");
+
+        assertThrows(IOException.class, () -> DatasetSnapshot.open(file),
+                "open() should throw IOException when the file is not a snapshot");
+    }
+
+    @Test
+    void testOpen_whenVersionIsUnknown() throws IOException {
+        Path file = Files.write(directory.resolve("future.snapshot"),
+                ByteBuffer.allocate(8).putInt(DatasetSnapshot.MAGIC).putInt(DatasetSnapshot.VERSION + 1).array());
+
+        assertThrows(IOException.class, () -> DatasetSnapshot.open(file),
+                "open() should throw IOException when the snapshot version is unknown");
+    }
+
+    @Test
+    void testOpen_whenTruncated() throws IOException {
+        Path file = directory.resolve("dataset.snapshot");
+        DatasetSnapshot.write(file, missions(), ROCKETS);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(IOException.class, () -> DatasetSnapshot.open(file),
+                "open() should throw IOException when the snapshot is truncated");
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern) {
+        for (int i = 0; i + pattern.length <= bytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + pattern.length, pattern, 0, pattern.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("The pattern should occur in the snapshot");
+    }
+}
@@ -0,0 +1,329 @@
+package bg.sofia.uni.fmi.mjt.space.storage;
+
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncryptedSnapshotTest {
+
+    private static final List<Rocket> ROCKETS = List.of(
+            new Rocket("0", "Falcon 9 Block 5", Optional.of("https://en.wikipedia.org/wiki/Falcon_9"), Optional.of(70.0)),
+            new Rocket("1", "Tsyklon-3", Optional.empty(), Optional.empty()));
+    private static final LocalDate FIRST_LAUNCH = LocalDate.of(2000, 1, 1);
+    private static final int MISSION_COUNT = 10;
+    private static final int ROWS_PER_BLOCK = 3;
+    private static final int HEADER_LENGTH = 20;
+    private static final int FRAME_HEADER_LENGTH = 17;
+
+    @TempDir
+    Path directory;
+
+    private SecretKey secretKey;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        secretKey = newSecretKey();
+    }
+
+    /**
+     * One mission a month in date order, so that every block covers three months.
+     */
+    private static MissionColumns missions() {
+        MissionColumns missions = new MissionColumns();
+        for (int i = 0; i < MISSION_COUNT; i++) {
+            missions.add(mission(i));
+        }
+        return missions;
+    }
+
+    private static Mission mission(int month) {
+        return new Mission(String.valueOf(month), month % 2 == 0 ? "SpaceX" : "Yuzhmash",
+                "Site 32/2, Plesetsk Cosmodrome, Russia", FIRST_LAUNCH.plusMonths(month),
+                new Detail(month % 2 == 0 ? "Falcon 9 Block 5" : "Tsyklon-3", "Kosmos " + month + " \u2013 Cosmos"),
+                RocketStatus.STATUS_ACTIVE, month % 3 == 0 ? Optional.empty() : Optional.of(month * 10.5),
+                month % 4 == 0 ? MissionStatus.FAILURE : MissionStatus.SUCCESS);
+    }
+
+    /**
+     * One mission a month over ten years, loaded in random order.
+     */
+    private static MissionColumns shuffledMissions() {
+        List<Integer> months = new ArrayList<>(IntStream.range(0, 120).boxed().toList());
+        Collections.shuffle(months, new Random(42));
+        MissionColumns missions = new MissionColumns();
+        months.forEach(month -> missions.add(mission(month)));
+        return missions;
+    }
+
+    private Path writeSnapshot() throws IOException, CipherException {
+        Path file = directory.resolve("dataset.encrypted");
+        EncryptedSnapshot.write(file, missions(), ROCKETS, secretKey, ROWS_PER_BLOCK);
+        return file;
+    }
+
+    @Test
+    void testWrite_whenArgumentsAreInvalid() {
+        Path file = directory.resolve("s");
+        assertThrows(IllegalArgumentException.class, () -> EncryptedSnapshot.write(null, missions(), ROCKETS, secretKey),
+                "write() should throw IllegalArgumentException when file is null");
+        assertThrows(IllegalArgumentException.class, () -> EncryptedSnapshot.write(file, missions(), ROCKETS, null),
+                "write() should throw IllegalArgumentException when secretKey is null");
+        assertThrows(IllegalArgumentException.class,
+                () -> EncryptedSnapshot.write(file, missions(), ROCKETS, secretKey, 0),
+                "write() should throw IllegalArgumentException when rowsPerBlock is not positive");
+        assertThrows(IllegalArgumentException.class,
+                () -> EncryptedSnapshot.write(file, missions(), ROCKETS, secretKey,
+                        EncryptedSnapshot.MAX_ROWS_PER_BLOCK + 1),
+                "write() should throw IllegalArgumentException when rowsPerBlock is too large");
+    }
+
+    @Test
+    void testWrite_doesNotContainPlaintext() throws IOException, CipherException {
+        byte[] bytes = Files.readAllBytes(writeSnapshot());
+
+        assertFalse(new String(bytes, StandardCharsets.ISO_8859_1).contains("Plesetsk"),
+                "The snapshot should not contain any plaintext");
+    }
+
+    @Test
+    void testReadStream_roundTripsMissionsAndRockets() throws IOException, CipherException {
+        MissionColumns original = missions();
+
+        EncryptedSnapshot snapshot;
+        try (InputStream in = Files.newInputStream(writeSnapshot())) {
+            snapshot = EncryptedSnapshot.read(in, secretKey);
+        }
+
+        assertEquals(original.size(), snapshot.missions().size(), "Row count should be restored");
+        for (int row = 0; row < original.size(); row++) {
+            assertEquals(original.mission(row), snapshot.missions().mission(row), "Row " + row + " should be restored");
+            assertEquals(original.mission(row).cost(), snapshot.missions().mission(row).cost(),
+                    "The cost of row " + row + " should be restored");
+        }
+        assertEquals(ROCKETS, snapshot.rockets(), "Rockets should be restored");
+        assertEquals(ROCKETS.get(0).wiki(), snapshot.rockets().get(0).wiki(), "Wiki pages should be restored");
+    }
+
+    @Test
+    void testReadStream_whenEmpty() throws IOException, CipherException {
+        Path file = directory.resolve("empty.encrypted");
+        EncryptedSnapshot.write(file, new MissionColumns(), List.of(), secretKey);
+
+        EncryptedSnapshot snapshot = EncryptedSnapshot.read(new ByteArrayInputStream(Files.readAllBytes(file)), secretKey);
+
+        assertEquals(0, snapshot.missions().size(), "An empty dataset should have no missions");
+        assertTrue(snapshot.rockets().isEmpty(), "An empty dataset should have no rockets");
+    }
+
+    @Test
+    void testReadWindow_returnsOnlyMissionsInTheWindow() throws IOException, CipherException {
+        MissionColumns original = missions();
+
+        EncryptedSnapshot snapshot = EncryptedSnapshot.read(writeSnapshot(), secretKey,
+                FIRST_LAUNCH.plusMonths(4), FIRST_LAUNCH.plusMonths(7));
+
+        assertEquals(4, snapshot.missions().size(), "Only the missions launched in the window should be read");
+        for (int row = 0; row < 4; row++) {
+            assertEquals(original.mission(row + 4), snapshot.missions().mission(row),
+                    "Missions in the window should keep their order");
+        }
+        assertEquals(ROCKETS, snapshot.rockets(), "All rockets should be read");
+    }
+
+    @Test
+    void testReadWindow_doesNotDecryptBlocksOutsideTheWindow() throws IOException, CipherException {
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[HEADER_LENGTH + FRAME_HEADER_LENGTH + 5] ^= 1;
+        Files.write(file, bytes);
+
+        EncryptedSnapshot snapshot = EncryptedSnapshot.read(file, secretKey,
+                FIRST_LAUNCH.plusMonths(3), FIRST_LAUNCH.plusMonths(5));
+
+        assertEquals(3, snapshot.missions().size(),
+                "A window outside the damaged first block should still be readable");
+        assertThrows(CipherException.class,
+                () -> EncryptedSnapshot.read(file, secretKey, FIRST_LAUNCH, FIRST_LAUNCH.plusMonths(1)),
+                "read() should throw CipherException when a block of the window was modified");
+    }
+
+    @Test
+    void testReadWindow_whenLaterBlockIsModified() throws IOException, CipherException {
+        Path file = directory.resolve("dataset.encrypted");
+        EncryptedSnapshot.write(file, shuffledMissions(), ROCKETS, secretKey, 16);
+        byte[] bytes = Files.readAllBytes(file);
+        int blockStart = HEADER_LENGTH;
+        for (int block = 0; block < 2; block++) {
+            blockStart += FRAME_HEADER_LENGTH + ByteBuffer.wrap(bytes, blockStart + 13, Integer.BYTES).getInt();
+        }
+        bytes[blockStart + FRAME_HEADER_LENGTH + 5] ^= 1;
+        Files.write(file, bytes);
+
+        for (int attempt = 0; attempt < 20; attempt++) {
+            assertThrows(CipherException.class,
+                    () -> EncryptedSnapshot.read(file, secretKey, LocalDate.of(1900, 1, 1), LocalDate.of(2100, 1, 1)),
+                    "read() should throw CipherException when a block decrypted in parallel was modified");
+        }
+    }
+
+    @Test
+    void testReadWindow_decryptsOnlyOverlappingBlocksOfUnsortedRows() throws IOException, CipherException {
+        MissionColumns original = shuffledMissions();
+        Path file = directory.resolve("shuffled.encrypted");
+        EncryptedSnapshot.write(file, original, ROCKETS, secretKey, ROWS_PER_BLOCK);
+
+        EncryptedSnapshot snapshot = EncryptedSnapshot.read(file, secretKey,
+                FIRST_LAUNCH.plusMonths(30), FIRST_LAUNCH.plusMonths(32));
+
+        assertEquals(1, snapshot.decryptedBlocks(),
+                "Blocks cut in date order should let a three-month window decrypt a single block of 40");
+        List<Mission> expected = IntStream.range(0, original.size())
+                .mapToObj(original::mission)
+                .filter(m -> !m.date().isBefore(FIRST_LAUNCH.plusMonths(30))
+                        && !m.date().isAfter(FIRST_LAUNCH.plusMonths(32)))
+                .toList();
+        assertEquals(expected, IntStream.range(0, snapshot.missions().size())
+                .mapToObj(snapshot.missions()::mission).toList(), "Missions in the window should keep their load order");
+    }
+
+    @Test
+    void testReadStream_restoresLoadOrderOfUnsortedRows() throws IOException, CipherException {
+        MissionColumns original = shuffledMissions();
+        Path file = directory.resolve("shuffled.encrypted");
+        EncryptedSnapshot.write(file, original, ROCKETS, secretKey, ROWS_PER_BLOCK);
+
+        EncryptedSnapshot snapshot;
+        try (InputStream in = Files.newInputStream(file)) {
+            snapshot = EncryptedSnapshot.read(in, secretKey);
+        }
+
+        assertEquals(original.size(), snapshot.missions().size(), "Row count should be restored");
+        for (int row = 0; row < original.size(); row++) {
+            assertEquals(original.mission(row), snapshot.missions().mission(row), "Row " + row + " should be restored");
+        }
+    }
+
+    @Test
+    void testWrite_whenDateOrderIsInvalid() {
+        Path file = directory.resolve("s");
+        MissionColumns missions = missions();
+        int[] reversed = IntStream.range(0, MISSION_COUNT).map(i -> MISSION_COUNT - 1 - i).toArray();
+        int[] duplicated = IntStream.range(0, MISSION_COUNT).map(i -> Math.max(i, 1)).toArray();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> EncryptedSnapshot.write(file, missions, reversed, ROCKETS, secretKey, ROWS_PER_BLOCK),
+                "write() should throw IllegalArgumentException when the rows are not in date order");
+        assertThrows(IllegalArgumentException.class,
+                () -> EncryptedSnapshot.write(file, missions, duplicated, ROCKETS, secretKey, ROWS_PER_BLOCK),
+                "write() should throw IllegalArgumentException when a row is listed twice");
+        assertThrows(IllegalArgumentException.class,
+                () -> EncryptedSnapshot.write(file, missions, new int[1], ROCKETS, secretKey, ROWS_PER_BLOCK),
+                "write() should throw IllegalArgumentException when rows are missing");
+    }
+
+    @Test
+    void testReadWindow_whenArgumentsAreInvalid() throws IOException, CipherException {
+        Path file = writeSnapshot();
+
+        assertThrows(IllegalArgumentException.class, () -> EncryptedSnapshot.read(file, secretKey, null, FIRST_LAUNCH),
+                "read() should throw IllegalArgumentException when from is null");
+        assertThrows(TimeFrameMismatchException.class,
+                () -> EncryptedSnapshot.read(file, secretKey, FIRST_LAUNCH.plusDays(1), FIRST_LAUNCH),
+                "read() should throw TimeFrameMismatchException when to is before from");
+    }
+
+    @Test
+    void testRead_whenKeyIsWrong() throws Exception {
+        Path file = writeSnapshot();
+        SecretKey otherKey = newSecretKey();
+        byte[] bytes = Files.readAllBytes(file);
+
+        assertThrows(CipherException.class, () -> EncryptedSnapshot.read(new ByteArrayInputStream(bytes), otherKey),
+                "read() should throw CipherException when the key is wrong");
+        assertThrows(CipherException.class, () -> EncryptedSnapshot.read(file, otherKey, FIRST_LAUNCH, FIRST_LAUNCH),
+                "read() should throw CipherException when the key is wrong");
+    }
+
+    @Test
+    void testReadStream_whenTruncated() throws IOException, CipherException {
+        byte[] bytes = Files.readAllBytes(writeSnapshot());
+
+        assertThrows(IOException.class,
+                () -> EncryptedSnapshot.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length / 2)), secretKey),
+                "read() should throw IOException when the snapshot is truncated");
+    }
+
+    @Test
+    void testReadStream_whenBlockIsRemoved() throws IOException, CipherException {
+        Path file = directory.resolve("dataset.encrypted");
+        EncryptedSnapshot.write(file, missions(), ROCKETS, secretKey, MISSION_COUNT / 2);
+        byte[] bytes = Files.readAllBytes(file);
+        int frameLength = FRAME_HEADER_LENGTH + ByteBuffer.wrap(bytes, HEADER_LENGTH + 13, Integer.BYTES).getInt();
+        byte[] withoutFirstBlock = new byte[bytes.length - frameLength];
+        System.arraycopy(bytes, 0, withoutFirstBlock, 0, HEADER_LENGTH);
+        System.arraycopy(bytes, HEADER_LENGTH + frameLength, withoutFirstBlock, HEADER_LENGTH,
+                bytes.length - HEADER_LENGTH - frameLength);
+
+        assertThrows(CipherException.class,
+                () -> EncryptedSnapshot.read(new ByteArrayInputStream(withoutFirstBlock), secretKey),
+                "read() should throw CipherException when a block is removed");
+    }
+
+    @Test
+    void testRead_whenFrameLengthIsForged() throws IOException, CipherException {
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(HEADER_LENGTH + 13, Integer.MAX_VALUE - 1);
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> EncryptedSnapshot.read(new ByteArrayInputStream(bytes), secretKey),
+                "read() should throw IOException when a frame is longer than its block may be");
+        assertThrows(IOException.class, () -> EncryptedSnapshot.read(file, secretKey, FIRST_LAUNCH, FIRST_LAUNCH),
+                "read() should throw IOException when a frame runs past the end of the file");
+    }
+
+    @Test
+    void testRead_whenNotASnapshot() throws IOException {
+        Path file = Files.writeString(directory.resolve("missions.csv"), "Unnamed: 0,Company Name,Location");
+
+        assertThrows(IOException.class,
+                () -> EncryptedSnapshot.read(new ByteArrayInputStream(Files.readAllBytes(file)), secretKey),
+                "read() should throw IOException when the input is not an encrypted snapshot");
+        assertThrows(IOException.class, () -> EncryptedSnapshot.read(file, secretKey, FIRST_LAUNCH, FIRST_LAUNCH),
+                "read() should throw IOException when the file is not an encrypted snapshot");
+    }
+
+    private static SecretKey newSecretKey() throws NoSuchAlgorithmException {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(128);
+        return keyGenerator.generateKey();
+    }
+}
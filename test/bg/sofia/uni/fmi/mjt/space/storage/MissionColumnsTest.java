@@ -0,0 +1,102 @@
+package bg.sofia.uni.fmi.mjt.space.storage;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MissionColumnsTest {
+
+    private static Mission mission(String id, String company, Optional<Double> cost) {
+        return new Mission(id, company, "LC-39A, Kennedy Space Center, Florida, USA", LocalDate.of(1985, 8, 27),
+                new Detail("Saturn V", "STS-51-I"), RocketStatus.STATUS_RETIRED, cost, MissionStatus.SUCCESS);
+    }
+
+    @Test
+    void testAdd_whenMissionIsNull() {
+        MissionColumns columns = new MissionColumns();
+
+        assertThrows(IllegalArgumentException.class, () -> columns.add(null),
+                "add() should throw IllegalArgumentException when mission is null");
+    }
+
+    @Test
+    void testMission_roundTripsAllFields() {
+        MissionColumns columns = new MissionColumns();
+        Mission original = mission("1", "NASA", Optional.of(450.0));
+
+        int row = columns.add(original);
+        Mission restored = columns.mission(row);
+
+        assertAll(
+                () -> assertEquals(original.id(), restored.id(), "id should be restored"),
+                () -> assertEquals(original.company(), restored.company(), "company should be restored"),
+                () -> assertEquals(original.location(), restored.location(), "location should be restored"),
+                () -> assertEquals(original.date(), restored.date(), "date should be restored"),
+                () -> assertEquals(original.detail(), restored.detail(), "detail should be restored"),
+                () -> assertEquals(original.rocketStatus(), restored.rocketStatus(), "rocketStatus should be restored"),
+                () -> assertEquals(original.cost(), restored.cost(), "cost should be restored"),
+                () -> assertEquals(original.missionStatus(), restored.missionStatus(), "missionStatus should be restored")
+        );
+    }
+
+    @Test
+    void testCost_whenMissing() {
+        MissionColumns columns = new MissionColumns();
+
+        int row = columns.add(mission("1", "NASA", Optional.empty()));
+
+        assertTrue(Double.isNaN(columns.cost(row)), "Missing cost should be stored as the NaN sentinel");
+        assertEquals(Optional.empty(), columns.mission(row).cost(), "Missing cost should be restored as empty");
+    }
+
+    @Test
+    void testAdd_sharesDictionaryCodes() {
+        MissionColumns columns = new MissionColumns();
+
+        for (int i = 0; i < 100; i++) {
+            columns.add(mission(String.valueOf(i), i % 2 == 0 ? "NASA" : "SpaceX", Optional.empty()));
+        }
+
+        assertEquals(100, columns.size(), "Every added mission should become a row");
+        assertEquals(2, columns.companies().size(), "Repeating companies should be encoded only once");
+        assertEquals(columns.companyCode(0), columns.companyCode(98), "Equal companies should share a code");
+        assertNotEquals(columns.companyCode(0), columns.companyCode(1), "Different companies need different codes");
+    }
+
+    @Test
+    void testCountryCode_derivedOncePerLocation() {
+        MissionColumns columns = new MissionColumns();
+        columns.add(mission("1", "NASA", Optional.empty()));
+        columns.add(new Mission("2", "NASA", "SLC-40, Cape Canaveral AFS, Florida, USA", LocalDate.of(2020, 1, 1),
+                new Detail("Falcon 9", "Starlink"), RocketStatus.STATUS_ACTIVE, Optional.empty(), MissionStatus.SUCCESS));
+
+        assertEquals(2, columns.locations().size(), "Both locations should be encoded");
+        assertEquals(1, columns.countries().size(), "Locations in the same country should share a country");
+        assertEquals("USA", columns.countries().decode(columns.countryCode(1)), "The country should be derived");
+        assertEquals(columns.countryCode(0), columns.countryCode(1), "Both rows should have the same country code");
+    }
+
+    @Test
+    void testDictionaryStats_accountsForSharedValues() {
+        MissionColumns columns = new MissionColumns();
+        for (int i = 0; i < 100; i++) {
+            columns.add(mission(String.valueOf(i), "NASA", Optional.empty()));
+        }
+
+        DictionaryStats companies = columns.dictionaryStats().get("company");
+
+        assertEquals(1, companies.distinctValues(), "A single company should be held once");
+        assertEquals(100, companies.references(), "Every row should reference the company");
+        assertEquals(99 * companies.retainedBytes(), companies.savedBytes(),
+                "Every reference but the retained one should be saved");
+        assertSame(columns.mission(1).company(), columns.mission(2).company(),
+                "Materialized missions should share the canonical company instance");
+    }
+}
@@ -0,0 +1,125 @@
+package bg.sofia.uni.fmi.mjt.space.streaming;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.KeyGenerator;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingMissionScannerTest {
+
+    private static final String MISSIONS_CSV =
+            "Unnamed: 0,Company Name,Location,Datum,Detail,Status Rocket, Rocket,Status Mission\n" +
+                    "2112,Arianespace,\"ELA-1, Guiana Space Centre, French Guiana, France\",\"Thu Sep 12, 1985\",\"Saturn IB | ECS 3, Spacenet 3\",StatusRetired,,Failure\n" +
+                    "2115,NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Tue Aug 27, 1985\",Saturn V | STS-51-I,StatusRetired,\"450.0 \",Success\n" +
+                    "2121,NASA,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Thu Jul 25, 1985\",Saturn IB | STS-51-F,StatusRetired,\"450.0 \",Success\n" +
+                    "2124,Arianespace,\"ELV-1 (SLV), Guiana Space Centre, French Guiana, France\",\"Tue Jul 02, 1985\",Scout X-3 | Giotto,StatusRetired,,Success\n" +
+                    "2126,RVSN USSR,\"Site 45/1, Baikonur Cosmodrome, Kazakhstan\",\"Fri Jun 21, 1985\",Proton M | EPN 03.0694,StatusRetired,\"64.68 \",Success\n" +
+                    "2129,NASA,\"SLC-40, Cape Canaveral AFS, Florida, USA\",\"Mon Jun 17, 1985\",Saturn V | STS-51-G,StatusRetired,\"450.0 \",Success\n";
+
+    private static final LocalDate FROM = LocalDate.of(1985, 7, 1);
+    private static final LocalDate TO = LocalDate.of(1985, 12, 31);
+
+    @TempDir
+    Path directory;
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(directory.resolve("missions.csv"), content);
+    }
+
+    private static MJTSpaceScanner inMemory(Path missionsFile) throws IOException, NoSuchAlgorithmException {
+        return new MJTSpaceScanner(new StringReader(Files.readString(missionsFile)), null,
+                KeyGenerator.getInstance("AES").generateKey());
+    }
+
+    private static void assertMatchesInMemoryScanner(Path missionsFile) throws IOException, NoSuchAlgorithmException {
+        StreamingMissionScanner streaming = new StreamingMissionScanner(missionsFile);
+        MJTSpaceScanner scanner = inMemory(missionsFile);
+
+        assertEquals(scanner.getCompanyWithMostSuccessfulMissions(FROM, TO),
+                streaming.getCompanyWithMostSuccessfulMissions(FROM, TO),
+                "Streaming company with most successes should match the in-memory scanner");
+        assertEquals(scanner.getMostDesiredLocationForMissionsPerCompany(),
+                streaming.getMostDesiredLocationForMissionsPerCompany(),
+                "Streaming most desired locations should match the in-memory scanner");
+        assertEquals(scanner.getLocationWithMostSuccessfulMissionsPerCompany(FROM, TO),
+                streaming.getLocationWithMostSuccessfulMissionsPerCompany(FROM, TO),
+                "Streaming locations with most successes should match the in-memory scanner");
+        assertEquals(scanner.getTopNLeastExpensiveMissions(5, MissionStatus.SUCCESS, RocketStatus.STATUS_RETIRED),
+                streaming.getTopNLeastExpensiveMissions(5, MissionStatus.SUCCESS, RocketStatus.STATUS_RETIRED),
+                "Streaming cheapest missions should match the in-memory scanner");
+    }
+
+    @Test
+    void testConstructor_whenFileIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new StreamingMissionScanner(null),
+                "Constructor should throw IllegalArgumentException when missionsFile is null");
+    }
+
+    @Test
+    void testQueries_whenArgumentsAreInvalid() throws IOException {
+        StreamingMissionScanner streaming = new StreamingMissionScanner(write(MISSIONS_CSV));
+
+        assertThrows(IllegalArgumentException.class, () -> streaming.getCompanyWithMostSuccessfulMissions(null, TO),
+                "Null from should throw IllegalArgumentException");
+        assertThrows(TimeFrameMismatchException.class,
+                () -> streaming.getLocationWithMostSuccessfulMissionsPerCompany(TO, FROM),
+                "to before from should throw TimeFrameMismatchException");
+        assertThrows(IllegalArgumentException.class,
+                () -> streaming.getTopNLeastExpensiveMissions(0, MissionStatus.SUCCESS, RocketStatus.STATUS_ACTIVE),
+                "Non-positive n should throw IllegalArgumentException");
+        assertThrows(IllegalArgumentException.class, () -> streaming.scan((MissionAggregator<?>) null),
+                "A null aggregator should throw IllegalArgumentException");
+    }
+
+    @Test
+    void testQueries_matchInMemoryScanner() throws IOException, NoSuchAlgorithmException {
+        assertMatchesInMemoryScanner(write(MISSIONS_CSV));
+    }
+
+    @Test
+    void testQueries_matchInMemoryScannerOnBundledDataset() throws IOException, NoSuchAlgorithmException {
+        Path bundled = Path.of("all-missions-from-1957.csv");
+        if (Files.exists(bundled)) {
+            assertMatchesInMemoryScanner(bundled);
+        }
+    }
+
+    @Test
+    void testScan_computesSeveralAggregatesInOnePass() throws IOException {
+        StreamingMissionScanner streaming = new StreamingMissionScanner(write(MISSIONS_CSV));
+        MissionAggregator<String> company = MissionAggregators.companyWithMostSuccessfulMissions(FROM, TO);
+        MissionAggregator<List<Mission>> cheapest =
+                MissionAggregators.topNLeastExpensiveMissions(2, MissionStatus.SUCCESS, RocketStatus.STATUS_RETIRED);
+
+        streaming.scan(company, cheapest);
+
+        assertEquals("NASA", company.result(), "NASA has the most successes in the second half of 1985");
+        assertEquals(List.of("2126", "2115"), cheapest.result().stream().map(Mission::id).toList(),
+                "Cheapest missions should be ordered by cost and keep file order for equal costs");
+    }
+
+    @Test
+    void testScan_whenFileHasOnlyHeader() throws IOException {
+        StreamingMissionScanner streaming = new StreamingMissionScanner(write("Unnamed: 0,Company Name\n"));
+
+        assertEquals("", streaming.getCompanyWithMostSuccessfulMissions(FROM, TO),
+                "No missions should give an empty company");
+        assertEquals(Map.of(), streaming.getMostDesiredLocationForMissionsPerCompany(),
+                "No missions should give an empty map");
+    }
+}